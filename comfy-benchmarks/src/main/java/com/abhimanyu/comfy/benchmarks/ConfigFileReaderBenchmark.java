@@ -0,0 +1,55 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.io.ini.ConfigFileReader;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.parse.ScanningLineParser;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class ConfigFileReaderBenchmark {
+
+  @Param({ "1KB", "1MB", "100MB", "1GB" })
+  private String size;
+
+  @Param({ "TYPICAL", "OVERRIDE_HEAVY", "COMMENT_HEAVY" })
+  private Mix mix;
+
+  @Param({ "500" })
+  private int sections;
+
+  private Path file;
+
+  @Setup
+  public void setUp() {
+    file = IniFiles.generate(size, mix, sections);
+  }
+
+  @Benchmark
+  public ComfyConfig read() throws IOException {
+    ConfigFileReader reader = new ConfigFileReader(new ScanningLineParser(), new INIPropertyProcessor(),
+        IniFiles.ACTIVE_OVERRIDES);
+    return reader.read(Files.newInputStream(file));
+  }
+}
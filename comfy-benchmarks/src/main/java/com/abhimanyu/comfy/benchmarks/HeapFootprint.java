@@ -0,0 +1,74 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import com.abhimanyu.comfy.Comfy;
+import com.abhimanyu.comfy.io.snapshot.SnapshotLoader;
+import com.abhimanyu.comfy.io.snapshot.SnapshotWriter;
+
+/**
+ * Compares the heap retained by a config loaded into HashMaps with the off-heap and mapped snapshot views of the same
+ * file. Footprints are not a JMH metric, so this is a plain main: it keeps several copies of each representation alive
+ * and reports the used heap after a full GC, divided by the number of copies.
+ *
+ * java -XX:+UseSerialGC -cp target/benchmarks.jar com.abhimanyu.comfy.benchmarks.HeapFootprint [size] [mix] [sections]
+ */
+public class HeapFootprint {
+  private static final int COPIES = 4;
+
+  private static volatile Object retained;
+
+  public static void main(String[] args) {
+    String size = args.length > 0 ? args[0] : "10MB";
+    Mix mix = args.length > 1 ? Mix.valueOf(args[1]) : Mix.TYPICAL;
+    int sections = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+    Path file = IniFiles.generate(size, mix, sections);
+    Path snapshot = file.resolveSibling(file.getFileName() + ".comfy");
+    Comfy.compileSnapshot(file, IniFiles.ACTIVE_OVERRIDES, snapshot);
+
+    System.out.printf("%s %s, %d sections%n", size, mix, sections);
+    report("HashMap", () -> Comfy.loadConfig(file, IniFiles.ACTIVE_OVERRIDES));
+    report("frozen", () -> Comfy.loadConfig(file, IniFiles.ACTIVE_OVERRIDES).freeze());
+    ByteBuffer buffer = new SnapshotWriter()
+        .writeOffHeap(Comfy.loadConfig(file, IniFiles.ACTIVE_OVERRIDES), IniFiles.ACTIVE_OVERRIDES);
+    report("off-heap", () -> new SnapshotLoader().load(buffer));
+    report("mapped snapshot", () -> new SnapshotLoader().load(snapshot));
+    try {
+      System.out.printf("off-heap buffer: %,d bytes, snapshot file: %,d bytes%n", buffer.capacity(),
+          Files.size(snapshot));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void report(String name, Supplier<Object> load) {
+    long before = usedHeap();
+    Object[] copies = new Object[COPIES];
+    for (int i = 0; i < COPIES; i++) {
+      copies[i] = load.get();
+    }
+    // keeps the copies reachable while the heap is measured.
+    retained = copies;
+    long after = usedHeap();
+    retained = null;
+    System.out.printf("%-16s %,14d heap bytes per copy%n", name, (after - before) / COPIES);
+  }
+
+  static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,171 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Random;
+
+/*** Generates deterministic synthetic INI files and line/value corpora for the benchmarks. */
+
+public final class IniFiles {
+  public static final String[] ACTIVE_OVERRIDES = { "production", "ubuntu" };
+
+  private static final String[] OVERRIDES = { "production", "staging", "ubuntu", "itscript", "canary", "qa", "dev",
+      "eu", "us", "apac" };
+  private static final String[] WORDS = { "srv", "var", "tmp", "uploads", "etc", "http", "ftp", "cache", "data",
+      "logs" };
+  private static final int KEYS_PER_SECTION = 64;
+  private static final long SEED = 42L;
+
+  private static final Path CACHE_DIRECTORY = Paths
+      .get(System.getProperty("comfy.benchmarks.dir", System.getProperty("java.io.tmpdir")), "comfy-benchmarks");
+
+  private IniFiles() {
+  }
+
+  // Returns a cached file of at least the given size, generating it the first time it is asked for.
+  public static Path generate(String size, Mix mix, int sections) {
+    long bytes = parseSize(size);
+    Path file = CACHE_DIRECTORY.resolve(String.format("%s-%s-%d.ini", mix.name().toLowerCase(Locale.ROOT), size,
+        sections));
+    if (Files.exists(file)) {
+      return file;
+    }
+
+    try {
+      Files.createDirectories(CACHE_DIRECTORY);
+      Path temporary = Files.createTempFile(CACHE_DIRECTORY, "generating", ".ini");
+      try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+        Generator generator = new Generator(mix, sections);
+        long written = 0;
+        while (written < bytes) {
+          String line = generator.nextLine();
+          writer.write(line);
+          writer.write('\n');
+          written += line.length() + 1;
+        }
+      }
+      Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // A set of two overrides of the generated files, different for consecutive indexes, for one tenant of a service.
+  public static String[] overrideSet(int index) {
+    String first = OVERRIDES[index % OVERRIDES.length];
+    String second = OVERRIDES[(index / OVERRIDES.length + index + 1) % OVERRIDES.length];
+    return new String[] { first, second };
+  }
+
+  public static String[] lines(int count, Mix mix) {
+    Generator generator = new Generator(mix, 16);
+    String[] lines = new String[count];
+    for (int i = 0; i < count; i++) {
+      lines[i] = generator.nextLine();
+    }
+    return lines;
+  }
+
+  public static String[] values(int count, Mix mix) {
+    Generator generator = new Generator(mix, 16);
+    String[] values = new String[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = generator.nextValue();
+    }
+    return values;
+  }
+
+  public static long parseSize(String size) {
+    String unit = size.replaceAll("[0-9]", "").toUpperCase(Locale.ROOT);
+    long amount = Long.parseLong(size.replaceAll("[^0-9]", ""));
+    switch (unit) {
+    case "B":
+    case "":
+      return amount;
+    case "KB":
+      return amount << 10;
+    case "MB":
+      return amount << 20;
+    case "GB":
+      return amount << 30;
+    default:
+      throw new IllegalArgumentException("Unknown size unit: " + size);
+    }
+  }
+
+  private static final class Generator {
+    private final Random random = new Random(SEED);
+    private final Mix mix;
+    private final int sections;
+    private final int totalWeight;
+    private int section;
+    private int linesLeftInSection;
+
+    Generator(Mix mix, int sections) {
+      this.mix = mix;
+      this.sections = sections;
+      int total = 0;
+      for (int weight : mix.getValueWeights()) {
+        total += weight;
+      }
+      this.totalWeight = total;
+    }
+
+    String nextLine() {
+      if (linesLeftInSection == 0) {
+        linesLeftInSection = 5 + random.nextInt(36);
+        String header = "[section" + section + "]";
+        section = (section + 1) % sections;
+        return header;
+      }
+      linesLeftInSection--;
+
+      double roll = random.nextDouble();
+      if (roll < mix.getCommentRatio()) {
+        return "; " + word() + " " + word() + " " + word();
+      }
+      String key = "key_" + random.nextInt(KEYS_PER_SECTION);
+      String padding = random.nextBoolean() ? " " : "";
+      if (random.nextDouble() < mix.getOverrideRatio()) {
+        key = key + "<" + OVERRIDES[random.nextInt(OVERRIDES.length)] + ">";
+      }
+      String line = key + padding + "=" + padding + nextValue();
+      return random.nextInt(10) == 0 ? line + " ; " + word() : line;
+    }
+
+    String nextValue() {
+      int pick = random.nextInt(totalWeight);
+      int[] weights = mix.getValueWeights();
+      int type = 0;
+      while (pick >= weights[type]) {
+        pick -= weights[type];
+        type++;
+      }
+
+      switch (type) {
+      case 0:
+        return Integer.toString(random.nextInt());
+      case 1:
+        return "\"" + word() + " " + word() + ", " + word() + "\"";
+      case 2:
+        return "/" + word() + "/" + word() + "/" + word() + "/";
+      case 3:
+        return random.nextBoolean() ? "yes" : "false";
+      default:
+        return word() + "," + word() + ", " + word();
+      }
+    }
+
+    private String word() {
+      return WORDS[random.nextInt(WORDS.length)];
+    }
+  }
+}
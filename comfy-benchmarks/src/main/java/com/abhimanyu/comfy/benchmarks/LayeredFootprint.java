@@ -0,0 +1,47 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import com.abhimanyu.comfy.Comfy;
+import com.abhimanyu.comfy.config.OverrideTable;
+
+/**
+ * Compares the heap retained by the configs of many tenants of one file, each with its own override set, when every
+ * tenant loads the file on its own and when the tenants are layers over one shared base. Like {@link HeapFootprint},
+ * it reports the used heap after a full GC.
+ *
+ * java -XX:+UseSerialGC -cp target/benchmarks.jar com.abhimanyu.comfy.benchmarks.LayeredFootprint [size] [tenants]
+ */
+public class LayeredFootprint {
+  private static volatile Object retained;
+
+  public static void main(String[] args) {
+    String size = args.length > 0 ? args[0] : "1MB";
+    int tenants = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    Path file = IniFiles.generate(size, Mix.TYPICAL, 500);
+
+    System.out.printf("%s %s, %d tenants%n", size, Mix.TYPICAL, tenants);
+    report("full loads", tenants, () -> tenant -> Comfy.loadConfig(file, IniFiles.overrideSet(tenant)));
+    // the table holds the base shared by all layers, so it is built inside the measurement.
+    report("layers", tenants, () -> {
+      OverrideTable table = Comfy.loadOverrideTable(file);
+      return tenant -> table.layer(IniFiles.overrideSet(tenant));
+    });
+  }
+
+  private static void report(String name, int tenants, Supplier<IntFunction<Object>> setup) {
+    long before = HeapFootprint.usedHeap();
+    IntFunction<Object> load = setup.get();
+    Object[] configs = new Object[tenants];
+    for (int i = 0; i < tenants; i++) {
+      configs[i] = load.apply(i);
+    }
+    // keeps the configs, and whatever the loader shares between them, reachable while the heap is measured.
+    retained = new Object[] { load, configs };
+    long after = HeapFootprint.usedHeap();
+    retained = null;
+    System.out.printf("%-12s %,16d heap bytes, %,12d per tenant%n", name, after - before, (after - before) / tenants);
+  }
+}
@@ -0,0 +1,51 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhimanyu.comfy.parse.FilteringLineParser;
+import com.abhimanyu.comfy.parse.LineParser;
+import com.abhimanyu.comfy.parse.LineTokens;
+import com.abhimanyu.comfy.parse.ScanningLineParser;
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineParserBenchmark {
+  private static final int CORPUS_SIZE = 4096;
+
+  @Param({ "scanning", "filtering" })
+  private String parser;
+
+  @Param({ "TYPICAL", "OVERRIDE_HEAVY", "COMMENT_HEAVY" })
+  private Mix mix;
+
+  private LineParser lineParser;
+  private String[] lines;
+  private int index;
+
+  @Setup
+  public void setUp() {
+    lineParser = "filtering".equals(parser) ? new FilteringLineParser() : new ScanningLineParser();
+    lines = IniFiles.lines(CORPUS_SIZE, mix);
+  }
+
+  @Benchmark
+  public LineTokens parse() {
+    return lineParser.parse(lines[index++ & (CORPUS_SIZE - 1)]);
+  }
+}
@@ -0,0 +1,49 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhimanyu.comfy.Comfy;
+import com.abhimanyu.comfy.config.ComfyConfig;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class LoadConfigBenchmark {
+
+  @Param({ "1KB", "1MB", "100MB", "1GB" })
+  private String size;
+
+  @Param({ "TYPICAL", "OVERRIDE_HEAVY", "COMMENT_HEAVY" })
+  private Mix mix;
+
+  @Param({ "500" })
+  private int sections;
+
+  private Path file;
+
+  @Setup
+  public void setUp() {
+    file = IniFiles.generate(size, mix, sections);
+  }
+
+  @Benchmark
+  public ComfyConfig loadConfig() {
+    return Comfy.loadConfig(file.toString(), IniFiles.ACTIVE_OVERRIDES);
+  }
+}
@@ -0,0 +1,34 @@
+package com.abhimanyu.comfy.benchmarks;
+
+/*** The shape of a generated INI file: the share of override and comment lines and the weights of each value type. */
+
+public enum Mix {
+  TYPICAL(0.30, 0.10, new int[] { 3, 2, 3, 1, 1 }),
+  OVERRIDE_HEAVY(0.80, 0.05, new int[] { 3, 2, 3, 1, 1 }),
+  COMMENT_HEAVY(0.10, 0.50, new int[] { 3, 2, 3, 1, 1 }),
+  NUMERIC(0.10, 0.05, new int[] { 8, 0, 0, 2, 0 }),
+  TEXTUAL(0.10, 0.05, new int[] { 0, 4, 4, 0, 2 });
+
+  private final double overrideRatio;
+  private final double commentRatio;
+  // weights of INT, STRING, TEXT, BOOLEAN and ARRAY values.
+  private final int[] valueWeights;
+
+  Mix(double overrideRatio, double commentRatio, int[] valueWeights) {
+    this.overrideRatio = overrideRatio;
+    this.commentRatio = commentRatio;
+    this.valueWeights = valueWeights;
+  }
+
+  public double getOverrideRatio() {
+    return overrideRatio;
+  }
+
+  public double getCommentRatio() {
+    return commentRatio;
+  }
+
+  public int[] getValueWeights() {
+    return valueWeights;
+  }
+}
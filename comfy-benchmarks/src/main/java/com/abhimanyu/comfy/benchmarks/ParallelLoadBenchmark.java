@@ -0,0 +1,71 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.io.ini.MappedConfigFileReader;
+import com.abhimanyu.comfy.io.ini.ParallelConfigFileReader;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+
+/*** Compares the sequential mapped reader with the parallel reader for a growing number of worker threads. */
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class ParallelLoadBenchmark {
+
+  @Param({ "100MB", "1GB" })
+  private String size;
+
+  @Param({ "TYPICAL", "OVERRIDE_HEAVY" })
+  private Mix mix;
+
+  @Param({ "500" })
+  private int sections;
+
+  // 0 reads sequentially with MappedConfigFileReader.
+  @Param({ "0", "1", "2", "4", "8", "16" })
+  private int threads;
+
+  private Path file;
+  private ForkJoinPool pool;
+
+  @Setup
+  public void setUp() {
+    file = IniFiles.generate(size, mix, sections);
+    pool = threads > 0 ? new ForkJoinPool(threads) : null;
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  @Benchmark
+  public ComfyConfig read() {
+    if (pool == null) {
+      return new MappedConfigFileReader(new INIPropertyProcessor(), IniFiles.ACTIVE_OVERRIDES).read(file);
+    }
+    return new ParallelConfigFileReader(new INIPropertyProcessor(), IniFiles.ACTIVE_OVERRIDES, pool).read(file);
+  }
+}
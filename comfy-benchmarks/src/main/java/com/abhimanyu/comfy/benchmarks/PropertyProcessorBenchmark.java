@@ -0,0 +1,47 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.value.ConfigValue;
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyProcessorBenchmark {
+  private static final int CORPUS_SIZE = 4096;
+
+  @Param({ "TYPICAL", "NUMERIC", "TEXTUAL" })
+  private Mix mix;
+
+  private PropertyProcessor propertyProcessor;
+  private String[] values;
+  private int index;
+
+  @Setup
+  public void setUp() {
+    propertyProcessor = new INIPropertyProcessor();
+    values = IniFiles.values(CORPUS_SIZE, mix);
+  }
+
+  @Benchmark
+  public ConfigValue<?> process() {
+    return propertyProcessor.process(values[index++ & (CORPUS_SIZE - 1)]);
+  }
+}
@@ -0,0 +1,70 @@
+package com.abhimanyu.comfy.benchmarks;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.abhimanyu.comfy.Comfy;
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.io.ini.MappedConfigFileReader;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+
+/*** Compares reading three sections out of 500 with reading every section and dropping the others. */
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class SelectiveLoadBenchmark {
+
+  @Param({ "1MB", "100MB" })
+  private String size;
+
+  @Param({ "TYPICAL", "OVERRIDE_HEAVY" })
+  private Mix mix;
+
+  @Param({ "500" })
+  private int sections;
+
+  private final Set<String> selected = new HashSet<>(Arrays.asList("section7", "section123", "section421"));
+
+  private Path file;
+
+  @Setup
+  public void setUp() {
+    file = IniFiles.generate(size, mix, sections);
+  }
+
+  @Benchmark
+  public ComfyConfig loadAllThenFilter() {
+    ComfyConfig all = new MappedConfigFileReader(new INIPropertyProcessor(), IniFiles.ACTIVE_OVERRIDES).read(file);
+    ComfyConfig config = new ComfyConfig(selected.size());
+    for (String section : selected) {
+      if (all.get(section) != null) {
+        config.put(section, all.get(section));
+      }
+    }
+    return config;
+  }
+
+  @Benchmark
+  public ComfyConfig loadSelected() {
+    return Comfy.loadConfig(file, IniFiles.ACTIVE_OVERRIDES, selected);
+  }
+}
@@ -2,26 +2,106 @@ package com.abhimanyu.comfy;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import com.abhimanyu.comfy.bind.ConfigBinder;
 import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.OverrideTable;
+import com.abhimanyu.comfy.config.OverrideTableBuilder;
 import com.abhimanyu.comfy.exception.ComfyException;
-import com.abhimanyu.comfy.io.InputReader;
+import com.abhimanyu.comfy.io.ComfyHandler;
+import com.abhimanyu.comfy.io.LoadResult;
+import com.abhimanyu.comfy.io.ini.AsyncConfigFileReader;
+import com.abhimanyu.comfy.io.ini.BatchConfigFileReader;
 import com.abhimanyu.comfy.io.ini.ConfigFileReader;
-import com.abhimanyu.comfy.parse.FilteringLineParser;
+import com.abhimanyu.comfy.io.ini.MappedConfigFileReader;
+import com.abhimanyu.comfy.io.ini.ParallelConfigFileReader;
+import com.abhimanyu.comfy.io.ini.StreamingConfigFileReader;
+import com.abhimanyu.comfy.io.snapshot.SnapshotLoader;
+import com.abhimanyu.comfy.io.snapshot.SnapshotWriter;
+import com.abhimanyu.comfy.io.snapshot.SourceStamp;
+import com.abhimanyu.comfy.metrics.ComfyMetrics;
 import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.parse.LazyPropertyProcessor;
 import com.abhimanyu.comfy.parse.LineParser;
+import com.abhimanyu.comfy.parse.OverrideSelector;
 import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.ScanningLineParser;
+import com.abhimanyu.comfy.value.ConfigValue;
 
 public class Comfy {
+  // files of at least this size are memory mapped and tokenized as bytes instead of being read line by line.
+  public static final long MAPPED_READ_THRESHOLD = 16L * 1024 * 1024;
+
+  private static volatile ComfyMetrics metrics;
+
+  // Passes the statistics of every later loadConfig and loadConfigLazily to metrics, eg. a JmxComfyMetrics. Null, the
+  // default, stops recording them.
+  public static void setMetrics(ComfyMetrics comfyMetrics) {
+    metrics = comfyMetrics;
+  }
+
+  public static ComfyMetrics getMetrics() {
+    return metrics;
+  }
 
   public static ComfyConfig loadConfig(String file, String[] overrides) {
+    return loadConfig(Paths.get(file), overrides);
+  }
+
+  public static ComfyConfig loadConfig(Path filePath, String[] overrides) {
+    return load(filePath, overrides, new INIPropertyProcessor());
+  }
+
+  // Reads only the given sections. The lines of all other sections are skipped without being parsed or validated.
+  public static ComfyConfig loadConfig(String file, String[] overrides, Set<String> sections) {
+    return loadConfig(Paths.get(file), overrides, sections);
+  }
+
+  public static ComfyConfig loadConfig(Path filePath, String[] overrides, Set<String> sections) {
+    if (!Files.isRegularFile(filePath)) {
+      throw new ComfyException(String.format("Failed to find file on path: %s", filePath.toAbsolutePath()));
+    }
+    MappedConfigFileReader reader = new MappedConfigFileReader(new INIPropertyProcessor(), overrides, sections);
+    reader.setMetrics(metrics);
+    return reader.read(filePath);
+  }
 
-    Path filePath = Paths.get(file);
-    LineParser lineParser = new FilteringLineParser();
-    PropertyProcessor propertyProcessor = new INIPropertyProcessor();
-    InputReader configFileReader = new ConfigFileReader(lineParser, propertyProcessor, overrides);
+  // values are only checked and converted when they are first read, see LazyValue.
+  public static ComfyConfig loadConfigLazily(String file, String[] overrides) {
+    return loadConfigLazily(Paths.get(file), overrides);
+  }
+
+  public static ComfyConfig loadConfigLazily(Path filePath, String[] overrides) {
+    return load(filePath, overrides, new LazyPropertyProcessor(new INIPropertyProcessor()));
+  }
+
+  private static ComfyConfig load(Path filePath, String[] overrides, PropertyProcessor propertyProcessor) {
+    long size;
+    try {
+      size = Files.size(filePath);
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to find file on path: %s", filePath.toAbsolutePath()), e);
+    }
+    if (size >= MAPPED_READ_THRESHOLD) {
+      MappedConfigFileReader mappedReader = new MappedConfigFileReader(propertyProcessor, overrides);
+      mappedReader.setMetrics(metrics);
+      return mappedReader.read(filePath);
+    }
+
+    LineParser lineParser = new ScanningLineParser();
+    ConfigFileReader configFileReader = new ConfigFileReader(lineParser, propertyProcessor, overrides);
+    configFileReader.setMetrics(metrics);
     FileInputStream inputStream = null;
     try {
       inputStream = new FileInputStream(filePath.toFile());
@@ -29,10 +109,114 @@ public class Comfy {
       throw new ComfyException(String.format("Failed to find file on path: %s", filePath.toAbsolutePath()), e);
     }
 
-    return configFileReader.read(inputStream);
+    return configFileReader.read(inputStream, filePath.toString());
+  }
+
+  // Reads the file without blocking the calling thread, see AsyncConfigFileReader. The lines are parsed on executor,
+  // which also completes the returned future.
+  public static CompletableFuture<ComfyConfig> loadConfigAsync(Path filePath, String[] overrides, Executor executor) {
+    AsyncConfigFileReader reader = new AsyncConfigFileReader(new INIPropertyProcessor(), overrides);
+    reader.setMetrics(metrics);
+    return reader.read(filePath, executor);
+  }
+
+  // Loads every file of paths on a worker per available processor. A file that fails to load does not fail the others,
+  // its LoadResult holds the error instead.
+  public static Map<Path, LoadResult> loadAll(Collection<Path> paths, String[] overrides) {
+    return loadAll(paths, overrides, Runtime.getRuntime().availableProcessors());
+  }
+
+  public static Map<Path, LoadResult> loadAll(Collection<Path> paths, String[] overrides, int threads) {
+    BatchConfigFileReader reader = new BatchConfigFileReader(new INIPropertyProcessor(), overrides,
+        MAPPED_READ_THRESHOLD);
+    reader.setMetrics(metrics);
+    return reader.readAll(paths, threads);
+  }
+
+  public static ComfyConfig loadConfigParallel(Path filePath, String[] overrides) {
+    if (!Files.isRegularFile(filePath)) {
+      throw new ComfyException(String.format("Failed to find file on path: %s", filePath.toAbsolutePath()));
+    }
+    ParallelConfigFileReader reader = new ParallelConfigFileReader(new INIPropertyProcessor(), overrides);
+    reader.setMetrics(metrics);
+    return reader.read(filePath);
+  }
+
+  // Parses the file once with every override, so that the config of any set of overrides can be resolved from the
+  // returned table without reading the file again.
+  public static OverrideTable loadOverrideTable(Path filePath) {
+    if (!Files.isRegularFile(filePath)) {
+      throw new ComfyException(String.format("Failed to find file on path: %s", filePath.toAbsolutePath()));
+    }
+    OverrideTableBuilder builder = new OverrideTableBuilder();
+    StreamingConfigFileReader reader = new StreamingConfigFileReader(new INIPropertyProcessor(),
+        OverrideSelector.all());
+    reader.read(filePath, new ComfyHandler() {
+      @Override
+      public boolean onProperty(String section, String key, ConfigValue<?> value) {
+        builder.put(section, key, null, value);
+        return true;
+      }
+
+      @Override
+      public boolean onOverride(String section, String key, String override, ConfigValue<?> value) {
+        builder.put(section, key, override, value);
+        return true;
+      }
+    });
+    return builder.build();
+  }
+
+  // Passes the sections and properties of the file to handler as they are read, without building a config. Returns
+  // false if the handler stopped the read early.
+  public static boolean streamConfig(Path filePath, String[] overrides, ComfyHandler handler) {
+    if (!Files.isRegularFile(filePath)) {
+      throw new ComfyException(String.format("Failed to find file on path: %s", filePath.toAbsolutePath()));
+    }
+    return new StreamingConfigFileReader(new INIPropertyProcessor(), overrides).read(filePath, handler);
+  }
+
+  // Keeps the sections, keys and values in a single direct buffer outside of the heap. Values are decoded on every read
+  // and the returned config is read-only. Use loadConfigFromSnapshot to share the buffer between JVMs through a file.
+  public static ComfyConfig loadConfigOffHeap(Path filePath, String[] overrides) {
+    ByteBuffer buffer = new SnapshotWriter().writeOffHeap(loadConfig(filePath, overrides), overrides);
+    return new SnapshotLoader().load(buffer);
+  }
+
+  // Parses source and writes it to snapshot, which loadConfigFromSnapshot can then load without parsing.
+  public static void compileSnapshot(Path source, String[] overrides, Path snapshot) {
+    SourceStamp stamp = SourceStamp.of(source);
+    new SnapshotWriter().write(loadConfig(source, overrides), overrides, stamp, snapshot);
+  }
+
+  // Maps snapshot, compiling it first when it is missing or was compiled from another version of source or with other
+  // overrides. The returned config is read-only.
+  public static ComfyConfig loadConfigFromSnapshot(Path source, String[] overrides, Path snapshot) {
+    SnapshotLoader snapshotLoader = new SnapshotLoader();
+    if (!snapshotLoader.isUpToDate(snapshot, source, overrides)) {
+      compileSnapshot(source, overrides, snapshot);
+    }
+    return snapshotLoader.load(snapshot);
+  }
+
+  // Binds a section of config to an interface or class annotated with @Section, see ConfigBinder. Values of the wrong
+  // type fail here, not on the first read.
+  public static <T> T bind(ComfyConfig config, Class<T> type) {
+    return new ConfigBinder().bind(config, type);
   }
 
   public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals("--compile")) {
+      if (args.length < 3) {
+        System.err.println("Usage: --compile <config.ini> <snapshot> [override ...]");
+        System.exit(1);
+      }
+      String[] overrides = Arrays.copyOfRange(args, 3, args.length);
+      compileSnapshot(Paths.get(args[1]), overrides, Paths.get(args[2]));
+      System.out.println("Compiled " + args[1] + " to " + args[2]);
+      return;
+    }
+
     ComfyConfig config = Comfy.loadConfig(args[0], new String[] { "production", "ubuntu" });
 
     System.out
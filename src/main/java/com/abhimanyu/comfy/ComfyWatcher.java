@@ -0,0 +1,161 @@
+package com.abhimanyu.comfy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.ini.IncrementalConfigFileReader;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+
+/**
+ * Keeps a {@link ComfyConfig} in sync with its file. The directory of the file is watched with a {@link WatchService}
+ * and the file is parsed again on a daemon thread of the watcher, never on a thread that reads the config. Reloads
+ * go through an {@link IncrementalConfigFileReader}, so only the sections that changed are parsed again.
+ *
+ * Change events are debounced: a reload starts once no event arrived for the debounce interval, so an editor saving
+ * in several writes causes a single reload. The new config is published with one volatile write, so {@link #get()}
+ * never blocks and always returns a fully loaded config. When the file fails to load, the previous config stays in
+ * place and the failure is logged and kept in {@link #getLastFailure()}.
+ */
+public class ComfyWatcher implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(ComfyWatcher.class);
+
+  public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+  private final Path file;
+  private final IncrementalConfigFileReader reader;
+  private final long debounceMillis;
+  private final WatchService watchService;
+  private final Thread thread;
+  private final AtomicLong reloads = new AtomicLong();
+  private final AtomicLong failedReloads = new AtomicLong();
+  private volatile ComfyConfig config;
+  private volatile Set<String> changedSections;
+  private volatile RuntimeException lastFailure;
+  private volatile boolean closed;
+
+  public ComfyWatcher(Path file, String[] overrides) {
+    this(file, overrides, DEFAULT_DEBOUNCE_MILLIS);
+  }
+
+  // The first load happens in the constructor and throws, so a broken file fails at startup.
+  public ComfyWatcher(Path file, String[] overrides, long debounceMillis) {
+    this(file, new IncrementalConfigFileReader(new INIPropertyProcessor(), overrides), debounceMillis);
+  }
+
+  ComfyWatcher(Path file, IncrementalConfigFileReader reader, long debounceMillis) {
+    this.file = file.toAbsolutePath();
+    this.reader = reader;
+    this.debounceMillis = debounceMillis;
+    this.config = reader.read(this.file);
+    this.changedSections = reader.getChangedSections();
+
+    try {
+      watchService = this.file.getFileSystem().newWatchService();
+      // editors often save through a new file renamed over the old one, which is a create event.
+      this.file
+          .getParent()
+          .register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to watch file on path: %s", this.file), e);
+    }
+
+    thread = new Thread(this::watch, "comfy-watcher-" + this.file.getFileName());
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  public ComfyConfig get() {
+    return config;
+  }
+
+  // Sections added, removed or changed by the last successful reload.
+  public Set<String> getChangedSections() {
+    return changedSections;
+  }
+
+  public long getReloadCount() {
+    return reloads.get();
+  }
+
+  public long getFailedReloadCount() {
+    return failedReloads.get();
+  }
+
+  public RuntimeException getLastFailure() {
+    return lastFailure;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      LOG.error("Failed to close watchService.", e);
+    }
+    thread.interrupt();
+  }
+
+  private void watch() {
+    try {
+      while (!closed) {
+        if (!isFileChanged(watchService.take())) {
+          continue;
+        }
+        // coalesce everything that arrives until the file has been quiet for the debounce interval.
+        WatchKey key;
+        while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+          isFileChanged(key);
+        }
+        reload();
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      LOG.debug("Stopped watching {}.", file);
+    }
+  }
+
+  private boolean isFileChanged(WatchKey key) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context());
+    }
+    key.reset();
+    return changed;
+  }
+
+  private void reload() {
+    try {
+      ComfyConfig next = reader.read(file);
+      changedSections = reader.getChangedSections();
+      config = next;
+      reloads.incrementAndGet();
+      LOG.info("Reloaded config from {}, changed sections: {}.", file, changedSections);
+    } catch (RuntimeException e) {
+      failed(e);
+    } catch (InternalError e) {
+      // the file is mapped, and a mapped read of a file that is truncated meanwhile fails with an InternalError. The
+      // file is read again on its next change, so the watch thread must go on.
+      failed(new ComfyException(String.format("Failed to read from file: %s", file), e));
+    }
+  }
+
+  private void failed(RuntimeException e) {
+    lastFailure = e;
+    failedReloads.incrementAndGet();
+    LOG.warn("Failed to reload config from {}, the previous config is kept.", file, e);
+  }
+}
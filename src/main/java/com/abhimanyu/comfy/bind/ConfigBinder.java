@@ -0,0 +1,210 @@
+package com.abhimanyu.comfy.bind;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfySection;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.ValueType;
+
+/**
+ * Binds a section of a {@link ComfyConfig} to an interface or a class annotated with {@link Section}. Every value is
+ * read and converted once, while binding, so a value of the wrong type or a missing value for a primitive fails the
+ * bind with a {@link ComfyException} instead of the first read.
+ *
+ * An interface is bound to a {@link Proxy} whose methods, without parameters, return the values of their keys. Every
+ * call goes through the proxy: a lookup of the method in a map, and boxing for primitives. A class is instantiated
+ * through its constructor without parameters and its instance fields are set to the values of their keys, so reads
+ * are plain field loads; prefer classes for values read on hot paths. The key of a method or field is its name, or its
+ * {@link Key}.
+ *
+ * javac inlines a final field with a constant initializer, like {@code final int port = 21;}, into every read, so a
+ * bound value would never be seen. As reflection cannot tell such a field from one assigned by the constructor, a
+ * final field of a primitive type or String must hold its default, 0, false or null, after construction, or the bind
+ * fails.
+ *
+ * Methods and fields can be String, int, long, boolean, their boxed types and String[]. A long also takes an int
+ * value. A missing key binds to null for the boxed types, String and String[]. Bound objects do not follow later
+ * changes to the config. Their arrays are copies of the config's, and a proxy returns a new copy on every call.
+ */
+public class ConfigBinder {
+
+  public <T> T bind(ComfyConfig config, Class<T> type) {
+    Section annotation = type.getAnnotation(Section.class);
+    if (annotation == null) {
+      throw new ComfyException(String.format("Failed to bind %s, it is not annotated with @Section.", type.getName()));
+    }
+    ComfySection section = config.get(annotation.value());
+    if (section == null) {
+      throw new ComfyException(
+          String.format("Failed to bind %s, the config has no section %s.", type.getName(), annotation.value()));
+    }
+    return type.isInterface() ? bindInterface(section, annotation.value(), type)
+        : bindClass(section, annotation.value(), type);
+  }
+
+  private static <T> T bindInterface(ComfySection section, String sectionName, Class<T> type) {
+    Map<Method, Object> values = new HashMap<>();
+    for (Method method : type.getMethods()) {
+      if (Modifier.isStatic(method.getModifiers())) {
+        continue;
+      }
+      String member = String.format("%s.%s()", type.getSimpleName(), method.getName());
+      if (method.isDefault() || method.getParameterCount() > 0) {
+        throw new ComfyException(
+            String.format("Failed to bind %s, only abstract methods without parameters can be bound.", member));
+      }
+      values.put(method, value(section, sectionName, keyOf(method.getName(), method.getAnnotation(Key.class)),
+          method.getReturnType(), member));
+    }
+
+    InvocationHandler handler = (proxy, method, args) -> {
+      Object value = values.get(method);
+      if (value instanceof String[]) {
+        // a caller may change the array it gets, so every call gets its own.
+        return ((String[]) value).clone();
+      }
+      if (value != null || values.containsKey(method)) {
+        return value;
+      }
+      switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      default:
+        return String.format("%s%s", type.getSimpleName(), toString(values));
+      }
+    };
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+  }
+
+  private static <T> T bindClass(ComfySection section, String sectionName, Class<T> type) {
+    T instance;
+    try {
+      Constructor<T> constructor = type.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      instance = constructor.newInstance();
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      throw new ComfyException(
+          String.format("Failed to bind %s, it needs a constructor without parameters.", type.getName()), e);
+    }
+
+    for (Class<?> declaring = type; declaring != Object.class; declaring = declaring.getSuperclass()) {
+      for (Field field : declaring.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+          continue;
+        }
+        String member = String.format("%s.%s", declaring.getSimpleName(), field.getName());
+        if (mayBeInlined(field, instance)) {
+          throw new ComfyException(String.format(
+              "Failed to bind %s, a final field set before binding may be a constant that javac inlines into reads.",
+              member));
+        }
+        Object value = value(section, sectionName, keyOf(field.getName(), field.getAnnotation(Key.class)),
+            field.getType(), member);
+        try {
+          field.setAccessible(true);
+          field.set(instance, value);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+          throw new ComfyException(String.format("Failed to bind %s, the field cannot be set.", member), e);
+        }
+      }
+    }
+    return instance;
+  }
+
+  // Whether field may be a compile-time constant: final, of a type that constants can have, and not at its default.
+  private static boolean mayBeInlined(Field field, Object instance) {
+    Class<?> type = field.getType();
+    if (!Modifier.isFinal(field.getModifiers()) || !(type.isPrimitive() || type == String.class)) {
+      return false;
+    }
+    try {
+      field.setAccessible(true);
+      Object value = field.get(instance);
+      Object defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+      return value != null && !value.equals(defaultValue);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static String keyOf(String name, Key key) {
+    return key == null ? name : key.value();
+  }
+
+  // The value of key converted to type, null when the key is missing and type is not primitive.
+  private static Object value(ComfySection section, String sectionName, String key, Class<?> type, String member) {
+    ConfigValue<?> value = section.get(key);
+    if (value == null) {
+      if (type.isPrimitive()) {
+        throw new ComfyException(
+            String.format("Failed to bind %s, the section %s has no key %s.", member, sectionName, key));
+      }
+      if (!isSupported(type)) {
+        throw unsupported(member, type);
+      }
+      return null;
+    }
+
+    ValueType valueType = ValueType.of(value);
+    if (type == String.class) {
+      return convert(valueType == ValueType.STRING, value, sectionName, key, member, type);
+    } else if (type == int.class || type == Integer.class) {
+      return convert(valueType == ValueType.INT, value, sectionName, key, member, type);
+    } else if (type == long.class || type == Long.class) {
+      if (valueType == ValueType.INT) {
+        return ((Integer) value.getValue()).longValue();
+      }
+      return convert(valueType == ValueType.LONG, value, sectionName, key, member, type);
+    } else if (type == boolean.class || type == Boolean.class) {
+      return convert(valueType == ValueType.BOOLEAN, value, sectionName, key, member, type);
+    } else if (type == String[].class) {
+      return ((String[]) convert(valueType == ValueType.ARRAY, value, sectionName, key, member, type)).clone();
+    }
+    throw unsupported(member, type);
+  }
+
+  private static Object convert(boolean matches, ConfigValue<?> value, String sectionName, String key, String member,
+      Class<?> type) {
+    if (!matches) {
+      throw new ComfyException(String.format("Failed to bind %s, %s.%s is a %s, not a %s.", member, sectionName, key,
+          ValueType.of(value), type.getSimpleName()));
+    }
+    return value.getValue();
+  }
+
+  private static boolean isSupported(Class<?> type) {
+    return type == String.class || type == Integer.class || type == Long.class || type == Boolean.class
+        || type == String[].class;
+  }
+
+  private static ComfyException unsupported(String member, Class<?> type) {
+    return new ComfyException(String.format("Failed to bind %s, %s is not a supported type.", member, type.getName()));
+  }
+
+  private static String toString(Map<Method, Object> values) {
+    StringBuilder builder = new StringBuilder("{");
+    for (Map.Entry<Method, Object> entry : values.entrySet()) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      Object value = entry.getValue();
+      builder
+          .append(entry.getKey().getName())
+          .append('=')
+          .append(value instanceof String[] ? String.join(",", (String[]) value) : value);
+    }
+    return builder.append('}').toString();
+  }
+}
@@ -0,0 +1,15 @@
+package com.abhimanyu.comfy.bind;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Names the key of a bound method or field, when it is not the name of the method or field, eg. basic_size_limit.
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.FIELD })
+public @interface Key {
+  String value();
+}
@@ -1,7 +1,9 @@
 package com.abhimanyu.comfy.config;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import com.abhimanyu.comfy.value.ConfigValue;
 
@@ -12,6 +14,17 @@ public class ComfyConfig {
     map = new HashMap<>();
   }
 
+  // Sizes the section map so that expectedSections sections fit without rehashing.
+  public ComfyConfig(int expectedSections) {
+    map = new HashMap<>((int) (expectedSections / 0.75f) + 1);
+  }
+
+  // Uses sections as the storage of this config, without copying it. This lets other representations, like a read-only
+  // view of a snapshot file, back a config. Changes fail if the map does not support them.
+  public ComfyConfig(Map<String, ComfySection> sections) {
+    map = sections;
+  }
+
   public ComfySection get(String s) {
     return map.get(s);
   }
@@ -21,17 +34,58 @@ public class ComfyConfig {
   }
 
   public void put(String sectionName, String key, ConfigValue value) {
-    ComfySection section = getOrDefault(sectionName);
-    section.put(key, value);
-    put(sectionName, section);
+    map.computeIfAbsent(sectionName, name -> new ComfySection()).put(key, value);
+  }
+
+  // Like computeIfAbsent, without a capturing lambda for the expected size.
+  ComfySection getOrCreate(String sectionName, int expectedKeys) {
+    ComfySection section = map.get(sectionName);
+    if (section == null) {
+      section = new ComfySection(expectedKeys);
+      map.put(sectionName, section);
+    }
+    return section;
+  }
+
+  // the stored sections.
+  Map<String, ComfySection> values() {
+    return map;
   }
 
+  // Merges the sections of other into this config, values of other winning on duplicate keys. Sections that do not
+  // exist in this config yet are adopted as they are, not copied.
+  public void merge(ComfyConfig other) {
+    for (Map.Entry<String, ComfySection> entry : other.map.entrySet()) {
+      merge(entry.getKey(), entry.getValue());
+    }
+  }
+
+  void merge(String sectionName, ComfySection other) {
+    ComfySection section = map.get(sectionName);
+    if (section == null) {
+      map.put(sectionName, other);
+    } else {
+      section.putAll(other);
+    }
+  }
+
+  // Builds an immutable snapshot of the current sections and values. Later changes to this config do not show in it.
+  public FrozenComfyConfig freeze() {
+    return new FrozenComfyConfig(map);
+  }
+
+  // Returns an empty section, which is not added to this config, when there is none with the name.
   public ComfySection getOrDefault(String s) {
-    return map.getOrDefault(s, new ComfySection());
+    ComfySection section = map.get(s);
+    return section != null ? section : new ComfySection();
   }
 
   public int size() {
     return map.size();
   }
 
+  public Set<String> sectionNames() {
+    return Collections.unmodifiableSet(map.keySet());
+  }
+
 }
@@ -0,0 +1,91 @@
+package com.abhimanyu.comfy.config;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+
+/**
+ * Collects the values of one read into a {@link ComfyConfig}. Sections are created once, sized for the expected
+ * number of keys, and the section of the last put is kept, so putting the lines of a section one after the other does
+ * not look the section up again. Storing a value costs the map entry and nothing else.
+ *
+ * Values of override lines are put with their precedence, see OverrideSelector.precedence: a value only replaces one
+ * of the same or a lower precedence. The precedence of a key is only kept once an override line was put for it.
+ *
+ * A builder is used by a single thread and must not be used any more after {@link #build()}.
+ */
+public class ComfyConfigBuilder {
+  public static final int DEFAULT_EXPECTED_SECTIONS = 16;
+  public static final int DEFAULT_EXPECTED_KEYS = 16;
+  // the precedence of a line without override, lower than that of any override.
+  public static final int NO_OVERRIDE = Integer.MAX_VALUE;
+
+  private final ComfyConfig comfyConfig;
+  private final int expectedKeysPerSection;
+  // the precedence of keys set by an override line, per section.
+  private final Map<ComfySection, Map<String, Integer>> precedences = new IdentityHashMap<>();
+  private String lastSectionName;
+  private ComfySection lastSection;
+
+  public ComfyConfigBuilder() {
+    this(DEFAULT_EXPECTED_SECTIONS, DEFAULT_EXPECTED_KEYS);
+  }
+
+  public ComfyConfigBuilder(int expectedSections, int expectedKeysPerSection) {
+    this.comfyConfig = new ComfyConfig(expectedSections);
+    this.expectedKeysPerSection = expectedKeysPerSection;
+  }
+
+  public ComfyConfigBuilder put(String sectionName, String key, ConfigValue value) {
+    return put(sectionName, key, value, NO_OVERRIDE);
+  }
+
+  public ComfyConfigBuilder put(String sectionName, String key, ConfigValue value, int precedence) {
+    if (!sectionName.equals(lastSectionName)) {
+      lastSection = comfyConfig.getOrCreate(sectionName, expectedKeysPerSection);
+      lastSectionName = sectionName;
+    }
+    if (precedence == NO_OVERRIDE && precedences.isEmpty()) {
+      lastSection.put(key, value);
+      return this;
+    }
+
+    Map<String, Integer> sectionPrecedences = precedences.get(lastSection);
+    Integer current = sectionPrecedences == null ? null : sectionPrecedences.get(key);
+    if (current != null && current < precedence) {
+      return this;
+    }
+    lastSection.put(key, value);
+    if (precedence != NO_OVERRIDE) {
+      if (sectionPrecedences == null) {
+        sectionPrecedences = new HashMap<>();
+        precedences.put(lastSection, sectionPrecedences);
+      }
+      sectionPrecedences.put(key, precedence);
+    }
+    return this;
+  }
+
+  // Puts the values of a builder of the lines that follow the ones of this builder, as if they had been put here.
+  public ComfyConfigBuilder merge(ComfyConfigBuilder later) {
+    for (String sectionName : later.comfyConfig.sectionNames()) {
+      ComfySection section = later.comfyConfig.get(sectionName);
+      Map<String, Integer> sectionPrecedences = later.precedences.get(section);
+      if (sectionPrecedences == null && precedences.isEmpty()) {
+        comfyConfig.merge(sectionName, section);
+        continue;
+      }
+      for (Map.Entry<String, ConfigValue> entry : section.values().entrySet()) {
+        Integer precedence = sectionPrecedences == null ? null : sectionPrecedences.get(entry.getKey());
+        put(sectionName, entry.getKey(), entry.getValue(), precedence == null ? NO_OVERRIDE : precedence);
+      }
+    }
+    return this;
+  }
+
+  public ComfyConfig build() {
+    return comfyConfig;
+  }
+}
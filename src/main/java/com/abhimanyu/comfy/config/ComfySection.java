@@ -1,91 +1,147 @@
 package com.abhimanyu.comfy.config;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import com.abhimanyu.comfy.value.ArrayValue;
-import com.abhimanyu.comfy.value.BooleanValue;
 import com.abhimanyu.comfy.value.ConfigValue;
-import com.abhimanyu.comfy.value.IntValue;
-import com.abhimanyu.comfy.value.StringValue;
+import com.abhimanyu.comfy.value.Converter;
+import com.abhimanyu.comfy.value.Converters;
 
 public class ComfySection {
   private final Map<String, ConfigValue> map;
+  // results of getAs by key, created on its first use.
+  private volatile Map<String, Conversion> conversions;
 
   public ComfySection() {
     map = new HashMap<>();
   }
 
+  // Sizes the key map so that expectedKeys keys fit without rehashing.
+  public ComfySection(int expectedKeys) {
+    map = new HashMap<>((int) (expectedKeys / 0.75f) + 1);
+  }
+
+  // Uses values as the storage of this section without copying it, see ComfyConfig(Map).
+  public ComfySection(Map<String, ConfigValue> values) {
+    map = values;
+  }
+
   public void put(String key, ConfigValue value) {
     map.put(key, value);
   }
 
+  public void putAll(ComfySection other) {
+    map.putAll(other.map);
+  }
+
   public int size() {
     return map.size();
   }
 
+  public Set<String> keys() {
+    return Collections.unmodifiableSet(map.keySet());
+  }
+
   public ConfigValue get(String s) {
-    return map.get(s);
+    return ConfigValues.resolve(map.get(s));
+  }
+
+  // the stored values, lazy ones not resolved.
+  Map<String, ConfigValue> values() {
+    return map;
   }
 
   public String getStringValue(String s) {
-    ConfigValue configValue = get(s);
+    return ConfigValues.toStringValue(get(s));
+  }
 
-    if (configValue == null) {
-      return null;
-    }
+  public Integer getIntValue(String s) {
+    return ConfigValues.toIntValue(get(s));
+  }
 
-    if (configValue instanceof StringValue) {
-      return (String) configValue.getValue();
-    } else {
-      throw new ClassCastException(
-          String.format("Trying to convert an object of %s to a StringValue.", configValue.getClass()));
-    }
+  public Long getLongValue(String s) {
+    return ConfigValues.toLongValue(get(s));
   }
 
-  public Integer getIntValue(String s) {
-    ConfigValue configValue = get(s);
+  public Boolean getBooleanValue(String s) {
+    return ConfigValues.toBooleanValue(get(s));
+  }
 
-    if (configValue == null) {
+  // The array the section holds, which must not be changed. See getListValue.
+  public String[] getArrayValue(String s) {
+    return ConfigValues.toArrayValue(get(s));
+  }
+
+  // An unmodifiable view of the array of key. Unlike getArrayValue, which returns the array the section holds, the view
+  // cannot be used to change the section. Created once per value, like getAs.
+  public List<String> getListValue(String s) {
+    return getAs(s, Converters.LIST);
+  }
+
+  // The value of key converted by converter. The result is kept until the value of the key changes, so later reads
+  // of the key with the same converter return it without converting again. A value that is equal to the converted one
+  // counts as unchanged, as views like a snapshot decode a new value on every read. A key keeps the result of one
+  // converter at a time. Conversions that fail are not kept.
+  public <T> T getAs(String key, Converter<T> converter) {
+    ConfigValue stored = map.get(key);
+    if (stored == null) {
       return null;
     }
-
-    if (configValue instanceof IntValue) {
-      return (Integer) configValue.getValue();
-    } else {
-      throw new ClassCastException(
-          String.format("Trying to convert an object of %s to a IntValue.", configValue.getClass()));
+    Map<String, Conversion> results = conversions;
+    if (results == null) {
+      // sections are read concurrently, so two threads may both create the map, and one loses its results.
+      results = new ConcurrentHashMap<>();
+      conversions = results;
     }
+    Conversion conversion = results.get(key);
+    if (conversion == null || (conversion.converter != converter && !conversion.converter.equals(converter))
+        || !conversion.isFrom(stored)) {
+      conversion = new Conversion(stored, converter, converter.convert(ConfigValues.resolve(stored)));
+      results.put(key, conversion);
+    }
+    @SuppressWarnings("unchecked")
+    T result = (T) conversion.result;
+    return result;
   }
 
-  public Boolean getBooleanValue(String s) {
-    ConfigValue configValue = get(s);
+  public int getInt(String s, int defaultValue) {
+    return ConfigValues.toInt(get(s), defaultValue);
+  }
 
-    if (configValue == null) {
-      return null;
-    }
+  public long getLong(String s, long defaultValue) {
+    return ConfigValues.toLong(get(s), defaultValue);
+  }
 
-    if (configValue instanceof BooleanValue) {
-      return (Boolean) configValue.getValue();
-    } else {
-      throw new ClassCastException(
-          String.format("Trying to convert an object of %s to a BooleanValue.", configValue.getClass()));
-    }
+  public boolean getBoolean(String s, boolean defaultValue) {
+    return ConfigValues.toBoolean(get(s), defaultValue);
   }
 
-  public String[] getArrayValue(String s) {
-    ConfigValue configValue = get(s);
+  // A result of getAs and what it was converted from.
+  private static final class Conversion {
+    private final ConfigValue source;
+    private final Converter<?> converter;
+    private final Object result;
 
-    if (configValue == null) {
-      return null;
+    Conversion(ConfigValue source, Converter<?> converter, Object result) {
+      this.source = source;
+      this.converter = converter;
+      this.result = result;
     }
 
-    if (configValue instanceof ArrayValue) {
-      return (String[]) configValue.getValue();
-    } else {
-      throw new ClassCastException(
-          String.format("Trying to convert an object of %s to a ArrayValue.", configValue.getClass()));
+    // Whether value is the source, or a value of the same type with an equal content.
+    boolean isFrom(ConfigValue value) {
+      if (value == source) {
+        return true;
+      }
+      ConfigValue resolved = ConfigValues.resolve(value);
+      ConfigValue resolvedSource = ConfigValues.resolve(source);
+      return resolved.getClass() == resolvedSource.getClass()
+          && Objects.deepEquals(resolved.getValue(), resolvedSource.getValue());
     }
   }
-
 }
@@ -0,0 +1,188 @@
+package com.abhimanyu.comfy.config;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+
+/**
+ * A {@link ComfyConfig} that can be changed while other threads read it. The sections and values are kept in an
+ * immutable version that is replaced as a whole: a write copies the sections it changes, builds the next version and
+ * publishes it with one volatile write. Reads never lock nor retry, they do one volatile read and the lookups of a
+ * plain config.
+ *
+ * {@link #update(Consumer)} applies several changes as one publish, so a reader sees all of them or none. Writers are
+ * serialized, and a write costs a copy of the section map and of the sections it changes, which suits configs that
+ * are read far more often than they are written.
+ *
+ * Sections returned by {@link #get(String)} are the sections of the version current at the time, which never change
+ * and fail on put. Reads of several keys through one section are consistent with each other; for several sections,
+ * read them from one {@link #snapshot()}.
+ */
+public class ConcurrentComfyConfig extends ComfyConfig {
+  private final Versions versions;
+
+  public ConcurrentComfyConfig() {
+    this(new Versions());
+  }
+
+  // Starts with a copy of the sections and values of config.
+  public ConcurrentComfyConfig(ComfyConfig config) {
+    this(new Versions());
+    merge(config);
+  }
+
+  private ConcurrentComfyConfig(Versions versions) {
+    super(versions);
+    this.versions = versions;
+  }
+
+  // The current version, a read-only config that later writes do not change.
+  public ComfyConfig snapshot() {
+    return versions.current;
+  }
+
+  // Applies the changes made to the batch by changes as a single publish. Nothing is published when changes throws.
+  public void update(Consumer<Batch> changes) {
+    synchronized (versions) {
+      Batch batch = new Batch(versions.current.values());
+      changes.accept(batch);
+      versions.current = batch.build();
+    }
+  }
+
+  @Override
+  public void put(String sectionName, ComfySection section) {
+    update(batch -> batch.put(sectionName, section));
+  }
+
+  @Override
+  public void put(String sectionName, String key, ConfigValue value) {
+    update(batch -> batch.put(sectionName, key, value));
+  }
+
+  @Override
+  public void merge(ComfyConfig other) {
+    update(batch -> {
+      for (Map.Entry<String, ComfySection> entry : other.values().entrySet()) {
+        batch.merge(entry.getKey(), entry.getValue());
+      }
+    });
+  }
+
+  @Override
+  void merge(String sectionName, ComfySection other) {
+    update(batch -> batch.merge(sectionName, other));
+  }
+
+  @Override
+  ComfySection getOrCreate(String sectionName, int expectedKeys) {
+    throw new UnsupportedOperationException("Sections of a ConcurrentComfyConfig are changed through update.");
+  }
+
+  // freezes one version, as the sections could change between the passes over a live config.
+  @Override
+  public FrozenComfyConfig freeze() {
+    return versions.current.freeze();
+  }
+
+  /**
+   * Changes to publish at once. A batch is only valid inside {@link ConcurrentComfyConfig#update(Consumer)}, on the
+   * writing thread.
+   */
+  public static final class Batch {
+    private final Map<String, ComfySection> sections;
+    // sections changed by this batch, copied from the current version on their first change.
+    private final Map<String, Map<String, ConfigValue>> changed = new HashMap<>();
+
+    private Batch(Map<String, ComfySection> current) {
+      this.sections = new HashMap<>(current);
+    }
+
+    public Batch put(String sectionName, String key, ConfigValue value) {
+      section(sectionName).put(key, value);
+      return this;
+    }
+
+    // Replaces the section with a copy of section.
+    public Batch put(String sectionName, ComfySection section) {
+      changed.put(sectionName, new HashMap<>(section.values()));
+      return this;
+    }
+
+    // Puts every value of section into the section, values of section winning on duplicate keys.
+    public Batch merge(String sectionName, ComfySection section) {
+      section(sectionName).putAll(section.values());
+      return this;
+    }
+
+    public Batch remove(String sectionName, String key) {
+      if (changed.containsKey(sectionName) || sections.containsKey(sectionName)) {
+        section(sectionName).remove(key);
+      }
+      return this;
+    }
+
+    public Batch removeSection(String sectionName) {
+      sections.remove(sectionName);
+      changed.remove(sectionName);
+      return this;
+    }
+
+    public ComfySection get(String sectionName) {
+      Map<String, ConfigValue> section = changed.get(sectionName);
+      return section != null ? new ComfySection(Collections.unmodifiableMap(section)) : sections.get(sectionName);
+    }
+
+    private Map<String, ConfigValue> section(String sectionName) {
+      Map<String, ConfigValue> section = changed.get(sectionName);
+      if (section == null) {
+        ComfySection current = sections.get(sectionName);
+        section = current == null ? new HashMap<>() : new HashMap<>(current.values());
+        changed.put(sectionName, section);
+      }
+      return section;
+    }
+
+    private ComfyConfig build() {
+      for (Map.Entry<String, Map<String, ConfigValue>> entry : changed.entrySet()) {
+        // like a load, a section only exists while it has keys.
+        if (entry.getValue().isEmpty()) {
+          sections.remove(entry.getKey());
+        } else {
+          sections.put(entry.getKey(), new ComfySection(Collections.unmodifiableMap(entry.getValue())));
+        }
+      }
+      return new ComfyConfig(Collections.unmodifiableMap(sections));
+    }
+  }
+
+  // The sections of the current version. Every call reads the version once, writes never go through this map.
+  private static final class Versions extends AbstractMap<String, ComfySection> {
+    private volatile ComfyConfig current = new ComfyConfig(Collections.emptyMap());
+
+    @Override
+    public ComfySection get(Object name) {
+      return current.values().get(name);
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+      return current.values().containsKey(name);
+    }
+
+    @Override
+    public int size() {
+      return current.values().size();
+    }
+
+    @Override
+    public Set<Entry<String, ComfySection>> entrySet() {
+      return current.values().entrySet();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.abhimanyu.comfy.config;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+
+/**
+ * A section/key pair resolved against a {@link FrozenComfyConfig}. Reads go straight to the slot of the pair in the
+ * snapshot, without hashing or comparing Strings. Handles are immutable and can be kept in static fields and shared
+ * between threads.
+ */
+public final class ConfigKey {
+  private final FrozenComfyConfig config;
+  private final int slot;
+  private final String section;
+  private final String key;
+
+  ConfigKey(FrozenComfyConfig config, int slot, String section, String key) {
+    this.config = config;
+    this.slot = slot;
+    this.section = section;
+    this.key = key;
+  }
+
+  public String getSection() {
+    return section;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public boolean isPresent() {
+    return slot >= 0;
+  }
+
+  public ConfigValue get() {
+    return slot < 0 ? null : config.valueAt(slot);
+  }
+
+  public String getStringValue() {
+    return ConfigValues.toStringValue(get());
+  }
+
+  public Integer getIntValue() {
+    return ConfigValues.toIntValue(get());
+  }
+
+  public Long getLongValue() {
+    return ConfigValues.toLongValue(get());
+  }
+
+  public Boolean getBooleanValue() {
+    return ConfigValues.toBooleanValue(get());
+  }
+
+  public String[] getArrayValue() {
+    return ConfigValues.toArrayValue(get());
+  }
+
+  public int getInt(int defaultValue) {
+    return ConfigValues.toInt(get(), defaultValue);
+  }
+
+  public long getLong(long defaultValue) {
+    return ConfigValues.toLong(get(), defaultValue);
+  }
+
+  public boolean getBoolean(boolean defaultValue) {
+    return ConfigValues.toBoolean(get(), defaultValue);
+  }
+
+  @Override
+  public String toString() {
+    return section + "." + key;
+  }
+}
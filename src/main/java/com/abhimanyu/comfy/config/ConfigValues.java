@@ -0,0 +1,134 @@
+package com.abhimanyu.comfy.config;
+
+import com.abhimanyu.comfy.value.ArrayValue;
+import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.LazyValue;
+import com.abhimanyu.comfy.value.LongValue;
+import com.abhimanyu.comfy.value.StringValue;
+
+// The conversions behind the typed getters of ComfySection, FrozenComfyConfig and ConfigKey. A null value is a
+// missing key.
+final class ConfigValues {
+
+  private ConfigValues() {
+  }
+
+  static ConfigValue resolve(ConfigValue configValue) {
+    if (configValue instanceof LazyValue) {
+      return ((LazyValue) configValue).resolve();
+    }
+    return configValue;
+  }
+
+  static String toStringValue(ConfigValue configValue) {
+    if (configValue == null) {
+      return null;
+    }
+
+    if (configValue instanceof StringValue) {
+      return (String) configValue.getValue();
+    } else {
+      throw new ClassCastException(
+          String.format("Trying to convert an object of %s to a StringValue.", configValue.getClass()));
+    }
+  }
+
+  static Integer toIntValue(ConfigValue configValue) {
+    if (configValue == null) {
+      return null;
+    }
+
+    if (configValue instanceof IntValue) {
+      return (Integer) configValue.getValue();
+    } else {
+      throw new ClassCastException(
+          String.format("Trying to convert an object of %s to a IntValue.", configValue.getClass()));
+    }
+  }
+
+  static Long toLongValue(ConfigValue configValue) {
+    if (configValue == null) {
+      return null;
+    }
+
+    if (configValue instanceof LongValue) {
+      return (Long) configValue.getValue();
+    } else if (configValue instanceof IntValue) {
+      return (long) ((IntValue) configValue).getInt();
+    } else {
+      throw new ClassCastException(
+          String.format("Trying to convert an object of %s to a LongValue.", configValue.getClass()));
+    }
+  }
+
+  static Boolean toBooleanValue(ConfigValue configValue) {
+    if (configValue == null) {
+      return null;
+    }
+
+    if (configValue instanceof BooleanValue) {
+      return (Boolean) configValue.getValue();
+    } else {
+      throw new ClassCastException(
+          String.format("Trying to convert an object of %s to a BooleanValue.", configValue.getClass()));
+    }
+  }
+
+  static String[] toArrayValue(ConfigValue configValue) {
+    if (configValue == null) {
+      return null;
+    }
+
+    if (configValue instanceof ArrayValue) {
+      return (String[]) configValue.getValue();
+    } else {
+      throw new ClassCastException(
+          String.format("Trying to convert an object of %s to a ArrayValue.", configValue.getClass()));
+    }
+  }
+
+  // The primitive conversions read the unboxed value of IntValue, LongValue and BooleanValue, so they never allocate.
+
+  static int toInt(ConfigValue configValue, int defaultValue) {
+    if (configValue == null) {
+      return defaultValue;
+    }
+
+    if (configValue instanceof IntValue) {
+      return ((IntValue) configValue).getInt();
+    } else {
+      throw new ClassCastException(
+          String.format("Trying to convert an object of %s to a IntValue.", configValue.getClass()));
+    }
+  }
+
+  static long toLong(ConfigValue configValue, long defaultValue) {
+    if (configValue == null) {
+      return defaultValue;
+    }
+
+    if (configValue instanceof LongValue) {
+      return ((LongValue) configValue).getLong();
+    } else if (configValue instanceof IntValue) {
+      return ((IntValue) configValue).getInt();
+    } else {
+      throw new ClassCastException(
+          String.format("Trying to convert an object of %s to a LongValue.", configValue.getClass()));
+    }
+  }
+
+  static boolean toBoolean(ConfigValue configValue, boolean defaultValue) {
+    if (configValue == null) {
+      return defaultValue;
+    }
+
+    if (configValue instanceof BooleanValue) {
+      return ((BooleanValue) configValue).getBoolean();
+    } else {
+      throw new ClassCastException(
+          String.format("Trying to convert an object of %s to a BooleanValue.", configValue.getClass()));
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.abhimanyu.comfy.config;
+
+import java.util.Map;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+
+/**
+ * An immutable snapshot of a {@link ComfyConfig}, built by {@link ComfyConfig#freeze()}. All section/key pairs are
+ * stored in one open-addressed table of parallel arrays, with linear probing and the combined hash of each pair kept
+ * next to it, so a lookup hashes once and compares Strings only on a hash match. {@link #key(String, String)} resolves
+ * a pair to a {@link ConfigKey} handle that reads its slot directly.
+ *
+ * Every field is final and the arrays are never written after construction, so a snapshot can be shared between
+ * threads without locking.
+ */
+public final class FrozenComfyConfig {
+  private final int[] hashes;
+  private final String[] sections;
+  private final String[] keys;
+  private final ConfigValue[] values;
+  private final int mask;
+  private final int sectionCount;
+  private final int keyCount;
+
+  FrozenComfyConfig(Map<String, ComfySection> config) {
+    int count = 0;
+    for (ComfySection section : config.values()) {
+      count += section.size();
+    }
+
+    // a load factor of at most one half keeps probe sequences short.
+    int capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+    hashes = new int[capacity];
+    sections = new String[capacity];
+    keys = new String[capacity];
+    values = new ConfigValue[capacity];
+    mask = capacity - 1;
+    sectionCount = config.size();
+    keyCount = count;
+
+    for (Map.Entry<String, ComfySection> section : config.entrySet()) {
+      for (Map.Entry<String, ConfigValue> entry : section.getValue().values().entrySet()) {
+        int hash = hash(section.getKey(), entry.getKey());
+        int slot = hash & mask;
+        while (keys[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        sections[slot] = section.getKey();
+        keys[slot] = entry.getKey();
+        values[slot] = entry.getValue();
+      }
+    }
+  }
+
+  // Returns a handle for the pair. Keys that do not exist get a handle that reads as missing.
+  public ConfigKey key(String section, String key) {
+    return new ConfigKey(this, slot(section, key), section, key);
+  }
+
+  public ConfigValue get(String section, String key) {
+    int slot = slot(section, key);
+    return slot < 0 ? null : valueAt(slot);
+  }
+
+  public String getStringValue(String section, String key) {
+    return ConfigValues.toStringValue(get(section, key));
+  }
+
+  public Integer getIntValue(String section, String key) {
+    return ConfigValues.toIntValue(get(section, key));
+  }
+
+  public Long getLongValue(String section, String key) {
+    return ConfigValues.toLongValue(get(section, key));
+  }
+
+  public Boolean getBooleanValue(String section, String key) {
+    return ConfigValues.toBooleanValue(get(section, key));
+  }
+
+  public String[] getArrayValue(String section, String key) {
+    return ConfigValues.toArrayValue(get(section, key));
+  }
+
+  public int getInt(String section, String key, int defaultValue) {
+    return ConfigValues.toInt(get(section, key), defaultValue);
+  }
+
+  public long getLong(String section, String key, long defaultValue) {
+    return ConfigValues.toLong(get(section, key), defaultValue);
+  }
+
+  public boolean getBoolean(String section, String key, boolean defaultValue) {
+    return ConfigValues.toBoolean(get(section, key), defaultValue);
+  }
+
+  // the number of sections, like ComfyConfig.size().
+  public int size() {
+    return sectionCount;
+  }
+
+  public int keyCount() {
+    return keyCount;
+  }
+
+  ConfigValue valueAt(int slot) {
+    return ConfigValues.resolve(values[slot]);
+  }
+
+  private int slot(String section, String key) {
+    int hash = hash(section, key);
+    int slot = hash & mask;
+    while (keys[slot] != null) {
+      if (hashes[slot] == hash && keys[slot].equals(key) && sections[slot].equals(section)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  // String caches its hash code, so this does not scan the characters again after the first lookup of a String.
+  private static int hash(String section, String key) {
+    int hash = section.hashCode() * 31 + key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,58 @@
+package com.abhimanyu.comfy.config;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+// A read-only view of the sections of a layer. Sections with overridden keys are layered over the section of the
+// base, the others are the sections of the base themselves.
+final class LayeredConfigMap extends AbstractMap<String, ComfySection> {
+  private final Map<String, ComfySection> base;
+  private final Map<String, ComfySection> layered;
+  private final int size;
+
+  LayeredConfigMap(Map<String, ComfySection> base, Map<String, ComfySection> layered) {
+    this.base = base;
+    this.layered = layered;
+    int added = 0;
+    for (String name : layered.keySet()) {
+      if (!base.containsKey(name)) {
+        added++;
+      }
+    }
+    this.size = base.size() + added;
+  }
+
+  @Override
+  public ComfySection get(Object name) {
+    ComfySection section = layered.get(name);
+    return section != null ? section : base.get(name);
+  }
+
+  @Override
+  public boolean containsKey(Object name) {
+    return layered.containsKey(name) || base.containsKey(name);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Entry<String, ComfySection>> entrySet() {
+    return new AbstractSet<Entry<String, ComfySection>>() {
+      @Override
+      public Iterator<Entry<String, ComfySection>> iterator() {
+        return new LayeredSectionMap.LayeredIterator<>(layered, base);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+}
@@ -0,0 +1,104 @@
+package com.abhimanyu.comfy.config;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+
+// A read-only view of one section of a layer: the keys of the delta, then the keys of the base that the delta does
+// not override. Nothing is copied, every read goes to the delta and then to the base.
+final class LayeredSectionMap extends AbstractMap<String, ConfigValue> {
+  private final Map<String, ConfigValue> base;
+  private final Map<String, ConfigValue> delta;
+  private final int size;
+
+  LayeredSectionMap(Map<String, ConfigValue> base, Map<String, ConfigValue> delta) {
+    this.base = base;
+    this.delta = delta;
+    int added = 0;
+    for (String key : delta.keySet()) {
+      if (!base.containsKey(key)) {
+        added++;
+      }
+    }
+    this.size = base.size() + added;
+  }
+
+  @Override
+  public ConfigValue get(Object key) {
+    ConfigValue value = delta.get(key);
+    return value != null ? value : base.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return delta.containsKey(key) || base.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Entry<String, ConfigValue>> entrySet() {
+    return new AbstractSet<Entry<String, ConfigValue>>() {
+      @Override
+      public Iterator<Entry<String, ConfigValue>> iterator() {
+        return new LayeredIterator<>(delta, base);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  // The entries of delta, then the entries of base whose key is not in delta.
+  static final class LayeredIterator<V> implements Iterator<Entry<String, V>> {
+    private final Map<String, V> delta;
+    private final Iterator<Entry<String, V>> deltaEntries;
+    private final Iterator<Entry<String, V>> baseEntries;
+    private Entry<String, V> next;
+
+    LayeredIterator(Map<String, V> delta, Map<String, V> base) {
+      this.delta = delta;
+      this.deltaEntries = delta.entrySet().iterator();
+      this.baseEntries = base.entrySet().iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) {
+        return true;
+      }
+      if (deltaEntries.hasNext()) {
+        next = deltaEntries.next();
+        return true;
+      }
+      while (baseEntries.hasNext()) {
+        Entry<String, V> entry = baseEntries.next();
+        if (!delta.containsKey(entry.getKey())) {
+          next = entry;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<String, V> entry = new SimpleImmutableEntry<>(next);
+      next = null;
+      return entry;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package com.abhimanyu.comfy.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+
+/**
+ * Every value of a config file, for every override, parsed once. The config of any set of overrides is resolved from
+ * it without reading the file again, with the same priorities as a load: the value of the first override in the set
+ * that has one wins, then the value without override. Within an override, or without one, the last line wins.
+ *
+ * Each key keeps its value without override and the value of each of its overrides in two small parallel arrays, with
+ * overrides numbered once per table. A table is not changed after it is built, so configs can be resolved from any
+ * thread. Resolved configs share the value objects of the table.
+ *
+ * Many override sets of one file, like one per tenant, are best kept as layers: a {@link #base()} config, built once,
+ * holds the values without override, and {@link #layer(String[])} gives a view that holds only the keys an override
+ * of the set changes, and reads every other key from the base.
+ */
+public class OverrideTable {
+  private final Map<String, Map<String, Variants>> sections;
+  private final Map<String, Integer> overrideIds;
+  // the keys that have a value for at least one override, by section.
+  private final Map<String, Map<String, Variants>> overridden = new HashMap<>();
+  private final ComfyConfig base;
+
+  OverrideTable(Map<String, Map<String, Variants>> sections, Map<String, Integer> overrideIds) {
+    this.sections = sections;
+    this.overrideIds = overrideIds;
+
+    Map<String, ComfySection> baseSections = new HashMap<>();
+    for (Map.Entry<String, Map<String, Variants>> entry : sections.entrySet()) {
+      Map<String, ConfigValue> values = new HashMap<>();
+      for (Map.Entry<String, Variants> key : entry.getValue().entrySet()) {
+        Variants variants = key.getValue();
+        if (variants.value != null) {
+          values.put(key.getKey(), variants.value);
+        }
+        if (variants.overrideIds.length > 0) {
+          overridden.computeIfAbsent(entry.getKey(), name -> new HashMap<>()).put(key.getKey(), variants);
+        }
+      }
+      if (!values.isEmpty()) {
+        baseSections.put(entry.getKey(), new ComfySection(Collections.unmodifiableMap(values)));
+      }
+    }
+    this.base = new ComfyConfig(Collections.unmodifiableMap(baseSections));
+  }
+
+  // The config that a load with overrides, in this priority order, gives. Overrides that the file never uses are
+  // ignored.
+  public ComfyConfig resolve(String[] overrides) {
+    int[] priority = new int[overrides.length];
+    int count = priority(overrides, priority);
+
+    ComfyConfig config = new ComfyConfig(sections.size());
+    for (Map.Entry<String, Map<String, Variants>> entry : sections.entrySet()) {
+      ComfySection section = null;
+      for (Map.Entry<String, Variants> key : entry.getValue().entrySet()) {
+        ConfigValue value = key.getValue().resolve(priority, count);
+        if (value != null) {
+          if (section == null) {
+            section = new ComfySection(entry.getValue().size());
+          }
+          section.put(key.getKey(), value);
+        }
+      }
+      // like a load, a section only exists when one of its keys has a value for these overrides.
+      if (section != null) {
+        config.put(entry.getKey(), section);
+      }
+    }
+    return config;
+  }
+
+  // The values without override, the config of a load without overrides. The same read-only instance every time.
+  public ComfyConfig base() {
+    return base;
+  }
+
+  // A read-only config that resolves like resolve(overrides), made of the base and a delta with the keys that these
+  // overrides change. Only the delta is allocated, the base is shared by all layers.
+  public ComfyConfig layer(String[] overrides) {
+    int[] priority = new int[overrides.length];
+    int count = priority(overrides, priority);
+    if (count == 0) {
+      return base;
+    }
+
+    Map<String, ComfySection> layered = new HashMap<>();
+    for (Map.Entry<String, Map<String, Variants>> entry : overridden.entrySet()) {
+      Map<String, ConfigValue> delta = null;
+      for (Map.Entry<String, Variants> key : entry.getValue().entrySet()) {
+        ConfigValue value = key.getValue().override(priority, count);
+        if (value != null) {
+          if (delta == null) {
+            delta = new HashMap<>();
+          }
+          delta.put(key.getKey(), value);
+        }
+      }
+      if (delta != null) {
+        ComfySection baseSection = base.get(entry.getKey());
+        Map<String, ConfigValue> baseValues = baseSection == null ? Collections.emptyMap() : baseSection.values();
+        layered.put(entry.getKey(), new ComfySection(new LayeredSectionMap(baseValues, delta)));
+      }
+    }
+    return layered.isEmpty() ? base : new ComfyConfig(new LayeredConfigMap(base.values(), layered));
+  }
+
+  // Names of the overrides used in the file.
+  public Set<String> overrides() {
+    return Collections.unmodifiableSet(overrideIds.keySet());
+  }
+
+  public Set<String> sectionNames() {
+    return Collections.unmodifiableSet(sections.keySet());
+  }
+
+  // Fills priority with the ids of the overrides that the file uses, in order, and returns their count.
+  private int priority(String[] overrides, int[] priority) {
+    int count = 0;
+    for (String override : overrides) {
+      Integer id = overrideIds.get(override);
+      if (id != null) {
+        priority[count++] = id;
+      }
+    }
+    return count;
+  }
+
+  // The values of one key.
+  static final class Variants {
+    private static final int[] NO_IDS = new int[0];
+    private static final ConfigValue[] NO_VALUES = new ConfigValue[0];
+
+    private ConfigValue value;
+    private int[] overrideIds = NO_IDS;
+    private ConfigValue[] overrideValues = NO_VALUES;
+
+    void put(ConfigValue value) {
+      this.value = value;
+    }
+
+    void put(int overrideId, ConfigValue value) {
+      for (int i = 0; i < overrideIds.length; i++) {
+        if (overrideIds[i] == overrideId) {
+          overrideValues[i] = value;
+          return;
+        }
+      }
+      int length = overrideIds.length;
+      int[] ids = new int[length + 1];
+      ConfigValue[] values = new ConfigValue[length + 1];
+      System.arraycopy(overrideIds, 0, ids, 0, length);
+      System.arraycopy(overrideValues, 0, values, 0, length);
+      ids[length] = overrideId;
+      values[length] = value;
+      overrideIds = ids;
+      overrideValues = values;
+    }
+
+    // null when neither an override of priority nor a line without override gave the key a value.
+    ConfigValue resolve(int[] priority, int count) {
+      ConfigValue override = override(priority, count);
+      return override != null ? override : value;
+    }
+
+    // The value of the first override of priority that has one, null when none has.
+    ConfigValue override(int[] priority, int count) {
+      for (int p = 0; p < count; p++) {
+        for (int i = 0; i < overrideIds.length; i++) {
+          if (overrideIds[i] == priority[p]) {
+            return overrideValues[i];
+          }
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.abhimanyu.comfy.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.abhimanyu.comfy.config.OverrideTable.Variants;
+import com.abhimanyu.comfy.value.ConfigValue;
+
+/**
+ * Collects the lines of a file, whatever their override, into an {@link OverrideTable}. Lines are put in file order.
+ *
+ * A builder is used by a single thread and must not be used any more after {@link #build()}.
+ */
+public class OverrideTableBuilder {
+  private final Map<String, Map<String, Variants>> sections = new HashMap<>();
+  private final Map<String, Integer> overrideIds = new HashMap<>();
+  private String lastSectionName;
+  private Map<String, Variants> lastSection;
+
+  // override is null for a line without override.
+  public OverrideTableBuilder put(String sectionName, String key, String override, ConfigValue value) {
+    if (!sectionName.equals(lastSectionName)) {
+      lastSection = sections.computeIfAbsent(sectionName, name -> new HashMap<>());
+      lastSectionName = sectionName;
+    }
+    Variants variants = lastSection.computeIfAbsent(key, name -> new Variants());
+    if (override == null) {
+      variants.put(value);
+    } else {
+      Integer id = overrideIds.get(override);
+      if (id == null) {
+        id = overrideIds.size();
+        overrideIds.put(override, id);
+      }
+      variants.put(id, value);
+    }
+    return this;
+  }
+
+  public OverrideTable build() {
+    return new OverrideTable(sections, overrideIds);
+  }
+}
@@ -0,0 +1,32 @@
+package com.abhimanyu.comfy.io;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+
+/**
+ * Receives the lines of a config file as they are read, in file order, without a {@link ConfigValue} tree being built.
+ * Every callback returns whether reading should go on, so a handler can stop as soon as it has what it needs. Empty
+ * and comment lines are not reported.
+ */
+public interface ComfyHandler {
+
+  // a [section] line. A section that occurs several times in the file is reported every time.
+  default boolean onSection(String section) {
+    return true;
+  }
+
+  // a line without override. A later line for the same key replaces the value, unless an override set it.
+  default boolean onProperty(String section, String key, ConfigValue<?> value) {
+    return true;
+  }
+
+  // a line with a selected override. Passed to onProperty unless overridden. In a loaded config the value of the
+  // first selected override wins over the others, see OverrideSelector.
+  default boolean onOverride(String section, String key, String override, ConfigValue<?> value) {
+    return onProperty(section, key, value);
+  }
+
+  // a line with an override that is not selected. Its value is neither decoded nor converted.
+  default boolean onOverrideSkipped(String section, String key, String override) {
+    return true;
+  }
+}
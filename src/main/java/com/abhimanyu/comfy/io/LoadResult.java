@@ -0,0 +1,55 @@
+package com.abhimanyu.comfy.io;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+
+/**
+ * The outcome of loading one file of a batch: either its config or the exception that the load failed with.
+ */
+public final class LoadResult {
+  private final ComfyConfig config;
+  private final RuntimeException error;
+
+  private LoadResult(ComfyConfig config, RuntimeException error) {
+    this.config = config;
+    this.error = error;
+  }
+
+  public static LoadResult loaded(ComfyConfig config) {
+    return new LoadResult(config, null);
+  }
+
+  public static LoadResult failed(RuntimeException error) {
+    return new LoadResult(null, error);
+  }
+
+  public boolean isLoaded() {
+    return error == null;
+  }
+
+  // null if the load failed.
+  public ComfyConfig getConfig() {
+    return config;
+  }
+
+  // null if the file was loaded.
+  public RuntimeException getError() {
+    return error;
+  }
+
+  // The config, or the error of the load thrown again, wrapped in a ComfyException unless it already is one.
+  public ComfyConfig orElseThrow() {
+    if (error instanceof ComfyException) {
+      throw (ComfyException) error;
+    }
+    if (error != null) {
+      throw new ComfyException(String.format("Failed to load config: %s", error.getMessage()), error);
+    }
+    return config;
+  }
+
+  @Override
+  public String toString() {
+    return isLoaded() ? String.format("loaded %d sections", config.size()) : String.format("failed: %s", error);
+  }
+}
@@ -0,0 +1,168 @@
+package com.abhimanyu.comfy.io.ini;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfyConfigBuilder;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.metrics.ComfyMetrics;
+import com.abhimanyu.comfy.metrics.LoadRecorder;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.StringPool;
+import com.abhimanyu.comfy.parse.Utf8LineTokenizer;
+
+/**
+ * Reads a config file with an {@link AsynchronousFileChannel}, so that no thread waits for the file. The file is read
+ * chunk by chunk, and the complete lines of every chunk are parsed on the given executor as soon as the chunk arrives,
+ * like the regions of a {@link MappedConfigFileReader}. The bytes of a line that continues in the next chunk are kept
+ * for it. A chunk that does not hold a single line break is doubled until it does.
+ *
+ * Only one chunk of a read is in flight or being parsed at any time, so a read never runs on two threads at once.
+ */
+public class AsyncConfigFileReader {
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final MappedConfigFileReader lineReader;
+  private final int chunkSize;
+  private volatile ComfyMetrics metrics;
+
+  public AsyncConfigFileReader(PropertyProcessor propertyProcessor, String[] overrides) {
+    this(propertyProcessor, overrides, CHUNK_SIZE);
+  }
+
+  AsyncConfigFileReader(PropertyProcessor propertyProcessor, String[] overrides, int chunkSize) {
+    this.lineReader = new MappedConfigFileReader(propertyProcessor, overrides);
+    this.chunkSize = chunkSize;
+  }
+
+  // Passes the statistics of every later read to metrics, or stops recording them when it is null.
+  public void setMetrics(ComfyMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  // The returned future completes on a thread of executor, or fails with a ComfyException.
+  public CompletableFuture<ComfyConfig> read(Path path, Executor executor) {
+    CompletableFuture<ComfyConfig> result = new CompletableFuture<>();
+    AsynchronousFileChannel channel;
+    try {
+      channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+    } catch (IOException e) {
+      result
+          .completeExceptionally(
+              new ComfyException(String.format("Failed to find file on path: %s", path.toAbsolutePath()), e));
+      return result;
+    }
+    new Read(path, channel, executor, result).next();
+    return result;
+  }
+
+  // The state of one read, passed from chunk to chunk.
+  private final class Read implements CompletionHandler<Integer, Void> {
+    private final Path path;
+    private final AsynchronousFileChannel channel;
+    private final Executor executor;
+    private final CompletableFuture<ComfyConfig> result;
+    private final LoadRecorder recorder;
+    private final ComfyConfigBuilder comfyConfig = new ComfyConfigBuilder();
+    private final StringPool stringPool = new StringPool();
+    private final Utf8LineTokenizer tokenizer = new Utf8LineTokenizer();
+    private ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+    private String currentSection;
+    // bytes read from the file so far, and bytes at the start of buffer that belong to a line of the next chunk.
+    private long position;
+    private int carried;
+
+    Read(Path path, AsynchronousFileChannel channel, Executor executor, CompletableFuture<ComfyConfig> result) {
+      this.path = path;
+      this.channel = channel;
+      this.executor = executor;
+      this.result = result;
+      this.recorder = LoadRecorder.start(metrics, path.toString());
+      tokenizer.setStringPool(stringPool);
+    }
+
+    void next() {
+      // through Buffer, as ByteBuffer only overrides clear and position from Java 9 on.
+      ((Buffer) buffer).clear().position(carried);
+      channel.read(buffer, position, null, this);
+    }
+
+    @Override
+    public void completed(Integer count, Void attachment) {
+      try {
+        executor.execute(() -> {
+          try {
+            parse(count);
+          } catch (RuntimeException e) {
+            fail(e);
+          }
+        });
+      } catch (RuntimeException e) {
+        fail(e);
+      }
+    }
+
+    @Override
+    public void failed(Throwable e, Void attachment) {
+      fail(new ComfyException(String.format("Failed to read from file: %s", path.toAbsolutePath()), e));
+    }
+
+    private void parse(int count) {
+      if (count < 0) {
+        // the last line of the file needs no line break.
+        parseLines(carried);
+        recorder.bytesRead(carried);
+        long building = recorder.now();
+        ComfyConfig config = comfyConfig.build();
+        recorder.built(building);
+        recorder.deduplicated(stringPool.getDeduplicated(), stringPool.getSavedBytes());
+        recorder.finish(config);
+        close();
+        result.complete(config);
+        return;
+      }
+
+      position += count;
+      int filled = carried + count;
+      int end = MappedConfigFileReader.lastLineBreak(buffer, filled) + 1;
+      if (end == 0 && filled == buffer.capacity()) {
+        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+        System.arraycopy(buffer.array(), 0, larger.array(), 0, filled);
+        buffer = larger;
+      } else if (end > 0) {
+        parseLines(end);
+        recorder.bytesRead(end);
+        System.arraycopy(buffer.array(), end, buffer.array(), 0, filled - end);
+        filled -= end;
+      }
+      carried = filled;
+      next();
+    }
+
+    private void parseLines(int end) {
+      tokenizer.reset(buffer);
+      currentSection = lineReader.readLines(buffer, end, tokenizer, stringPool, currentSection, comfyConfig, recorder);
+    }
+
+    private void fail(RuntimeException e) {
+      close();
+      result.completeExceptionally(e);
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // the read is over, only the channel is left to release.
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.abhimanyu.comfy.io.ini;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.LoadResult;
+import com.abhimanyu.comfy.metrics.ComfyMetrics;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.ScanningLineParser;
+
+/**
+ * Loads many config files concurrently. Every worker thread keeps its own readers and line parser for all the files
+ * it loads, while the {@link PropertyProcessor} is shared by all workers and has to be thread-safe. Files of at least
+ * the mapped read threshold are read with a {@link MappedConfigFileReader}, the others line by line.
+ *
+ * A file that fails to load does not stop the batch: its {@link LoadResult} holds the error instead.
+ */
+public class BatchConfigFileReader {
+  private final PropertyProcessor propertyProcessor;
+  private final String[] overrides;
+  private final long mappedReadThreshold;
+  private volatile ComfyMetrics metrics;
+
+  public BatchConfigFileReader(PropertyProcessor propertyProcessor, String[] overrides, long mappedReadThreshold) {
+    this.propertyProcessor = propertyProcessor;
+    this.overrides = overrides;
+    this.mappedReadThreshold = mappedReadThreshold;
+  }
+
+  // Passes the statistics of every file loaded to metrics, from the worker threads. Null, the default, records nothing.
+  public void setMetrics(ComfyMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  // Loads paths on a pool of at most threads workers, which is shut down once the batch is loaded.
+  public Map<Path, LoadResult> readAll(Collection<Path> paths, int threads) {
+    if (threads < 1) {
+      throw new ComfyException(String.format("A batch needs at least 1 thread, found: %d", threads));
+    }
+    ExecutorService executor = Executors
+        .newFixedThreadPool(Math.max(1, Math.min(threads, paths.size())), new WorkerThreadFactory());
+    try {
+      return readAll(paths, executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  // Loads paths on executor and waits for all of them. The results are in the order of paths, without duplicates.
+  public Map<Path, LoadResult> readAll(Collection<Path> paths, Executor executor) {
+    // a worker per thread for this batch, so the readers are reused without outliving it.
+    ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+    List<Path> distinctPaths = new ArrayList<>(new LinkedHashSet<>(paths));
+    List<CompletableFuture<LoadResult>> loads = new ArrayList<>(distinctPaths.size());
+    for (Path path : distinctPaths) {
+      loads.add(CompletableFuture.supplyAsync(() -> workers.get().load(path), executor));
+    }
+
+    Map<Path, LoadResult> results = new LinkedHashMap<>();
+    for (int i = 0; i < distinctPaths.size(); i++) {
+      results.put(distinctPaths.get(i), loads.get(i).join());
+    }
+    return results;
+  }
+
+  private final class Worker {
+    private final ConfigFileReader configFileReader;
+    private final MappedConfigFileReader mappedReader;
+
+    Worker() {
+      configFileReader = new ConfigFileReader(new ScanningLineParser(), propertyProcessor, overrides);
+      mappedReader = new MappedConfigFileReader(propertyProcessor, overrides);
+      configFileReader.setMetrics(metrics);
+      mappedReader.setMetrics(metrics);
+    }
+
+    LoadResult load(Path path) {
+      try {
+        return LoadResult.loaded(read(path));
+      } catch (RuntimeException e) {
+        return LoadResult.failed(e);
+      }
+    }
+
+    private ComfyConfig read(Path path) {
+      long size;
+      try {
+        size = Files.size(path);
+      } catch (IOException e) {
+        throw new ComfyException(String.format("Failed to find file on path: %s", path.toAbsolutePath()), e);
+      }
+      if (size >= mappedReadThreshold) {
+        return mappedReader.read(path);
+      }
+      FileInputStream inputStream;
+      try {
+        inputStream = new FileInputStream(path.toFile());
+      } catch (FileNotFoundException e) {
+        throw new ComfyException(String.format("Failed to find file on path: %s", path.toAbsolutePath()), e);
+      }
+      return configFileReader.read(inputStream, path.toString());
+    }
+  }
+
+  // daemon threads, so that a batch that is never waited for does not keep the JVM alive.
+  private static final class WorkerThreadFactory implements ThreadFactory {
+    private static final AtomicInteger BATCHES = new AtomicInteger();
+
+    private final int batch = BATCHES.incrementAndGet();
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, String.format("comfy-batch-%d-%d", batch, threads.incrementAndGet()));
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
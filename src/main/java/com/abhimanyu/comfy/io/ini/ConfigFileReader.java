@@ -5,47 +5,79 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfyConfigBuilder;
 import com.abhimanyu.comfy.exception.ComfyException;
 import com.abhimanyu.comfy.io.InputReader;
+import com.abhimanyu.comfy.metrics.ComfyMetrics;
+import com.abhimanyu.comfy.metrics.LoadRecorder;
 import com.abhimanyu.comfy.parse.LineParser;
 import com.abhimanyu.comfy.parse.LineTokens;
+import com.abhimanyu.comfy.parse.OverrideSelector;
 import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.StringPool;
 import com.abhimanyu.comfy.value.ConfigValue;
 
 public class ConfigFileReader implements InputReader {
   private static final Logger LOG = LoggerFactory.getLogger(ConfigFileReader.class);
 
-  private final ComfyConfig comfyConfig;
-  private final Set<String> overrides;
+  private final OverrideSelector overrides;
   private final LineParser lineParser;
   private final PropertyProcessor propertyProcessor;
+  private final int expectedSections;
+  private final int expectedKeysPerSection;
+  private long skippedOverrideLines;
+  private ComfyMetrics metrics;
 
   public ConfigFileReader(LineParser lineParser, PropertyProcessor propertyProcessor, String[] overridesInput) {
-    comfyConfig = new ComfyConfig();
-    overrides = new HashSet<>(Arrays.asList(overridesInput));
+    this(lineParser, propertyProcessor, overridesInput, ComfyConfigBuilder.DEFAULT_EXPECTED_SECTIONS,
+        ComfyConfigBuilder.DEFAULT_EXPECTED_KEYS);
+  }
+
+  // The expected counts pre-size the maps of each config read, see ComfyConfigBuilder.
+  public ConfigFileReader(LineParser lineParser, PropertyProcessor propertyProcessor, String[] overridesInput,
+      int expectedSections, int expectedKeysPerSection) {
+    overrides = new OverrideSelector(overridesInput);
     this.lineParser = lineParser;
     this.propertyProcessor = propertyProcessor;
+    this.expectedSections = expectedSections;
+    this.expectedKeysPerSection = expectedKeysPerSection;
   }
 
   @Override
   public ComfyConfig read(InputStream inputStream) {
+    return read(inputStream, "inputStream");
+  }
+
+  // source names the stream in the statistics of the load, see setMetrics.
+  public ComfyConfig read(InputStream inputStream, String source) {
+    ComfyConfigBuilder comfyConfig = new ComfyConfigBuilder(expectedSections, expectedKeysPerSection);
+    LoadRecorder recorder = LoadRecorder.start(metrics, source);
+    StringPool stringPool = new StringPool();
     BufferedReader bufferedReader = null;
     try {
-      bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8.name()));
+      InputStream input = recorder.isEnabled() ? new CountingInputStream(inputStream, recorder) : inputStream;
+      bufferedReader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8.name()));
       String line = null;
       String currentSection = null;
       while ((line = bufferedReader.readLine()) != null) {
+        long start = recorder.now();
+        // lines outside of any section must still reach the check below, so only lines under a section are skipped.
+        if (currentSection != null && lineParser.isUnselectedOverride(line, overrides)) {
+          recorder.tokenized(start);
+          recorder.skippedOverrideLine();
+          skippedOverrideLines++;
+          continue;
+        }
+
         LineTokens tokens = lineParser.parse(line);
+        long tokenized = recorder.tokenized(start);
         if (tokens == null) {
-          LOG.debug("An empty or comment line was detected, it will be ignored.");
+          recorder.commentLine();
           continue;
         }
 
@@ -53,25 +85,38 @@ public class ConfigFileReader implements InputReader {
         String override = tokens.getOverride();
 
         if (sectionName != null) {
-          currentSection = sectionName;
+          recorder.sectionLine();
+          currentSection = stringPool.intern(sectionName);
           continue;
         } else if (currentSection == null) {
           throw new ComfyException(String
               .format("Line found that is not under any section. Please move this line under a section: {%s}", line));
         }
 
-        if (override != null && !overrides.contains(override)) {
-          LOG.debug("The override: {} is not selected. So, this line will be skipped.", override);
+        int precedence = override == null ? ComfyConfigBuilder.NO_OVERRIDE : overrides.precedence(override);
+        if (precedence < 0) {
+          recorder.skippedOverrideLine();
           continue;
         }
 
-        String key = tokens.getKey();
-        String value = tokens.getValue();
-
-        ConfigValue<?> configValue = propertyProcessor.process(value);
-        comfyConfig.put(currentSection, key, configValue);
+        String key = stringPool.intern(tokens.getKey());
+        // the processor pools the parts of the value it keeps, the raw token is dropped after classification.
+        ConfigValue<?> configValue = propertyProcessor.process(tokens.getValue(), stringPool);
+        long classified = recorder.classified(tokenized);
+        comfyConfig.put(currentSection, key, configValue, precedence);
+        recorder.built(classified);
+        if (override == null) {
+          recorder.propertyLine(configValue);
+        } else {
+          recorder.selectedOverrideLine(configValue);
+        }
       }
-      return comfyConfig;
+      long building = recorder.now();
+      ComfyConfig config = comfyConfig.build();
+      recorder.built(building);
+      recorder.deduplicated(stringPool.getDeduplicated(), stringPool.getSavedBytes());
+      recorder.finish(config);
+      return config;
     } catch (IOException e) {
       throw new ComfyException(String.format("Failed to read from inputStream."), e);
     } finally {
@@ -93,4 +138,14 @@ public class ConfigFileReader implements InputReader {
 
   }
 
+  // Passes the statistics of every later read to metrics, or stops recording them when it is null.
+  public void setMetrics(ComfyMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  // Number of lines dropped because of an unselected override before they were parsed.
+  public long getSkippedOverrideLines() {
+    return skippedOverrideLines;
+  }
+
 }
@@ -0,0 +1,42 @@
+package com.abhimanyu.comfy.io.ini;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.abhimanyu.comfy.metrics.LoadRecorder;
+
+// Reports the bytes read from a stream to a LoadRecorder.
+class CountingInputStream extends FilterInputStream {
+  private final LoadRecorder recorder;
+
+  CountingInputStream(InputStream in, LoadRecorder recorder) {
+    super(in);
+    this.recorder = recorder;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    if (b >= 0) {
+      recorder.bytesRead(1);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int read = super.read(b, off, len);
+    if (read > 0) {
+      recorder.bytesRead(read);
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = super.skip(n);
+    recorder.bytesRead(skipped);
+    return skipped;
+  }
+}
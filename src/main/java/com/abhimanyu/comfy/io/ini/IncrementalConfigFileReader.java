@@ -0,0 +1,221 @@
+package com.abhimanyu.comfy.io.ini;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfyConfigBuilder;
+import com.abhimanyu.comfy.config.ComfySection;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.InputReader;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.Utf8LineTokenizer;
+
+/**
+ * Reads the same file again and again, parsing only the sections that changed since the previous read. Every read
+ * splits the file at its [section] lines and fingerprints the bytes of each section with their length and CRC32. A
+ * section that occurs several times in the file is fingerprinted over all its ranges, in file order. Sections with
+ * the same fingerprint as in the previous read reuse the previous {@link ComfySection} object. The others are parsed
+ * again from their byte ranges.
+ *
+ * The first read, and any read where most of the bytes changed, parses the whole file at once. Fingerprinting still
+ * reads every byte, but a CRC32 over the bytes costs far less than tokenizing and converting them.
+ *
+ * Configs returned by consecutive reads share their unchanged sections, which therefore must not be modified. A reader
+ * keeps the state of its last read, so an instance must not be shared between threads. A read that fails leaves that
+ * state as it was, so the next read compares against the last successful one.
+ */
+public class IncrementalConfigFileReader implements InputReader {
+  private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+  // lines before the first section, which is not a valid section name.
+  private static final String PREAMBLE = "";
+
+  private final MappedConfigFileReader chunkReader;
+  private final long regionSize;
+
+  private Map<String, SectionRanges> fingerprints;
+  private ComfyConfig comfyConfig;
+  private Set<String> changedSections = Collections.emptySet();
+
+  public IncrementalConfigFileReader(PropertyProcessor propertyProcessor, String[] overrides) {
+    this(propertyProcessor, overrides, MAX_REGION_SIZE);
+  }
+
+  IncrementalConfigFileReader(PropertyProcessor propertyProcessor, String[] overrides, long regionSize) {
+    this.chunkReader = new MappedConfigFileReader(propertyProcessor, overrides, regionSize);
+    this.regionSize = regionSize;
+  }
+
+  @Override
+  public ComfyConfig read(InputStream inputStream) {
+    if (!(inputStream instanceof FileInputStream)) {
+      throw new ComfyException(
+          String.format("Incremental reading needs a FileInputStream, found: %s", inputStream.getClass()));
+    }
+    try (FileChannel channel = ((FileInputStream) inputStream).getChannel()) {
+      return read(channel);
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read from inputStream."), e);
+    }
+  }
+
+  public ComfyConfig read(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return read(channel);
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read from file: %s", path.toAbsolutePath()), e);
+    }
+  }
+
+  // Names of the sections that were added, removed or changed by the last read. After the first read, all sections.
+  public Set<String> getChangedSections() {
+    return changedSections;
+  }
+
+  private ComfyConfig read(FileChannel channel) throws IOException {
+    long size = channel.size();
+    Map<String, SectionRanges> current = scan(channel, size);
+
+    Set<String> changed = new LinkedHashSet<>();
+    long changedBytes = 0;
+    for (Map.Entry<String, SectionRanges> entry : current.entrySet()) {
+      SectionRanges previous = fingerprints == null ? null : fingerprints.get(entry.getKey());
+      if (previous == null || !previous.hasSameContent(entry.getValue())) {
+        changed.add(entry.getKey());
+        changedBytes += entry.getValue().length;
+      }
+    }
+
+    ComfyConfig next;
+    if (fingerprints == null || changedBytes > size / 2) {
+      next = chunkReader.read(channel, 0, size).build();
+    } else {
+      next = new ComfyConfig(current.size());
+      for (Map.Entry<String, SectionRanges> entry : current.entrySet()) {
+        String name = entry.getKey();
+        ComfySection section = changed.contains(name) ? parse(channel, name, entry.getValue()) : comfyConfig.get(name);
+        if (section != null) {
+          next.put(name, section);
+        }
+      }
+    }
+
+    if (fingerprints != null) {
+      for (String name : fingerprints.keySet()) {
+        if (!current.containsKey(name)) {
+          changed.add(name);
+        }
+      }
+    }
+    changed.remove(PREAMBLE);
+
+    fingerprints = current;
+    comfyConfig = next;
+    changedSections = Collections.unmodifiableSet(changed);
+    return next;
+  }
+
+  private ComfySection parse(FileChannel channel, String name, SectionRanges sectionRanges) throws IOException {
+    ComfyConfigBuilder parsed = null;
+    List<Long> ranges = sectionRanges.ranges;
+    for (int i = 0; i < ranges.size(); i += 2) {
+      ComfyConfigBuilder range = chunkReader.read(channel, ranges.get(i), ranges.get(i + 1));
+      if (parsed == null) {
+        parsed = range;
+      } else {
+        parsed.merge(range);
+      }
+    }
+    // the preamble is parsed only to report lines that are not under a section.
+    return name.equals(PREAMBLE) ? null : parsed.build().get(name);
+  }
+
+  private Map<String, SectionRanges> scan(FileChannel channel, long size) throws IOException {
+    Map<String, SectionRanges> sections = new LinkedHashMap<>();
+    Utf8LineTokenizer tokenizer = new Utf8LineTokenizer();
+    SectionRanges current = new SectionRanges();
+    current.startRange(0);
+    sections.put(PREAMBLE, current);
+
+    long position = 0;
+    while (position < size) {
+      long length = Math.min(regionSize, size - position);
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+      int end = (int) length;
+      if (position + length < size) {
+        end = MappedConfigFileReader.lastLineBreak(buffer, end) + 1;
+        if (end == 0) {
+          throw new ComfyException(
+              String.format("Found a line longer than %d bytes at offset %d.", regionSize, position));
+        }
+      }
+
+      tokenizer.reset(buffer);
+      int hashedUpTo = 0;
+      int lineStart = 0;
+      while (lineStart < end) {
+        int lineEnd = lineStart;
+        byte b;
+        while (lineEnd < end && (b = buffer.get(lineEnd)) != '\n' && b != '\r') {
+          lineEnd++;
+        }
+        if (tokenizer.isSectionLine(lineStart, lineEnd)) {
+          current.update(buffer, hashedUpTo, lineStart);
+          current.endRange(position + lineStart);
+          current = sections.computeIfAbsent(tokenizer.getSectionName(), name -> new SectionRanges());
+          current.startRange(position + lineStart);
+          hashedUpTo = lineStart;
+        }
+        lineStart = lineEnd + 1;
+      }
+      current.update(buffer, hashedUpTo, end);
+      position += end;
+    }
+    current.endRange(size);
+    return sections;
+  }
+
+  // The byte ranges of one section name, as from/to pairs, and the fingerprint of their bytes.
+  private static final class SectionRanges {
+    private final CRC32 crc = new CRC32();
+    private final List<Long> ranges = new ArrayList<>(2);
+    private long length;
+
+    void startRange(long from) {
+      ranges.add(from);
+    }
+
+    void endRange(long to) {
+      ranges.add(to);
+    }
+
+    void update(MappedByteBuffer buffer, int from, int to) {
+      // through Buffer, as ByteBuffer only overrides limit and position from Java 9 on.
+      Buffer bytes = buffer.duplicate();
+      bytes.limit(to).position(from);
+      crc.update((ByteBuffer) bytes);
+      length += to - from;
+    }
+
+    // section lines are part of the ranges, so the way the content is split into ranges is covered as well.
+    boolean hasSameContent(SectionRanges other) {
+      return length == other.length && ranges.size() == other.ranges.size() && crc.getValue() == other.crc.getValue();
+    }
+  }
+}
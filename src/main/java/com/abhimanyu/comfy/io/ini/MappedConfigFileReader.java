@@ -0,0 +1,246 @@
+package com.abhimanyu.comfy.io.ini;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfyConfigBuilder;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.InputReader;
+import com.abhimanyu.comfy.metrics.ComfyMetrics;
+import com.abhimanyu.comfy.metrics.LoadRecorder;
+import com.abhimanyu.comfy.parse.LineKind;
+import com.abhimanyu.comfy.parse.OverrideSelector;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.StringPool;
+import com.abhimanyu.comfy.parse.Utf8LineTokenizer;
+import com.abhimanyu.comfy.value.ConfigValue;
+
+/**
+ * Reads a config file by memory mapping it and tokenizing its UTF-8 bytes in place. Comment lines and lines with an
+ * override that is not selected never become Strings. Files larger than a single mapping are mapped region by region,
+ * each region ending on a line break.
+ *
+ * Keys, section names and values are deduplicated through a {@link StringPool} for each read.
+ *
+ * A reader can be limited to a set of sections. The lines of any other section are only checked for being the next
+ * [section] line: they are not tokenized, converted or validated, so an invalid line in a skipped section does not
+ * fail the read. For a valid file the result is the same as reading every section and dropping the others.
+ */
+public class MappedConfigFileReader implements InputReader {
+  private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+  private final OverrideSelector overrides;
+  private final PropertyProcessor propertyProcessor;
+  private final long regionSize;
+  private final int expectedSections;
+  private final int expectedKeysPerSection;
+  // null to read every section.
+  private final Set<String> sections;
+  private final AtomicLong skippedOverrideLines = new AtomicLong();
+  private volatile ComfyMetrics metrics;
+
+  public MappedConfigFileReader(PropertyProcessor propertyProcessor, String[] overridesInput) {
+    this(propertyProcessor, overridesInput, ComfyConfigBuilder.DEFAULT_EXPECTED_SECTIONS,
+        ComfyConfigBuilder.DEFAULT_EXPECTED_KEYS);
+  }
+
+  // The expected counts pre-size the maps of each config read, see ComfyConfigBuilder.
+  public MappedConfigFileReader(PropertyProcessor propertyProcessor, String[] overridesInput, int expectedSections,
+      int expectedKeysPerSection) {
+    this(propertyProcessor, overridesInput, MAX_REGION_SIZE, expectedSections, expectedKeysPerSection, null);
+  }
+
+  // Reads only the given sections, skipping the bodies of all others.
+  public MappedConfigFileReader(PropertyProcessor propertyProcessor, String[] overridesInput, Set<String> sections) {
+    this(propertyProcessor, overridesInput, MAX_REGION_SIZE, sections.size(), ComfyConfigBuilder.DEFAULT_EXPECTED_KEYS,
+        new HashSet<>(sections));
+  }
+
+  MappedConfigFileReader(PropertyProcessor propertyProcessor, String[] overridesInput, long regionSize) {
+    this(propertyProcessor, overridesInput, regionSize, ComfyConfigBuilder.DEFAULT_EXPECTED_SECTIONS,
+        ComfyConfigBuilder.DEFAULT_EXPECTED_KEYS, null);
+  }
+
+  MappedConfigFileReader(PropertyProcessor propertyProcessor, String[] overridesInput, long regionSize,
+      Set<String> sections) {
+    this(propertyProcessor, overridesInput, regionSize, sections.size(), ComfyConfigBuilder.DEFAULT_EXPECTED_KEYS,
+        new HashSet<>(sections));
+  }
+
+  private MappedConfigFileReader(PropertyProcessor propertyProcessor, String[] overridesInput, long regionSize,
+      int expectedSections, int expectedKeysPerSection, Set<String> sections) {
+    overrides = new OverrideSelector(overridesInput);
+    this.propertyProcessor = propertyProcessor;
+    this.regionSize = regionSize;
+    this.expectedSections = expectedSections;
+    this.expectedKeysPerSection = expectedKeysPerSection;
+    this.sections = sections;
+  }
+
+  @Override
+  public ComfyConfig read(InputStream inputStream) {
+    if (!(inputStream instanceof FileInputStream)) {
+      throw new ComfyException(
+          String.format("Memory mapped reading needs a FileInputStream, found: %s", inputStream.getClass()));
+    }
+    try (FileChannel channel = ((FileInputStream) inputStream).getChannel()) {
+      return read(channel, "inputStream");
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read from inputStream."), e);
+    }
+  }
+
+  public ComfyConfig read(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return read(channel, path.toString());
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read from file: %s", path.toAbsolutePath()), e);
+    }
+  }
+
+  private ComfyConfig read(FileChannel channel, String source) throws IOException {
+    LoadRecorder recorder = LoadRecorder.start(metrics, source);
+    ComfyConfigBuilder comfyConfig = read(channel, 0, channel.size(), recorder);
+    long building = recorder.now();
+    ComfyConfig config = comfyConfig.build();
+    recorder.built(building);
+    recorder.finish(config);
+    return config;
+  }
+
+  // Parses the bytes in [from, to), which must start at the beginning of a line. Not recorded in the metrics. The
+  // builders of consecutive ranges are merged in file order to get the config of the whole range.
+  ComfyConfigBuilder read(FileChannel channel, long from, long to) throws IOException {
+    return read(channel, from, to, LoadRecorder.start(null, null));
+  }
+
+  // Like read(channel, from, to), recorded in recorder, which is not finished.
+  ComfyConfigBuilder read(FileChannel channel, long from, long to, LoadRecorder recorder) throws IOException {
+    ComfyConfigBuilder comfyConfig = new ComfyConfigBuilder(expectedSections, expectedKeysPerSection);
+    StringPool stringPool = new StringPool();
+    Utf8LineTokenizer tokenizer = new Utf8LineTokenizer();
+    tokenizer.setStringPool(stringPool);
+    String currentSection = null;
+
+    long position = from;
+    while (position < to) {
+      long length = Math.min(regionSize, to - position);
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+      int end = (int) length;
+      if (position + length < to) {
+        end = lastLineBreak(buffer, end) + 1;
+        if (end == 0) {
+          throw new ComfyException(
+              String.format("Found a line longer than %d bytes at offset %d.", regionSize, position));
+        }
+      }
+
+      tokenizer.reset(buffer);
+      currentSection = readLines(buffer, end, tokenizer, stringPool, currentSection, comfyConfig, recorder);
+      recorder.bytesRead(end);
+      position += end;
+    }
+    recorder.deduplicated(stringPool.getDeduplicated(), stringPool.getSavedBytes());
+    return comfyConfig;
+  }
+
+  // Parses the lines in [0, end) of buffer, which tokenizer was reset to, and returns the section of the last of them.
+  String readLines(ByteBuffer buffer, int end, Utf8LineTokenizer tokenizer, StringPool stringPool,
+      String currentSection, ComfyConfigBuilder comfyConfig, LoadRecorder recorder) {
+    int lineStart = 0;
+    long skipped = 0;
+    boolean skipSection = isSkipped(currentSection);
+    while (lineStart < end) {
+      int lineEnd = lineStart;
+      byte b;
+      while (lineEnd < end && (b = buffer.get(lineEnd)) != '\n' && b != '\r') {
+        lineEnd++;
+      }
+
+      long start = recorder.now();
+      LineKind kind;
+      if (skipSection) {
+        // in the body of a section that was not asked for, only the next [section] line matters. Other lines are null
+        // and not counted.
+        kind = tokenizer.isSectionLine(lineStart, lineEnd) ? LineKind.SECTION : null;
+      } else {
+        kind = tokenizer.tokenize(lineStart, lineEnd);
+      }
+      if (kind == LineKind.SECTION) {
+        currentSection = tokenizer.getSectionName();
+        skipSection = isSkipped(currentSection);
+        recorder.tokenized(start);
+        recorder.sectionLine();
+      } else if (kind == LineKind.PROPERTY || kind == LineKind.OVERRIDE) {
+        if (currentSection == null) {
+          throw new ComfyException(
+              String.format("Line found that is not under any section. Please move this line under a section: {%s}",
+                  tokenizer.decode(lineStart, lineEnd)));
+        }
+        int precedence = kind == LineKind.PROPERTY ? ComfyConfigBuilder.NO_OVERRIDE
+            : tokenizer.overridePrecedence(overrides);
+        if (precedence >= 0) {
+          String key = tokenizer.getKey();
+          String value = tokenizer.getValue();
+          long tokenized = recorder.tokenized(start);
+          ConfigValue<?> configValue = propertyProcessor.process(value, stringPool);
+          long classified = recorder.classified(tokenized);
+          comfyConfig.put(currentSection, key, configValue, precedence);
+          recorder.built(classified);
+          if (kind == LineKind.PROPERTY) {
+            recorder.propertyLine(configValue);
+          } else {
+            recorder.selectedOverrideLine(configValue);
+          }
+        } else {
+          recorder.tokenized(start);
+          recorder.skippedOverrideLine();
+          skipped++;
+        }
+      } else if (kind != null) {
+        recorder.tokenized(start);
+        recorder.commentLine();
+      }
+      lineStart = lineEnd + 1;
+    }
+    skippedOverrideLines.addAndGet(skipped);
+    return currentSection;
+  }
+
+  // Lines before the first section are always tokenized, so that they fail the read like they do without a filter.
+  private boolean isSkipped(String section) {
+    return sections != null && section != null && !sections.contains(section);
+  }
+
+  // Passes the statistics of every later read to metrics, or stops recording them when it is null.
+  public void setMetrics(ComfyMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  // Number of lines dropped because of an unselected override before any String was decoded for them.
+  public long getSkippedOverrideLines() {
+    return skippedOverrideLines.get();
+  }
+
+  static int lastLineBreak(ByteBuffer buffer, int end) {
+    for (int i = end - 1; i >= 0; i--) {
+      byte b = buffer.get(i);
+      if (b == '\n' || b == '\r') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+}
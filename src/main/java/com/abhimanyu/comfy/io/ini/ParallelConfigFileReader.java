@@ -0,0 +1,196 @@
+package com.abhimanyu.comfy.io.ini;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfyConfigBuilder;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.InputReader;
+import com.abhimanyu.comfy.metrics.ComfyMetrics;
+import com.abhimanyu.comfy.metrics.LoadRecorder;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.Utf8LineTokenizer;
+
+/**
+ * Reads a config file on a {@link ForkJoinPool}. The file is split into chunks that each start on a [section] line,
+ * so that every chunk can be parsed on its own, and the chunk results are merged in file order with the precedence of
+ * their values, like in the sequential readers: the value of the first selected override wins, and within one override,
+ * or without one, the last line wins. The {@link PropertyProcessor} is shared by all workers and has to be thread-safe.
+ */
+public class ParallelConfigFileReader implements InputReader {
+  private static final long MIN_CHUNK_SIZE = 4L * 1024 * 1024;
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final int BOUNDARY_WINDOW = 1024 * 1024;
+
+  private final MappedConfigFileReader chunkReader;
+  private final ForkJoinPool pool;
+  private final long minChunkSize;
+  private volatile ComfyMetrics metrics;
+
+  public ParallelConfigFileReader(PropertyProcessor propertyProcessor, String[] overrides) {
+    this(propertyProcessor, overrides, ForkJoinPool.commonPool());
+  }
+
+  public ParallelConfigFileReader(PropertyProcessor propertyProcessor, String[] overrides, ForkJoinPool pool) {
+    this(propertyProcessor, overrides, pool, MIN_CHUNK_SIZE);
+  }
+
+  ParallelConfigFileReader(PropertyProcessor propertyProcessor, String[] overrides, ForkJoinPool pool,
+      long minChunkSize) {
+    this.chunkReader = new MappedConfigFileReader(propertyProcessor, overrides);
+    this.pool = pool;
+    this.minChunkSize = minChunkSize;
+  }
+
+  @Override
+  public ComfyConfig read(InputStream inputStream) {
+    if (!(inputStream instanceof FileInputStream)) {
+      throw new ComfyException(
+          String.format("Parallel reading needs a FileInputStream, found: %s", inputStream.getClass()));
+    }
+    try (FileChannel channel = ((FileInputStream) inputStream).getChannel()) {
+      return read(channel, "inputStream");
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read from inputStream."), e);
+    }
+  }
+
+  public ComfyConfig read(Path path) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return read(channel, path.toString());
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read from file: %s", path.toAbsolutePath()), e);
+    }
+  }
+
+  private ComfyConfig read(FileChannel channel, String source) throws IOException {
+    LoadRecorder recorder = LoadRecorder.start(metrics, source);
+    List<Long> boundaries = chunkBoundaries(channel);
+
+    List<ForkJoinTask<ComfyConfigBuilder>> chunks = new ArrayList<>(boundaries.size() - 1);
+    List<LoadRecorder> parts = new ArrayList<>(boundaries.size() - 1);
+    for (int i = 0; i < boundaries.size() - 1; i++) {
+      long from = boundaries.get(i);
+      long to = boundaries.get(i + 1);
+      LoadRecorder part = recorder.part();
+      parts.add(part);
+      chunks.add(pool.submit(() -> chunkReader.read(channel, from, to, part)));
+    }
+
+    try {
+      // joining in file order surfaces the same error as a sequential read when several chunks fail.
+      ComfyConfigBuilder comfyConfig = chunks.get(0).join();
+      recorder.add(parts.get(0));
+      for (int i = 1; i < chunks.size(); i++) {
+        ComfyConfigBuilder chunk = chunks.get(i).join();
+        recorder.add(parts.get(i));
+        long merging = recorder.now();
+        comfyConfig.merge(chunk);
+        recorder.built(merging);
+      }
+      long building = recorder.now();
+      ComfyConfig config = comfyConfig.build();
+      recorder.built(building);
+      recorder.finish(config);
+      return config;
+    } finally {
+      for (ForkJoinTask<ComfyConfigBuilder> chunk : chunks) {
+        chunk.cancel(false);
+      }
+    }
+  }
+
+  // Passes the statistics of every later read to metrics, or stops recording them when it is null. The times of the
+  // chunks are added up, so they can exceed the total time of a read.
+  public void setMetrics(ComfyMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public long getSkippedOverrideLines() {
+    return chunkReader.getSkippedOverrideLines();
+  }
+
+  List<Long> chunkBoundaries(FileChannel channel) throws IOException {
+    long size = channel.size();
+    long chunkCount = Math.max(1, Math.min((long) pool.getParallelism() * CHUNKS_PER_THREAD, size / minChunkSize));
+
+    List<Long> boundaries = new ArrayList<>();
+    boundaries.add(0L);
+    for (long i = 1; i < chunkCount; i++) {
+      long target = Math.max(size * i / chunkCount, boundaries.get(boundaries.size() - 1));
+      long boundary = nextSectionStart(channel, target, size);
+      if (boundary >= size) {
+        break;
+      }
+      boundaries.add(boundary);
+    }
+    boundaries.add(size);
+    return boundaries;
+  }
+
+  // Returns the offset of the first [section] line that starts after the line containing from, or size if none does.
+  private static long nextSectionStart(FileChannel channel, long from, long size) throws IOException {
+    Utf8LineTokenizer tokenizer = new Utf8LineTokenizer();
+    long windowStart = from;
+    boolean atLineStart = false;
+
+    while (windowStart < size) {
+      int length = (int) Math.min(BOUNDARY_WINDOW, size - windowStart);
+      boolean lastWindow = windowStart + length == size;
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, windowStart, length);
+      tokenizer.reset(buffer);
+
+      int lineStart = 0;
+      if (!atLineStart) {
+        while (lineStart < length && !isLineBreak(buffer.get(lineStart))) {
+          lineStart++;
+        }
+        if (lineStart == length) {
+          windowStart += length;
+          continue;
+        }
+        lineStart++;
+      }
+
+      while (lineStart < length) {
+        int lineEnd = lineStart;
+        while (lineEnd < length && !isLineBreak(buffer.get(lineEnd))) {
+          lineEnd++;
+        }
+        if (lineEnd == length && !lastWindow) {
+          break;
+        }
+        if (tokenizer.isSectionLine(lineStart, lineEnd)) {
+          return windowStart + lineStart;
+        }
+        lineStart = lineEnd + 1;
+      }
+
+      if (lineStart == 0) {
+        // a single line fills the whole window, it cannot be a section line.
+        windowStart += length;
+        atLineStart = false;
+      } else {
+        windowStart += Math.min(lineStart, length);
+        atLineStart = true;
+      }
+    }
+    return size;
+  }
+
+  private static boolean isLineBreak(byte b) {
+    return b == '\n' || b == '\r';
+  }
+
+}
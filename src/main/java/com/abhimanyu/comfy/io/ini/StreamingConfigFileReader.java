@@ -0,0 +1,130 @@
+package com.abhimanyu.comfy.io.ini;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.ComfyHandler;
+import com.abhimanyu.comfy.parse.LineKind;
+import com.abhimanyu.comfy.parse.OverrideSelector;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.Utf8LineTokenizer;
+
+/**
+ * Reads a config file like {@link MappedConfigFileReader} but passes every section and property to a
+ * {@link ComfyHandler} instead of collecting them in a config. The file is mapped one region at a time and nothing is
+ * kept between lines, so the memory used does not grow with the size of the file. Reading stops at the end of the file
+ * or as soon as a callback returns false.
+ */
+public class StreamingConfigFileReader {
+  private static final long DEFAULT_REGION_SIZE = 64L * 1024 * 1024;
+
+  private final OverrideSelector overrides;
+  private final PropertyProcessor propertyProcessor;
+  private final long regionSize;
+
+  public StreamingConfigFileReader(PropertyProcessor propertyProcessor, String[] overridesInput) {
+    this(propertyProcessor, overridesInput, DEFAULT_REGION_SIZE);
+  }
+
+  // Passes the lines of the overrides that overrides selects, eg. OverrideSelector.all() for every override line.
+  public StreamingConfigFileReader(PropertyProcessor propertyProcessor, OverrideSelector overrides) {
+    this(propertyProcessor, overrides, DEFAULT_REGION_SIZE);
+  }
+
+  StreamingConfigFileReader(PropertyProcessor propertyProcessor, String[] overridesInput, long regionSize) {
+    this(propertyProcessor, new OverrideSelector(overridesInput), regionSize);
+  }
+
+  private StreamingConfigFileReader(PropertyProcessor propertyProcessor, OverrideSelector overrides, long regionSize) {
+    this.overrides = overrides;
+    this.propertyProcessor = propertyProcessor;
+    this.regionSize = regionSize;
+  }
+
+  // Returns false if a callback stopped the read before the end of the file.
+  public boolean read(InputStream inputStream, ComfyHandler handler) {
+    if (!(inputStream instanceof FileInputStream)) {
+      throw new ComfyException(
+          String.format("Streaming reading needs a FileInputStream, found: %s", inputStream.getClass()));
+    }
+    try (FileChannel channel = ((FileInputStream) inputStream).getChannel()) {
+      return read(channel, handler);
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read from inputStream."), e);
+    }
+  }
+
+  public boolean read(Path path, ComfyHandler handler) {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return read(channel, handler);
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read from file: %s", path.toAbsolutePath()), e);
+    }
+  }
+
+  private boolean read(FileChannel channel, ComfyHandler handler) throws IOException {
+    // no StringPool: a pool keeps every distinct String of the read, and nothing is kept between lines here.
+    Utf8LineTokenizer tokenizer = new Utf8LineTokenizer();
+    long size = channel.size();
+    String currentSection = null;
+
+    long position = 0;
+    while (position < size) {
+      long length = Math.min(regionSize, size - position);
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+      int end = (int) length;
+      if (position + length < size) {
+        end = MappedConfigFileReader.lastLineBreak(buffer, end) + 1;
+        if (end == 0) {
+          throw new ComfyException(
+              String.format("Found a line longer than %d bytes at offset %d.", regionSize, position));
+        }
+      }
+
+      tokenizer.reset(buffer);
+      int lineStart = 0;
+      while (lineStart < end) {
+        int lineEnd = lineStart;
+        byte b;
+        while (lineEnd < end && (b = buffer.get(lineEnd)) != '\n' && b != '\r') {
+          lineEnd++;
+        }
+
+        LineKind kind = tokenizer.tokenize(lineStart, lineEnd);
+        boolean proceed = true;
+        if (kind == LineKind.SECTION) {
+          currentSection = tokenizer.getSectionName();
+          proceed = handler.onSection(currentSection);
+        } else if (kind == LineKind.PROPERTY || kind == LineKind.OVERRIDE) {
+          if (currentSection == null) {
+            throw new ComfyException(
+                String.format("Line found that is not under any section. Please move this line under a section: {%s}",
+                    tokenizer.decode(lineStart, lineEnd)));
+          }
+          if (kind == LineKind.PROPERTY) {
+            proceed = handler.onProperty(currentSection, tokenizer.getKey(),
+                propertyProcessor.process(tokenizer.getValue()));
+          } else if (tokenizer.isOverrideSelected(overrides)) {
+            proceed = handler.onOverride(currentSection, tokenizer.getKey(), tokenizer.getOverride(),
+                propertyProcessor.process(tokenizer.getValue()));
+          } else {
+            proceed = handler.onOverrideSkipped(currentSection, tokenizer.getKey(), tokenizer.getOverride());
+          }
+        }
+        if (!proceed) {
+          return false;
+        }
+        lineStart = lineEnd + 1;
+      }
+      position += end;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,191 @@
+package com.abhimanyu.comfy.io.snapshot;
+
+import static com.abhimanyu.comfy.io.snapshot.SnapshotFormat.ENTRY_SIZE;
+import static com.abhimanyu.comfy.io.snapshot.SnapshotFormat.HEADER_SIZE;
+import static com.abhimanyu.comfy.io.snapshot.SnapshotFormat.SECTION_SIZE;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfySection;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.value.ArrayValue;
+import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.LongValue;
+import com.abhimanyu.comfy.value.StringValue;
+
+// Reads the fields of a snapshot held in a buffer. Only absolute gets are used, so it can be read by many threads.
+// Nothing is cached, every call decodes from the buffer.
+final class Snapshot {
+  private final ByteBuffer buffer;
+  private final int stringsOffset;
+  private final int sectionsOffset;
+  private final int entriesOffset;
+  private final int overridesOffset;
+
+  private Snapshot(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.stringsOffset = buffer.getInt(SnapshotFormat.STRINGS_OFFSET);
+    this.sectionsOffset = buffer.getInt(SnapshotFormat.SECTIONS_OFFSET);
+    this.entriesOffset = buffer.getInt(SnapshotFormat.ENTRIES_OFFSET);
+    this.overridesOffset = buffer.getInt(SnapshotFormat.OVERRIDES_OFFSET);
+  }
+
+  static Snapshot open(ByteBuffer buffer, String name, boolean verifyChecksum) {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(SnapshotFormat.MAGIC_OFFSET) != SnapshotFormat.MAGIC) {
+      throw new ComfyException(String.format("Not a Comfy snapshot: %s", name));
+    }
+    int version = buffer.getInt(SnapshotFormat.VERSION_OFFSET);
+    if (version != SnapshotFormat.VERSION) {
+      throw new ComfyException(String.format("Unsupported snapshot version %d in: %s", version, name));
+    }
+    int length = buffer.getInt(SnapshotFormat.LENGTH_OFFSET);
+    if (length != buffer.capacity()) {
+      throw new ComfyException(String.format("Snapshot has %d bytes instead of %d: %s", buffer.capacity(), length, name));
+    }
+    if (verifyChecksum
+        && SnapshotFormat.checksum(buffer, HEADER_SIZE, length) != buffer.getLong(SnapshotFormat.CHECKSUM_OFFSET)) {
+      throw new ComfyException(String.format("Snapshot checksum does not match, the file is corrupt: %s", name));
+    }
+    return new Snapshot(buffer);
+  }
+
+  ComfyConfig toConfig() {
+    return new ComfyConfig(new SnapshotConfigMap(this));
+  }
+
+  long getLong(int offset) {
+    return buffer.getLong(offset);
+  }
+
+  String[] overrides() {
+    String[] overrides = new String[buffer.getInt(overridesOffset)];
+    for (int i = 0; i < overrides.length; i++) {
+      overrides[i] = string(buffer.getInt(overridesOffset + 4 + 4 * i));
+    }
+    return overrides;
+  }
+
+  int sectionCount() {
+    return buffer.getInt(sectionsOffset);
+  }
+
+  String sectionName(int section) {
+    return string(buffer.getInt(sectionOffset(section) + 4));
+  }
+
+  ComfySection section(int section) {
+    int offset = sectionOffset(section);
+    return new ComfySection(new SnapshotSectionMap(this, buffer.getInt(offset + 8), buffer.getInt(offset + 12)));
+  }
+
+  // Sections and the entries of a section are sorted by hash, so both are found with a binary search for the first
+  // one with the hash of name, followed by a comparison of the names with that hash. Returns -1 when there is none.
+  int findSection(String name) {
+    int hash = name.hashCode();
+    int count = sectionCount();
+    for (int section = lowerBound(0, count, hash, true); section < count; section++) {
+      int offset = sectionOffset(section);
+      if (buffer.getInt(offset) != hash) {
+        break;
+      }
+      if (stringEquals(buffer.getInt(offset + 4), name)) {
+        return section;
+      }
+    }
+    return -1;
+  }
+
+  int findEntry(int firstEntry, int entryCount, String key) {
+    int hash = key.hashCode();
+    int end = firstEntry + entryCount;
+    for (int entry = lowerBound(firstEntry, end, hash, false); entry < end && entryHash(entry) == hash; entry++) {
+      if (entryKeyEquals(entry, key)) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  private int lowerBound(int low, int high, int hash, boolean sections) {
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int middleHash = sections ? buffer.getInt(sectionOffset(middle)) : entryHash(middle);
+      if (middleHash < hash) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private int sectionOffset(int section) {
+    return sectionsOffset + 4 + section * SECTION_SIZE;
+  }
+
+  private int entryHash(int entry) {
+    return buffer.getInt(entriesOffset + entry * ENTRY_SIZE);
+  }
+
+  String entryKey(int entry) {
+    return string(buffer.getInt(entriesOffset + entry * ENTRY_SIZE + SnapshotFormat.ENTRY_KEY_OFFSET));
+  }
+
+  private boolean entryKeyEquals(int entry, String key) {
+    return stringEquals(buffer.getInt(entriesOffset + entry * ENTRY_SIZE + SnapshotFormat.ENTRY_KEY_OFFSET), key);
+  }
+
+  ConfigValue entryValue(int entry) {
+    int offset = entriesOffset + entry * ENTRY_SIZE;
+    long payload = buffer.getLong(offset + SnapshotFormat.ENTRY_PAYLOAD_OFFSET);
+    switch (SnapshotFormat.valueType(buffer.get(offset + SnapshotFormat.ENTRY_TAG_OFFSET))) {
+    case INT:
+      return IntValue.of((int) payload);
+    case LONG:
+      return new LongValue(payload);
+    case BOOLEAN:
+      return BooleanValue.of(payload != 0);
+    case STRING:
+      return new StringValue(string((int) payload));
+    case ARRAY:
+      int array = (int) payload;
+      String[] elements = new String[buffer.getInt(array)];
+      for (int i = 0; i < elements.length; i++) {
+        elements[i] = string(buffer.getInt(array + 4 + 4 * i));
+      }
+      return new ArrayValue(elements);
+    default:
+      throw new ComfyException(String.format("Unknown value tag in snapshot entry %d", entry));
+    }
+  }
+
+  private String string(int id) {
+    int start = buffer.getInt(stringsOffset + 4 + 4 * id);
+    int end = buffer.getInt(stringsOffset + 8 + 4 * id);
+    byte[] bytes = new byte[end - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(start + i);
+    }
+    return new String(bytes, 0, bytes.length, StandardCharsets.UTF_8);
+  }
+
+  // Compares without decoding while value is ASCII, which keys almost always are.
+  private boolean stringEquals(int id, String value) {
+    int position = buffer.getInt(stringsOffset + 4 + 4 * id);
+    int end = buffer.getInt(stringsOffset + 8 + 4 * id);
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        return value.equals(string(id));
+      }
+      if (position == end || buffer.get(position++) != c) {
+        return false;
+      }
+    }
+    return position == end;
+  }
+}
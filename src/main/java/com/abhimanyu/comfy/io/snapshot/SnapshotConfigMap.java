@@ -0,0 +1,89 @@
+package com.abhimanyu.comfy.io.snapshot;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.abhimanyu.comfy.config.ComfySection;
+
+// A read-only view of the sections in a snapshot. A section is created over the entries in the buffer on its first
+// read and kept, so the results that ComfySection.getAs keeps outlive the read.
+final class SnapshotConfigMap extends AbstractMap<String, ComfySection> {
+  private final Snapshot snapshot;
+  // created sections by index, allocated on the first read so that a load stays a few objects. Threads may both
+  // create the array or a section, and the last write is kept.
+  private volatile ComfySection[] sections;
+
+  SnapshotConfigMap(Snapshot snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  @Override
+  public ComfySection get(Object name) {
+    int section = find(name);
+    return section < 0 ? null : section(section);
+  }
+
+  @Override
+  public boolean containsKey(Object name) {
+    return find(name) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return snapshot.sectionCount();
+  }
+
+  @Override
+  public Set<Entry<String, ComfySection>> entrySet() {
+    return new AbstractSet<Entry<String, ComfySection>>() {
+      @Override
+      public Iterator<Entry<String, ComfySection>> iterator() {
+        return new Iterator<Entry<String, ComfySection>>() {
+          private int section;
+
+          @Override
+          public boolean hasNext() {
+            return section < snapshot.sectionCount();
+          }
+
+          @Override
+          public Entry<String, ComfySection> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            Entry<String, ComfySection> next = new SimpleImmutableEntry<>(snapshot.sectionName(section),
+                section(section));
+            section++;
+            return next;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return snapshot.sectionCount();
+      }
+    };
+  }
+
+  private ComfySection section(int index) {
+    ComfySection[] created = sections;
+    if (created == null) {
+      created = new ComfySection[snapshot.sectionCount()];
+      sections = created;
+    }
+    ComfySection section = created[index];
+    if (section == null) {
+      section = snapshot.section(index);
+      created[index] = section;
+    }
+    return section;
+  }
+
+  private int find(Object name) {
+    return name instanceof String ? snapshot.findSection((String) name) : -1;
+  }
+}
@@ -0,0 +1,135 @@
+package com.abhimanyu.comfy.io.snapshot;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.ValueType;
+
+/**
+ * Layout of a snapshot file, version 2. All numbers are big endian and all offsets are absolute file offsets, which
+ * limits a snapshot to 2 GB.
+ *
+ * <pre>
+ * header     64 bytes, the fields at the offsets below
+ * strings    int count, int[count + 1] offsets of the UTF-8 bytes of each string, then the bytes
+ * arrays     for each array value: int length, int[length] string ids
+ * sections   int count, then for each section, sorted by String.hashCode() of the name: int name hash, int name id,
+ *            int first entry, int entry count
+ * entries    for each key, sorted by String.hashCode() within a section: int key hash, int key id, byte tag,
+ *            3 bytes padding, long payload (the int, long or 0/1 boolean, a string id or the offset of an array)
+ * overrides  int count, int[count] string ids of the overrides the config was loaded with, in priority order
+ * </pre>
+ *
+ * The checksum is a CRC32 over everything after the header. Sections and keys are both found with a binary search on
+ * their hash, so a loaded snapshot keeps nothing but a few offsets on the heap.
+ */
+final class SnapshotFormat {
+  static final int MAGIC = 0x434F4D46;
+  static final int VERSION = 2;
+  static final int HEADER_SIZE = 64;
+
+  static final int MAGIC_OFFSET = 0;
+  static final int VERSION_OFFSET = 4;
+  static final int SOURCE_SIZE_OFFSET = 8;
+  static final int SOURCE_MODIFIED_OFFSET = 16;
+  static final int SOURCE_CHECKSUM_OFFSET = 24;
+  static final int STRINGS_OFFSET = 32;
+  static final int ARRAYS_OFFSET = 36;
+  static final int SECTIONS_OFFSET = 40;
+  static final int ENTRIES_OFFSET = 44;
+  static final int OVERRIDES_OFFSET = 48;
+  static final int LENGTH_OFFSET = 52;
+  static final int CHECKSUM_OFFSET = 56;
+
+  static final int SECTION_SIZE = 16;
+  static final int ENTRY_SIZE = 20;
+  static final int ENTRY_KEY_OFFSET = 4;
+  static final int ENTRY_TAG_OFFSET = 8;
+  static final int ENTRY_PAYLOAD_OFFSET = 12;
+
+  // tags of the stored values, one per ValueType. TEXT values are loaded as StringValue, so they share the tag.
+  static final byte TAG_STRING = 1;
+  static final byte TAG_INT = 2;
+  static final byte TAG_LONG = 3;
+  static final byte TAG_BOOLEAN = 4;
+  static final byte TAG_ARRAY = 5;
+
+  private SnapshotFormat() {
+  }
+
+  // overrides in priority order without the repeated ones, which do not change a load.
+  static List<String> distinct(String[] overrides) {
+    return new ArrayList<>(new LinkedHashSet<>(Arrays.asList(overrides)));
+  }
+
+  static ValueType typeOf(ConfigValue configValue) {
+    ValueType valueType = ValueType.of(configValue);
+    if (valueType == ValueType.TEXT || valueType == ValueType.NOT_SUPPORTED) {
+      throw new ComfyException(String.format("Value type not supported in a snapshot: %s", configValue.getClass()));
+    }
+    return valueType;
+  }
+
+  static byte tag(ValueType valueType) {
+    switch (valueType) {
+    case STRING:
+    case TEXT:
+      return TAG_STRING;
+    case INT:
+      return TAG_INT;
+    case LONG:
+      return TAG_LONG;
+    case BOOLEAN:
+      return TAG_BOOLEAN;
+    case ARRAY:
+      return TAG_ARRAY;
+    default:
+      throw new ComfyException(String.format("Value type not supported in a snapshot: %s", valueType));
+    }
+  }
+
+  static ValueType valueType(byte tag) {
+    switch (tag) {
+    case TAG_STRING:
+      return ValueType.STRING;
+    case TAG_INT:
+      return ValueType.INT;
+    case TAG_LONG:
+      return ValueType.LONG;
+    case TAG_BOOLEAN:
+      return ValueType.BOOLEAN;
+    case TAG_ARRAY:
+      return ValueType.ARRAY;
+    default:
+      return ValueType.NOT_SUPPORTED;
+    }
+  }
+
+  static long checksum(ByteBuffer buffer, int from, int to) {
+    CRC32 crc = new CRC32();
+    // through Buffer, as ByteBuffer only overrides limit and position from Java 9 on.
+    Buffer bytes = buffer.duplicate();
+    bytes.limit(to).position(from);
+    crc.update((ByteBuffer) bytes);
+    return crc.getValue();
+  }
+
+  static long checksum(FileChannel channel) throws IOException {
+    CRC32 crc = new CRC32();
+    long size = channel.size();
+    for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+      crc.update(channel.map(MapMode.READ_ONLY, position, Math.min(Integer.MAX_VALUE, size - position)));
+    }
+    return crc.getValue();
+  }
+}
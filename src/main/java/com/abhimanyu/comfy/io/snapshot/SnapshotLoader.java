@@ -0,0 +1,61 @@
+package com.abhimanyu.comfy.io.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+
+/**
+ * Loads a snapshot written by {@link SnapshotWriter} by memory mapping it. Nothing is tokenized or converted: the
+ * returned config is a read-only view whose sections look keys up in the mapped file and decode a value each time it
+ * is read. Any change to the config throws {@link UnsupportedOperationException}.
+ *
+ * The heap only holds the view objects, the sections, keys and values stay in the file. The file is mapped read-only,
+ * so JVMs on the same host that load the same snapshot share its pages in the OS page cache.
+ */
+public class SnapshotLoader {
+
+  public ComfyConfig load(Path snapshot) {
+    return Snapshot.open(map(snapshot), snapshot.toAbsolutePath().toString(), true).toConfig();
+  }
+
+  // Loads a snapshot from a buffer, eg. one from SnapshotWriter.writeOffHeap. The buffer must not be changed later.
+  public ComfyConfig load(ByteBuffer snapshot) {
+    return Snapshot.open(snapshot, "buffer", true).toConfig();
+  }
+
+  // Whether snapshot exists, can be read by this version and was compiled from the current content of source with the
+  // same overrides in the same priority order.
+  public boolean isUpToDate(Path snapshot, Path source, String[] overrides) {
+    if (!Files.isRegularFile(snapshot)) {
+      return false;
+    }
+    try {
+      Snapshot header = Snapshot.open(map(snapshot), snapshot.toAbsolutePath().toString(), false);
+      SourceStamp stamp = new SourceStamp(header.getLong(SnapshotFormat.SOURCE_SIZE_OFFSET),
+          header.getLong(SnapshotFormat.SOURCE_MODIFIED_OFFSET), header.getLong(SnapshotFormat.SOURCE_CHECKSUM_OFFSET));
+      return SnapshotFormat.distinct(overrides).equals(Arrays.asList(header.overrides())) && stamp.matches(source);
+    } catch (ComfyException | IOException e) {
+      return false;
+    }
+  }
+
+  private static MappedByteBuffer map(Path snapshot) {
+    try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new ComfyException(String.format("Not a Comfy snapshot: %s", snapshot.toAbsolutePath()));
+      }
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to read snapshot: %s", snapshot.toAbsolutePath()), e);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.abhimanyu.comfy.io.snapshot;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+
+// A read-only view of the entries of one section in a snapshot. Every read decodes the value from the buffer.
+final class SnapshotSectionMap extends AbstractMap<String, ConfigValue> {
+  private final Snapshot snapshot;
+  private final int firstEntry;
+  private final int entryCount;
+
+  SnapshotSectionMap(Snapshot snapshot, int firstEntry, int entryCount) {
+    this.snapshot = snapshot;
+    this.firstEntry = firstEntry;
+    this.entryCount = entryCount;
+  }
+
+  @Override
+  public ConfigValue get(Object key) {
+    int entry = find(key);
+    return entry < 0 ? null : snapshot.entryValue(entry);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return entryCount;
+  }
+
+  @Override
+  public Set<Entry<String, ConfigValue>> entrySet() {
+    return new AbstractSet<Entry<String, ConfigValue>>() {
+      @Override
+      public Iterator<Entry<String, ConfigValue>> iterator() {
+        return new Iterator<Entry<String, ConfigValue>>() {
+          private int entry = firstEntry;
+
+          @Override
+          public boolean hasNext() {
+            return entry < firstEntry + entryCount;
+          }
+
+          @Override
+          public Entry<String, ConfigValue> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            Entry<String, ConfigValue> next = new SimpleImmutableEntry<>(snapshot.entryKey(entry),
+                snapshot.entryValue(entry));
+            entry++;
+            return next;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return entryCount;
+      }
+    };
+  }
+
+  private int find(Object key) {
+    return key instanceof String ? snapshot.findEntry(firstEntry, entryCount, (String) key) : -1;
+  }
+}
@@ -0,0 +1,241 @@
+package com.abhimanyu.comfy.io.snapshot;
+
+import static com.abhimanyu.comfy.io.snapshot.SnapshotFormat.ENTRY_SIZE;
+import static com.abhimanyu.comfy.io.snapshot.SnapshotFormat.HEADER_SIZE;
+import static com.abhimanyu.comfy.io.snapshot.SnapshotFormat.SECTION_SIZE;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfySection;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.value.ArrayValue;
+import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.LongValue;
+import com.abhimanyu.comfy.value.StringValue;
+import com.abhimanyu.comfy.value.ValueType;
+
+/**
+ * Writes a {@link ComfyConfig} in the binary format described in {@link SnapshotFormat}. Lazy values are converted
+ * while writing. The file is written next to the target and moved over it, so a process that maps the target never
+ * sees a partly written snapshot.
+ */
+public class SnapshotWriter {
+
+  public void write(ComfyConfig config, String[] overrides, SourceStamp source, Path target) {
+    ByteBuffer snapshot = serialize(config, overrides, source, ByteBuffer::allocate);
+    Path directory = target.toAbsolutePath().getParent();
+    Path temporary = null;
+    try {
+      temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+      Files.write(temporary, snapshot.array());
+      Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to write snapshot: %s", target.toAbsolutePath()), e);
+    } finally {
+      if (temporary != null) {
+        try {
+          Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+          // the move succeeded or the write already failed, the exception above is the one to report.
+        }
+      }
+    }
+  }
+
+  // Writes config in the snapshot format to a direct buffer, outside of the heap. Load it with SnapshotLoader.load.
+  public ByteBuffer writeOffHeap(ComfyConfig config, String[] overrides) {
+    return serialize(config, overrides, SourceStamp.NONE, ByteBuffer::allocateDirect);
+  }
+
+  ByteBuffer serialize(ComfyConfig config, String[] overrides, SourceStamp source, IntFunction<ByteBuffer> allocator) {
+    StringTable strings = new StringTable();
+    List<int[]> arrays = new ArrayList<>();
+    List<String> sectionNames = new ArrayList<>(config.sectionNames());
+    sectionNames.sort(Comparator.comparingInt(String::hashCode));
+    int[] sectionNameIds = new int[sectionNames.size()];
+    List<String[]> sectionKeys = new ArrayList<>(sectionNames.size());
+    int entryCount = 0;
+
+    for (int i = 0; i < sectionNames.size(); i++) {
+      sectionNameIds[i] = strings.id(sectionNames.get(i));
+      String[] keys = config.get(sectionNames.get(i)).keys().toArray(new String[0]);
+      Arrays.sort(keys, Comparator.comparingInt(String::hashCode));
+      sectionKeys.add(keys);
+      entryCount += keys.length;
+    }
+
+    int[] keyIds = new int[entryCount];
+    byte[] tags = new byte[entryCount];
+    long[] payloads = new long[entryCount];
+    int entry = 0;
+    for (int i = 0; i < sectionNames.size(); i++) {
+      ComfySection section = config.get(sectionNames.get(i));
+      for (String key : sectionKeys.get(i)) {
+        ConfigValue value = section.get(key);
+        ValueType valueType = SnapshotFormat.typeOf(value);
+        keyIds[entry] = strings.id(key);
+        tags[entry] = SnapshotFormat.tag(valueType);
+        payloads[entry] = payload(valueType, value, strings, arrays);
+        entry++;
+      }
+    }
+
+    List<String> distinctOverrides = SnapshotFormat.distinct(overrides);
+    int[] overrideIds = new int[distinctOverrides.size()];
+    int override = 0;
+    for (String name : distinctOverrides) {
+      overrideIds[override++] = strings.id(name);
+    }
+
+    long stringsOffset = HEADER_SIZE;
+    long arraysOffset = stringsOffset + 4 + 4L * (strings.size() + 1) + strings.byteCount;
+    long arraysSize = 0;
+    for (int[] array : arrays) {
+      arraysSize += 4 + 4L * array.length;
+    }
+    long sectionsOffset = arraysOffset + arraysSize;
+    long entriesOffset = sectionsOffset + 4 + (long) SECTION_SIZE * sectionNames.size();
+    long overridesOffset = entriesOffset + (long) ENTRY_SIZE * entryCount;
+    long length = overridesOffset + 4 + 4L * overrideIds.length;
+    if (length > Integer.MAX_VALUE) {
+      throw new ComfyException(String.format("Config is too large for a snapshot: %d bytes", length));
+    }
+
+    ByteBuffer buffer = allocator.apply((int) length);
+    buffer.putInt(SnapshotFormat.MAGIC_OFFSET, SnapshotFormat.MAGIC);
+    buffer.putInt(SnapshotFormat.VERSION_OFFSET, SnapshotFormat.VERSION);
+    buffer.putLong(SnapshotFormat.SOURCE_SIZE_OFFSET, source.getSize());
+    buffer.putLong(SnapshotFormat.SOURCE_MODIFIED_OFFSET, source.getLastModified());
+    buffer.putLong(SnapshotFormat.SOURCE_CHECKSUM_OFFSET, source.getChecksum());
+    buffer.putInt(SnapshotFormat.STRINGS_OFFSET, (int) stringsOffset);
+    buffer.putInt(SnapshotFormat.ARRAYS_OFFSET, (int) arraysOffset);
+    buffer.putInt(SnapshotFormat.SECTIONS_OFFSET, (int) sectionsOffset);
+    buffer.putInt(SnapshotFormat.ENTRIES_OFFSET, (int) entriesOffset);
+    buffer.putInt(SnapshotFormat.OVERRIDES_OFFSET, (int) overridesOffset);
+    buffer.putInt(SnapshotFormat.LENGTH_OFFSET, (int) length);
+
+    int position = (int) stringsOffset;
+    buffer.putInt(position, strings.size());
+    int offsets = position + 4;
+    int bytes = offsets + 4 * (strings.size() + 1);
+    // the strings are written one after the other, through Buffer as ByteBuffer only overrides position from Java 9 on.
+    ByteBuffer stringBytes = buffer.duplicate();
+    ((Buffer) stringBytes).position(bytes);
+    for (int i = 0; i < strings.size(); i++) {
+      buffer.putInt(offsets + 4 * i, bytes);
+      byte[] encoded = strings.encoded.get(i);
+      stringBytes.put(encoded);
+      bytes += encoded.length;
+    }
+    buffer.putInt(offsets + 4 * strings.size(), bytes);
+
+    position = (int) arraysOffset;
+    int[] arrayOffsets = new int[arrays.size()];
+    for (int i = 0; i < arrays.size(); i++) {
+      arrayOffsets[i] = position;
+      buffer.putInt(position, arrays.get(i).length);
+      position += 4;
+      for (int id : arrays.get(i)) {
+        buffer.putInt(position, id);
+        position += 4;
+      }
+    }
+
+    position = (int) sectionsOffset;
+    buffer.putInt(position, sectionNames.size());
+    position += 4;
+    int firstEntry = 0;
+    for (int i = 0; i < sectionNames.size(); i++) {
+      buffer.putInt(position, sectionNames.get(i).hashCode());
+      buffer.putInt(position + 4, sectionNameIds[i]);
+      buffer.putInt(position + 8, firstEntry);
+      buffer.putInt(position + 12, sectionKeys.get(i).length);
+      firstEntry += sectionKeys.get(i).length;
+      position += SECTION_SIZE;
+    }
+
+    position = (int) entriesOffset;
+    entry = 0;
+    for (String[] keys : sectionKeys) {
+      for (String key : keys) {
+        buffer.putInt(position, key.hashCode());
+        buffer.putInt(position + SnapshotFormat.ENTRY_KEY_OFFSET, keyIds[entry]);
+        buffer.put(position + SnapshotFormat.ENTRY_TAG_OFFSET, tags[entry]);
+        long payload = tags[entry] == SnapshotFormat.TAG_ARRAY ? arrayOffsets[(int) payloads[entry]] : payloads[entry];
+        buffer.putLong(position + SnapshotFormat.ENTRY_PAYLOAD_OFFSET, payload);
+        position += ENTRY_SIZE;
+        entry++;
+      }
+    }
+
+    position = (int) overridesOffset;
+    buffer.putInt(position, overrideIds.length);
+    for (int i = 0; i < overrideIds.length; i++) {
+      buffer.putInt(position + 4 + 4 * i, overrideIds[i]);
+    }
+
+    buffer.putLong(SnapshotFormat.CHECKSUM_OFFSET, SnapshotFormat.checksum(buffer, HEADER_SIZE, (int) length));
+    return buffer;
+  }
+
+  // arrays are referenced by their index here, which is replaced by their offset once the layout is known.
+  private static long payload(ValueType valueType, ConfigValue value, StringTable strings, List<int[]> arrays) {
+    switch (valueType) {
+    case INT:
+      return ((IntValue) value).getInt();
+    case LONG:
+      return ((LongValue) value).getLong();
+    case BOOLEAN:
+      return ((BooleanValue) value).getBoolean() ? 1 : 0;
+    case STRING:
+      return strings.id(((StringValue) value).getValue());
+    default:
+      String[] elements = ((ArrayValue) value).getValue();
+      int[] ids = new int[elements.length];
+      for (int i = 0; i < elements.length; i++) {
+        ids[i] = strings.id(elements[i]);
+      }
+      arrays.add(ids);
+      return arrays.size() - 1;
+    }
+  }
+
+  // Every distinct String is stored once, section names, keys and values alike.
+  private static final class StringTable {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<byte[]> encoded = new ArrayList<>();
+    private long byteCount;
+
+    int id(String value) {
+      Integer id = ids.get(value);
+      if (id == null) {
+        id = encoded.size();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        encoded.add(bytes);
+        byteCount += bytes.length;
+        ids.put(value, id);
+      }
+      return id;
+    }
+
+    int size() {
+      return encoded.size();
+    }
+  }
+}
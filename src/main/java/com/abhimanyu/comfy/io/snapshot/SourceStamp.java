@@ -0,0 +1,63 @@
+package com.abhimanyu.comfy.io.snapshot;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+
+/**
+ * Identifies the content of the INI file a snapshot was compiled from, by its size, modification time and CRC32. A
+ * snapshot is up to date when the size matches and either the modification time or, for a file that was touched but
+ * not changed, the checksum matches.
+ */
+public final class SourceStamp {
+  // for snapshots of a config that was not loaded from a file, they are never up to date.
+  public static final SourceStamp NONE = new SourceStamp(-1, 0, 0);
+
+  private final long size;
+  private final long lastModified;
+  private final long checksum;
+
+  SourceStamp(long size, long lastModified, long checksum) {
+    this.size = size;
+    this.lastModified = lastModified;
+    this.checksum = checksum;
+  }
+
+  // Take the stamp before loading the file, so that a change during the load makes the snapshot stale.
+  public static SourceStamp of(Path source) {
+    try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+      long lastModified = Files.getLastModifiedTime(source).toMillis();
+      return new SourceStamp(channel.size(), lastModified, SnapshotFormat.checksum(channel));
+    } catch (IOException e) {
+      throw new ComfyException(String.format("Failed to find file on path: %s", source.toAbsolutePath()), e);
+    }
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  public long getChecksum() {
+    return checksum;
+  }
+
+  boolean matches(Path source) throws IOException {
+    if (size < 0 || !Files.isRegularFile(source) || Files.size(source) != size) {
+      return false;
+    }
+    if (Files.getLastModifiedTime(source).toMillis() == lastModified) {
+      return true;
+    }
+    try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+      return SnapshotFormat.checksum(channel) == checksum;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.abhimanyu.comfy.metrics;
+
+/**
+ * Receives the statistics of every config load. Install one with {@code Comfy.setMetrics}, or on a reader with
+ * {@code setMetrics}. {@link JmxComfyMetrics} keeps the last loads and exposes them over JMX.
+ *
+ * Loads are timed line by line, which costs a few System.nanoTime() calls per line. Without a listener nothing is timed
+ * or counted.
+ */
+@FunctionalInterface
+public interface ComfyMetrics {
+
+  // Called once at the end of each load that succeeded, on the thread that loaded.
+  void onLoad(LoadStats stats);
+}
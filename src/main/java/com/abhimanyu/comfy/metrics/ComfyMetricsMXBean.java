@@ -0,0 +1,19 @@
+package com.abhimanyu.comfy.metrics;
+
+import java.util.List;
+
+public interface ComfyMetricsMXBean {
+
+  // loads seen since the bean was created, including those no longer kept.
+  long getLoadCount();
+
+  int getCapacity();
+
+  // the last loads, oldest first.
+  List<LoadStats> getLastLoads();
+
+  // the last loads as readable lines, for consoles that do not expand composite data.
+  List<String> getLastLoadSummaries();
+
+  void clear();
+}
@@ -0,0 +1,101 @@
+package com.abhimanyu.comfy.metrics;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+
+/**
+ * Keeps the statistics of the last loads and registers itself in the platform MBean server as
+ * {@code com.abhimanyu.comfy:type=ComfyMetrics,name=<name>}. Loads can be recorded from any thread.
+ */
+public class JmxComfyMetrics implements ComfyMetrics, ComfyMetricsMXBean, Closeable {
+  public static final int DEFAULT_CAPACITY = 32;
+
+  private final int capacity;
+  private final Deque<LoadStats> lastLoads;
+  private final ObjectName objectName;
+  private long loadCount;
+
+  public JmxComfyMetrics() {
+    this("default", DEFAULT_CAPACITY);
+  }
+
+  public JmxComfyMetrics(String name, int capacity) {
+    if (capacity < 1) {
+      throw new ComfyException(String.format("Capacity must be at least 1, found: %d", capacity));
+    }
+    this.capacity = capacity;
+    this.lastLoads = new ArrayDeque<>(capacity);
+    try {
+      objectName = new ObjectName(String.format("com.abhimanyu.comfy:type=ComfyMetrics,name=%s", name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    } catch (JMException e) {
+      throw new ComfyException(String.format("Failed to register the metrics MBean: %s", name), e);
+    }
+  }
+
+  @Override
+  public synchronized void onLoad(LoadStats stats) {
+    if (lastLoads.size() == capacity) {
+      lastLoads.removeFirst();
+    }
+    lastLoads.addLast(stats);
+    loadCount++;
+  }
+
+  @Override
+  public synchronized long getLoadCount() {
+    return loadCount;
+  }
+
+  @Override
+  public int getCapacity() {
+    return capacity;
+  }
+
+  @Override
+  public synchronized List<LoadStats> getLastLoads() {
+    return new ArrayList<>(lastLoads);
+  }
+
+  @Override
+  public synchronized List<String> getLastLoadSummaries() {
+    List<String> summaries = new ArrayList<>(lastLoads.size());
+    for (LoadStats stats : lastLoads) {
+      summaries.add(stats.toString());
+    }
+    return summaries;
+  }
+
+  @Override
+  public synchronized void clear() {
+    lastLoads.clear();
+    loadCount = 0;
+  }
+
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+
+  // Unregisters the MBean.
+  @Override
+  public void close() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(objectName)) {
+        server.unregisterMBean(objectName);
+      }
+    } catch (JMException e) {
+      throw new ComfyException(String.format("Failed to unregister the metrics MBean: %s", objectName), e);
+    }
+  }
+}
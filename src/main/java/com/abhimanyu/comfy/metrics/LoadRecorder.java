@@ -0,0 +1,179 @@
+package com.abhimanyu.comfy.metrics;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfySection;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.ValueType;
+
+/**
+ * Collects the statistics of one load for readers. A recorder without a listener does nothing, so readers call it
+ * unconditionally. The time methods take the time a phase started and return the current time, so consecutive phases
+ * of a line share their System.nanoTime() calls.
+ *
+ * A recorder belongs to a single load and must not be shared between threads. A load that is parsed on several threads
+ * gives each thread a {@link #part()} and adds the parts to the recorder of the load once they are done.
+ */
+public final class LoadRecorder {
+  private static final LoadRecorder DISABLED = new LoadRecorder(null, null);
+
+  private final ComfyMetrics metrics;
+  private final String source;
+  private final boolean enabled;
+  private final long startMillis;
+  private final long startNanos;
+
+  private long tokenizeNanos;
+  private long classifyNanos;
+  private long buildNanos;
+  private long bytesRead;
+  private long sectionLines;
+  private long propertyLines;
+  private long selectedOverrideLines;
+  private long skippedOverrideLines;
+  private long commentLines;
+  private long deduplicated;
+  private long deduplicatedBytes;
+  private final long[] valueCounts = new long[ValueType.values().length];
+
+  private LoadRecorder(ComfyMetrics metrics, String source) {
+    this.metrics = metrics;
+    this.source = source;
+    this.enabled = metrics != null;
+    this.startMillis = enabled ? System.currentTimeMillis() : 0;
+    this.startNanos = enabled ? System.nanoTime() : 0;
+  }
+
+  // metrics may be null, then nothing is recorded.
+  public static LoadRecorder start(ComfyMetrics metrics, String source) {
+    return metrics == null ? DISABLED : new LoadRecorder(metrics, source);
+  }
+
+  // A recorder for a part of this load parsed on another thread. Parts are added with add and never finished.
+  public LoadRecorder part() {
+    return enabled ? new LoadRecorder(metrics, source) : DISABLED;
+  }
+
+  // Adds the counts and times of part. Times of parts that ran in parallel add up to more than the time of the load.
+  public void add(LoadRecorder part) {
+    if (!enabled || part == this) {
+      return;
+    }
+    tokenizeNanos += part.tokenizeNanos;
+    classifyNanos += part.classifyNanos;
+    buildNanos += part.buildNanos;
+    bytesRead += part.bytesRead;
+    sectionLines += part.sectionLines;
+    propertyLines += part.propertyLines;
+    selectedOverrideLines += part.selectedOverrideLines;
+    skippedOverrideLines += part.skippedOverrideLines;
+    commentLines += part.commentLines;
+    deduplicated += part.deduplicated;
+    deduplicatedBytes += part.deduplicatedBytes;
+    for (int i = 0; i < valueCounts.length; i++) {
+      valueCounts[i] += part.valueCounts[i];
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long now() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  public long tokenized(long since) {
+    if (!enabled) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    tokenizeNanos += now - since;
+    return now;
+  }
+
+  public long classified(long since) {
+    if (!enabled) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    classifyNanos += now - since;
+    return now;
+  }
+
+  public long built(long since) {
+    if (!enabled) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    buildNanos += now - since;
+    return now;
+  }
+
+  public void bytesRead(long bytes) {
+    if (enabled) {
+      bytesRead += bytes;
+    }
+  }
+
+  public void sectionLine() {
+    if (enabled) {
+      sectionLines++;
+    }
+  }
+
+  public void propertyLine(ConfigValue<?> value) {
+    if (enabled) {
+      propertyLines++;
+      valueCounts[ValueType.of(value).ordinal()]++;
+    }
+  }
+
+  public void selectedOverrideLine(ConfigValue<?> value) {
+    if (enabled) {
+      selectedOverrideLines++;
+      valueCounts[ValueType.of(value).ordinal()]++;
+    }
+  }
+
+  public void skippedOverrideLine() {
+    if (enabled) {
+      skippedOverrideLines++;
+    }
+  }
+
+  // comment lines and empty lines.
+  public void commentLine() {
+    if (enabled) {
+      commentLines++;
+    }
+  }
+
+  // see StringPool.getDeduplicated and getSavedBytes.
+  public void deduplicated(long count, long bytes) {
+    if (enabled) {
+      deduplicated += count;
+      deduplicatedBytes += bytes;
+    }
+  }
+
+  // Ends the load of config and passes its statistics to the listener.
+  public void finish(ComfyConfig config) {
+    if (!enabled) {
+      return;
+    }
+    long buildStart = System.nanoTime();
+    int peakSectionSize = 0;
+    for (String name : config.sectionNames()) {
+      ComfySection section = config.get(name);
+      peakSectionSize = Math.max(peakSectionSize, section.size());
+    }
+    long end = System.nanoTime();
+    buildNanos += end - buildStart;
+    long totalNanos = end - startNanos;
+    long readNanos = Math.max(0, totalNanos - tokenizeNanos - classifyNanos - buildNanos);
+
+    metrics.onLoad(new LoadStats(source, startMillis, totalNanos, readNanos, tokenizeNanos, classifyNanos, buildNanos,
+        bytesRead, sectionLines, propertyLines, selectedOverrideLines, skippedOverrideLines, commentLines,
+        valueCounts.clone(), deduplicated, deduplicatedBytes, config.size(), peakSectionSize));
+  }
+}
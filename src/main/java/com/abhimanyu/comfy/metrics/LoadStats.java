@@ -0,0 +1,163 @@
+package com.abhimanyu.comfy.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.abhimanyu.comfy.value.ValueType;
+
+/**
+ * Statistics of one config load. The phases split the total time: tokenize covers splitting lines into section, key,
+ * override and value, classify the conversion of values by the PropertyProcessor, build adding them to the config.
+ * Read is the remainder, reading the input and finding line breaks.
+ */
+public final class LoadStats {
+  private final String source;
+  private final long startTime;
+  private final long totalNanos;
+  private final long readNanos;
+  private final long tokenizeNanos;
+  private final long classifyNanos;
+  private final long buildNanos;
+  private final long bytesRead;
+  private final long sectionLines;
+  private final long propertyLines;
+  private final long selectedOverrideLines;
+  private final long skippedOverrideLines;
+  private final long commentLines;
+  private final long[] valueCounts;
+  private final long deduplicated;
+  private final long deduplicatedBytes;
+  private final int sectionCount;
+  private final int peakSectionSize;
+
+  LoadStats(String source, long startTime, long totalNanos, long readNanos, long tokenizeNanos, long classifyNanos,
+      long buildNanos, long bytesRead, long sectionLines, long propertyLines, long selectedOverrideLines,
+      long skippedOverrideLines, long commentLines, long[] valueCounts, long deduplicated, long deduplicatedBytes,
+      int sectionCount, int peakSectionSize) {
+    this.source = source;
+    this.startTime = startTime;
+    this.totalNanos = totalNanos;
+    this.readNanos = readNanos;
+    this.tokenizeNanos = tokenizeNanos;
+    this.classifyNanos = classifyNanos;
+    this.buildNanos = buildNanos;
+    this.bytesRead = bytesRead;
+    this.sectionLines = sectionLines;
+    this.propertyLines = propertyLines;
+    this.selectedOverrideLines = selectedOverrideLines;
+    this.skippedOverrideLines = skippedOverrideLines;
+    this.commentLines = commentLines;
+    this.valueCounts = valueCounts;
+    this.deduplicated = deduplicated;
+    this.deduplicatedBytes = deduplicatedBytes;
+    this.sectionCount = sectionCount;
+    this.peakSectionSize = peakSectionSize;
+  }
+
+  // the file that was loaded, or a description of the stream.
+  public String getSource() {
+    return source;
+  }
+
+  // when the load started, in milliseconds since the epoch.
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  public long getReadNanos() {
+    return readNanos;
+  }
+
+  public long getTokenizeNanos() {
+    return tokenizeNanos;
+  }
+
+  public long getClassifyNanos() {
+    return classifyNanos;
+  }
+
+  public long getBuildNanos() {
+    return buildNanos;
+  }
+
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  public long getSectionLines() {
+    return sectionLines;
+  }
+
+  public long getPropertyLines() {
+    return propertyLines;
+  }
+
+  public long getSelectedOverrideLines() {
+    return selectedOverrideLines;
+  }
+
+  public long getSkippedOverrideLines() {
+    return skippedOverrideLines;
+  }
+
+  // comment lines and empty lines.
+  public long getCommentLines() {
+    return commentLines;
+  }
+
+  public long getValueCount(ValueType valueType) {
+    return valueCounts[valueType.ordinal()];
+  }
+
+  // values created per ValueType, by name, leaving out types without values.
+  public Map<String, Long> getValueCounts() {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    for (ValueType valueType : ValueType.values()) {
+      if (valueCounts[valueType.ordinal()] > 0) {
+        counts.put(valueType.name(), valueCounts[valueType.ordinal()]);
+      }
+    }
+    return counts;
+  }
+
+  // Strings and values shared instead of created again, see StringPool.
+  public long getDeduplicated() {
+    return deduplicated;
+  }
+
+  // estimated heap bytes saved by sharing them.
+  public long getDeduplicatedBytes() {
+    return deduplicatedBytes;
+  }
+
+  public int getSectionCount() {
+    return sectionCount;
+  }
+
+  // the number of keys of the largest section.
+  public int getPeakSectionSize() {
+    return peakSectionSize;
+  }
+
+  @Override
+  public String toString() {
+    Map<ValueType, Long> values = new EnumMap<>(ValueType.class);
+    for (ValueType valueType : ValueType.values()) {
+      if (valueCounts[valueType.ordinal()] > 0) {
+        values.put(valueType, valueCounts[valueType.ordinal()]);
+      }
+    }
+    return String.format(
+        "%s: %d bytes in %d us (read %d, tokenize %d, classify %d, build %d), lines: %d sections, %d properties, "
+            + "%d selected overrides, %d skipped overrides, %d comments, values: %s, %d deduplicated saving %d bytes, "
+            + "%d sections, peak %d keys",
+        source, bytesRead, totalNanos / 1000, readNanos / 1000, tokenizeNanos / 1000, classifyNanos / 1000,
+        buildNanos / 1000, sectionLines, propertyLines, selectedOverrideLines, skippedOverrideLines, commentLines,
+        values, deduplicated, deduplicatedBytes, sectionCount, peakSectionSize);
+  }
+}
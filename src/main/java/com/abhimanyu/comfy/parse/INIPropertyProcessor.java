@@ -1,14 +1,5 @@
 package com.abhimanyu.comfy.parse;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,78 +8,163 @@ import com.abhimanyu.comfy.value.ArrayValue;
 import com.abhimanyu.comfy.value.BooleanValue;
 import com.abhimanyu.comfy.value.ConfigValue;
 import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.LongValue;
 import com.abhimanyu.comfy.value.StringValue;
 import com.abhimanyu.comfy.value.ValueType;
 
 public class INIPropertyProcessor implements PropertyProcessor {
   private static final Logger LOG = LoggerFactory.getLogger(INIPropertyProcessor.class);
 
-  private static final Set<String> BOOLEAN_TRUE_VALUES = Stream
-      .of("yes", "true", "1")
-      .collect(Collectors.toCollection(HashSet::new));
-
-  private static final Set<String> BOOLEAN_FALSE_VALUES = Stream
-      .of("no", "false", "0")
-      .collect(Collectors.toCollection(HashSet::new));
-
-  private static final String STRING_REGEX = "\"(.+)*\"";
-  private static final String TEXT_REGEX = "^\\S+$";
-  private static final String NUMBER_REGEX = "^-?\\d+$";
-  private static final String ARRAY_REGEX = "^[^,]+(,[^,]+)+$";
+  private static final String[] BOOLEAN_TRUE_VALUES = { "yes", "true" };
+  private static final String[] BOOLEAN_FALSE_VALUES = { "no", "false" };
 
-  private static final Pattern STRING_PATTERN = Pattern.compile(STRING_REGEX);
-  private static final Pattern TEXT_PATTERN = Pattern.compile(TEXT_REGEX);
-  private static final Pattern NUMBER_PATTERN = Pattern.compile(NUMBER_REGEX);
-  private static final Pattern ARRAY_PATTERN = Pattern.compile(ARRAY_REGEX);
+  @Override
+  public ConfigValue process(String property) {
+    return process(property, null);
+  }
 
+  // ints in the range of IntValue.of and booleans are shared instances, see StringPool.valueShared.
   @Override
-  public ConfigValue process(String value) {
-    if (value == null || value.trim().isEmpty()) {
-      throw new ComfyException(String.format("Found null or empty value: %s", value));
+  public ConfigValue process(String property, StringPool stringPool) {
+    String value = property == null ? null : property.trim();
+    if (value == null || value.isEmpty()) {
+      throw new ComfyException(String.format("Found null or empty value: %s", property));
     }
-    value = value.trim();
     ValueType valueType = detectValueType(value);
 
     switch (valueType) {
     case INT:
-      return new IntValue(Integer.valueOf(value));
+      long number = Long.parseLong(value);
+      if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+        if (stringPool != null && IntValue.isCached((int) number)) {
+          stringPool.valueShared();
+        }
+        return IntValue.of((int) number);
+      }
+      return new LongValue(number);
     case STRING:
       String actualString = value.substring(1, value.length() - 1);
-      return new StringValue(actualString);
-    case TEXT:
-      if (BOOLEAN_TRUE_VALUES.contains(value.toLowerCase())) {
-        return new BooleanValue(true);
-      } else if (BOOLEAN_FALSE_VALUES.contains(value.toLowerCase())) {
-        return new BooleanValue(false);
-      } else {
-        return new StringValue(value);
+      return new StringValue(share(actualString, stringPool));
+    case BOOLEAN:
+      if (stringPool != null) {
+        stringPool.valueShared();
       }
+      return BooleanValue.of(matchesAny(value, BOOLEAN_TRUE_VALUES));
+    case TEXT:
+      return new StringValue(share(value, stringPool));
     case ARRAY:
-      String[] values = value.split(",");
-      List<String> trimmedValues = Arrays.stream(values).map(x -> x.trim()).collect(Collectors.toList());
-      return new ArrayValue(trimmedValues.toArray(new String[trimmedValues.size()]));
+      String[] elements = splitArray(value);
+      for (int i = 0; i < elements.length; i++) {
+        elements[i] = share(elements[i], stringPool);
+      }
+      return new ArrayValue(elements);
     default:
       throw new ComfyException(String.format("Value type not supported: %s", value));
     }
   }
 
+  private static String share(String value, StringPool stringPool) {
+    return stringPool == null ? value : stringPool.intern(value);
+  }
+
+  // Classifies a trimmed value in one pass. The rules are the ones of the former regular expressions, tried in the
+  // same order: -?\d+ (INT), "(.+)*" (STRING), [^,]+(,[^,]+)+ (ARRAY) and \S+ (TEXT, or BOOLEAN for the known words).
   private ValueType detectValueType(String value) {
-    Matcher stringMatcher = STRING_PATTERN.matcher(value);
-    Matcher numberMatcher = NUMBER_PATTERN.matcher(value);
-    Matcher arrayMatcher = ARRAY_PATTERN.matcher(value);
-    Matcher textMatcher = TEXT_PATTERN.matcher(value);
+    int length = value.length();
+    boolean number = length > (value.charAt(0) == '-' ? 1 : 0);
+    boolean whitespace = false;
+    boolean lineTerminator = false;
+    boolean emptySegment = false;
+    int commas = 0;
+    int segmentLength = 0;
+
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if ((c < '0' || c > '9') && !(i == 0 && c == '-')) {
+        number = false;
+      }
+      if (c == ',') {
+        emptySegment |= segmentLength == 0;
+        commas++;
+        segmentLength = 0;
+      } else {
+        segmentLength++;
+      }
+      if (c == ' ' || c == '\t' || c == '\u000B' || c == '\f') {
+        whitespace = true;
+      } else if (c == '\n' || c == '\r') {
+        whitespace = true;
+        lineTerminator = true;
+      } else if (c == '\u0085' || c == '\u2028' || c == '\u2029') {
+        lineTerminator = true;
+      }
+    }
+    emptySegment |= segmentLength == 0;
 
-    if (numberMatcher.matches()) {
+    if (number) {
       return ValueType.INT;
-    } else if (stringMatcher.matches()) {
+    } else if (length >= 2 && value.charAt(0) == '"' && value.charAt(length - 1) == '"' && !lineTerminator) {
       return ValueType.STRING;
-    } else if (arrayMatcher.matches()) {
+    } else if (commas > 0 && !emptySegment) {
       return ValueType.ARRAY;
-    } else if (textMatcher.matches()) {
+    } else if (!whitespace) {
+      if (matchesAny(value, BOOLEAN_TRUE_VALUES) || matchesAny(value, BOOLEAN_FALSE_VALUES)) {
+        return ValueType.BOOLEAN;
+      }
       return ValueType.TEXT;
     }
 
     return ValueType.NOT_SUPPORTED;
   }
 
+  private static String[] splitArray(String value) {
+    int count = 1;
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) == ',') {
+        count++;
+      }
+    }
+
+    String[] values = new String[count];
+    int segmentStart = 0;
+    for (int i = 0; i < count; i++) {
+      int segmentEnd = value.indexOf(',', segmentStart);
+      if (segmentEnd < 0) {
+        segmentEnd = value.length();
+      }
+      int start = segmentStart;
+      int end = segmentEnd;
+      while (start < end && value.charAt(start) <= ' ') {
+        start++;
+      }
+      while (end > start && value.charAt(end - 1) <= ' ') {
+        end--;
+      }
+      values[i] = value.substring(start, end);
+      segmentStart = segmentEnd + 1;
+    }
+    return values;
+  }
+
+  // Compares ASCII letters case-insensitively without lower casing the value into a new String.
+  private static boolean matchesAny(String value, String[] words) {
+    for (String word : words) {
+      if (value.length() != word.length()) {
+        continue;
+      }
+      boolean matches = true;
+      for (int i = 0; i < word.length() && matches; i++) {
+        char c = value.charAt(i);
+        if (c >= 'A' && c <= 'Z') {
+          c = (char) (c + ('a' - 'A'));
+        }
+        matches = c == word.charAt(i);
+      }
+      if (matches) {
+        return true;
+      }
+    }
+    return false;
+  }
+
 }
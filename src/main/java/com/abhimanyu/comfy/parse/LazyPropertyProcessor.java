@@ -0,0 +1,20 @@
+package com.abhimanyu.comfy.parse;
+
+import java.util.function.Function;
+
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.LazyValue;
+
+// Defers the work of another PropertyProcessor until a value is read, see LazyValue.
+public class LazyPropertyProcessor implements PropertyProcessor {
+  private final Function<String, ConfigValue<?>> converter;
+
+  public LazyPropertyProcessor(PropertyProcessor propertyProcessor) {
+    this.converter = propertyProcessor::process;
+  }
+
+  @Override
+  public ConfigValue<?> process(String property) {
+    return new LazyValue(property, converter);
+  }
+}
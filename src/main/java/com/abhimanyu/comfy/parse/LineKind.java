@@ -0,0 +1,9 @@
+package com.abhimanyu.comfy.parse;
+
+public enum LineKind {
+  EMPTY,
+  COMMENT,
+  SECTION,
+  PROPERTY,
+  OVERRIDE
+}
@@ -2,4 +2,10 @@ package com.abhimanyu.comfy.parse;
 
 public interface LineParser {
   public LineTokens parse(String line);
+
+  // Returns true when the line has an override that the selector does not select, so the caller can drop it without
+  // parsing it. Parsers that cannot tell cheaply return false and the line goes through parse as usual.
+  public default boolean isUnselectedOverride(String line, OverrideSelector selector) {
+    return false;
+  }
 }
@@ -0,0 +1,95 @@
+package com.abhimanyu.comfy.parse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The overrides selected for a load, in priority order: when several selected overrides set the same key, the value of
+ * the one that comes first wins, wherever its line is in the file. Lines without override come after all overrides.
+ * Besides plain Strings it can match an override directly inside a line, as characters or as UTF-8 bytes, so that
+ * lines with an override that is not selected can be dropped before anything is allocated for them. Override sets are
+ * small, so a linear scan beats hashing the candidate.
+ */
+public class OverrideSelector {
+  private final String[] overrides;
+  private final byte[][] encodedOverrides;
+  private final boolean selectsAll;
+
+  public OverrideSelector(String[] overrides) {
+    this(overrides, false);
+  }
+
+  private OverrideSelector(String[] overrides, boolean selectsAll) {
+    this.overrides = overrides.clone();
+    this.encodedOverrides = new byte[overrides.length][];
+    for (int i = 0; i < overrides.length; i++) {
+      encodedOverrides[i] = overrides[i].getBytes(StandardCharsets.UTF_8);
+    }
+    this.selectsAll = selectsAll;
+  }
+
+  // Selects every override with the same precedence, for reading all the variants of a file, see OverrideTable.
+  public static OverrideSelector all() {
+    return new OverrideSelector(new String[0], true);
+  }
+
+  public boolean isSelected(String override) {
+    return precedence(override) >= 0;
+  }
+
+  public boolean isSelected(String line, int start, int end) {
+    return precedence(line, start, end) >= 0;
+  }
+
+  public boolean isSelected(ByteBuffer buffer, int start, int end) {
+    return precedence(buffer, start, end) >= 0;
+  }
+
+  // The position of override in the priority order, 0 winning over all others, or -1 if it is not selected.
+  public int precedence(String override) {
+    if (selectsAll) {
+      return 0;
+    }
+    for (int i = 0; i < overrides.length; i++) {
+      if (overrides[i].equals(override)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public int precedence(String line, int start, int end) {
+    if (selectsAll) {
+      return 0;
+    }
+    int length = end - start;
+    for (int i = 0; i < overrides.length; i++) {
+      if (overrides[i].length() == length && line.regionMatches(start, overrides[i], 0, length)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public int precedence(ByteBuffer buffer, int start, int end) {
+    if (selectsAll) {
+      return 0;
+    }
+    int length = end - start;
+    for (int i = 0; i < encodedOverrides.length; i++) {
+      if (encodedOverrides[i].length == length && bytesMatch(buffer, start, encodedOverrides[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean bytesMatch(ByteBuffer buffer, int start, byte[] selected) {
+    for (int i = 0; i < selected.length; i++) {
+      if (buffer.get(start + i) != selected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -4,4 +4,9 @@ import com.abhimanyu.comfy.value.ConfigValue;
 
 public interface PropertyProcessor {
   ConfigValue process(String property);
+
+  // Like process, sharing the Strings of the value through the pool of the load.
+  default ConfigValue process(String property, StringPool stringPool) {
+    return process(property);
+  }
 }
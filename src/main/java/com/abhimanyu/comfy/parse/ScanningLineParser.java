@@ -0,0 +1,174 @@
+package com.abhimanyu.comfy.parse;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+
+/**
+ * A {@link LineParser} that tokenizes a line in a single pass over its characters, without regular expressions or
+ * intermediate arrays. It accepts exactly the same lines as {@link FilteringLineParser} and produces the same
+ * {@link LineTokens}.
+ *
+ * Token boundaries of the last scanned line are kept in instance fields, so an instance must not be shared between
+ * threads. They also let {@link #parse(String)} reuse the scan done by {@link #isUnselectedOverride} for the same line.
+ */
+public class ScanningLineParser implements LineParser {
+  private String scannedLine;
+  private LineKind scannedKind;
+  private int sectionStart;
+  private int sectionEnd;
+  private int keyStart;
+  private int keyEnd;
+  private int valueStart;
+  private int valueEnd;
+  private int overrideStart;
+  private int overrideEnd;
+
+  @Override
+  public boolean isUnselectedOverride(String line, OverrideSelector selector) {
+    return scan(line) == LineKind.OVERRIDE && !selector.isSelected(line, overrideStart, overrideEnd);
+  }
+
+  @Override
+  public LineTokens parse(String line) {
+    LineKind kind = line != null && line == scannedLine ? scannedKind : scan(line);
+    switch (kind) {
+    case SECTION:
+      return new LineTokens(line.substring(sectionStart, sectionEnd), null, null, null);
+    case PROPERTY:
+      return new LineTokens(null, line.substring(keyStart, keyEnd), line.substring(valueStart, valueEnd), null);
+    case OVERRIDE:
+      return new LineTokens(null, line.substring(keyStart, keyEnd), line.substring(valueStart, valueEnd),
+          line.substring(overrideStart, overrideEnd));
+    default:
+      return null;
+    }
+  }
+
+  LineKind scan(String line) {
+    if (line == null) {
+      return LineKind.EMPTY;
+    }
+    scannedLine = null;
+    scannedKind = doScan(line);
+    scannedLine = line;
+    return scannedKind;
+  }
+
+  private LineKind doScan(String line) {
+    int length = line.length();
+    int start = 0;
+    while (start < length && line.charAt(start) <= ' ') {
+      start++;
+    }
+    if (start == length) {
+      return LineKind.EMPTY;
+    }
+    int end = length;
+    while (line.charAt(end - 1) <= ' ') {
+      end--;
+    }
+
+    int cut = end;
+    int firstAngle = -1;
+    int lastNonSpace = -1;
+    int propertyEquals = -1;
+    int previousPropertyEquals = -1;
+    int overrideEquals = -1;
+    int overrideClose = -1;
+    int previousOverrideEquals = -1;
+    int previousOverrideClose = -1;
+
+    for (int i = start; i < end; i++) {
+      char c = line.charAt(i);
+      if (c == ';') {
+        cut = i;
+        break;
+      }
+      if (c == '=') {
+        if (firstAngle < 0) {
+          previousPropertyEquals = propertyEquals;
+          propertyEquals = i;
+        } else if (line.charAt(firstAngle) == '<' && lastNonSpace >= firstAngle + 2
+            && line.charAt(lastNonSpace) == '>') {
+          previousOverrideEquals = overrideEquals;
+          previousOverrideClose = overrideClose;
+          overrideEquals = i;
+          overrideClose = lastNonSpace;
+        }
+      } else if (firstAngle < 0 && (c == '<' || c == '>')) {
+        firstAngle = i;
+      }
+      if (!isWhitespace(c)) {
+        lastNonSpace = i;
+      }
+    }
+
+    if (cut == start) {
+      return LineKind.COMMENT;
+    }
+
+    // the value has to be at least one character long, which only the last '=' of the line can violate.
+    if (propertyEquals == cut - 1) {
+      propertyEquals = previousPropertyEquals;
+    }
+    if (propertyEquals > start) {
+      keyStart = start;
+      keyEnd = trimEnd(line, start, propertyEquals);
+      valueStart = trimStart(line, propertyEquals + 1, cut);
+      valueEnd = trimEnd(line, valueStart, cut);
+      return LineKind.PROPERTY;
+    }
+
+    if (overrideEquals == cut - 1) {
+      overrideEquals = previousOverrideEquals;
+      overrideClose = previousOverrideClose;
+    }
+    if (overrideEquals > start && firstAngle > start) {
+      keyStart = start;
+      keyEnd = trimEnd(line, start, firstAngle);
+      overrideStart = trimStart(line, firstAngle + 1, overrideClose);
+      overrideEnd = trimEnd(line, overrideStart, overrideClose);
+      valueStart = trimStart(line, overrideEquals + 1, cut);
+      valueEnd = trimEnd(line, valueStart, cut);
+      return LineKind.OVERRIDE;
+    }
+
+    if (isSection(line, start, cut)) {
+      sectionStart = start + 1;
+      sectionEnd = cut - 1;
+      return LineKind.SECTION;
+    }
+
+    throw new ComfyException(String.format("Encountered an invalid line: %s", line.substring(start, cut)));
+  }
+
+  private static boolean isSection(String line, int start, int end) {
+    if (end - start < 3 || line.charAt(start) != '[' || line.charAt(end - 1) != ']') {
+      return false;
+    }
+    for (int i = start + 1; i < end - 1; i++) {
+      char c = line.charAt(i);
+      if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int trimStart(String line, int start, int end) {
+    while (start < end && line.charAt(start) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  private static int trimEnd(String line, int start, int end) {
+    while (end > start && line.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+}
@@ -0,0 +1,154 @@
+package com.abhimanyu.comfy.parse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Deduplicates the Strings of one load, so that a key, section name or value that occurs many times in a file is kept
+ * once. Tokens can be looked up directly as bytes: an ASCII token that was seen before is returned without decoding
+ * it. The pool also counts the bytes that deduplication saved, for the load metrics.
+ *
+ * A pool keeps every distinct String of a load, so it should not outlive the load. It must not be shared between
+ * threads.
+ */
+public class StringPool {
+  private static final int INITIAL_CAPACITY = 256;
+  // an IntValue or BooleanValue object: header and one field.
+  private static final long VALUE_SIZE = 16;
+
+  private String[] strings = new String[INITIAL_CAPACITY];
+  private int[] hashes = new int[INITIAL_CAPACITY];
+  private byte[] scratch = new byte[128];
+  private int size;
+  private long deduplicated;
+  private long savedBytes;
+
+  public String intern(String value) {
+    int hash = value.hashCode();
+    int mask = strings.length - 1;
+    int slot = spread(hash) & mask;
+    String existing;
+    while ((existing = strings[slot]) != null) {
+      if (existing == value) {
+        // a String that came from this pool before, nothing was saved this time.
+        return existing;
+      }
+      if (hashes[slot] == hash && existing.equals(value)) {
+        return hit(existing);
+      }
+      slot = (slot + 1) & mask;
+    }
+    return add(slot, hash, value);
+  }
+
+  // The String of the UTF-8 bytes in [start, end) of buffer.
+  public String intern(ByteBuffer buffer, int start, int end) {
+    // String.hashCode() can be computed from bytes only while every char is a single byte.
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      byte b = buffer.get(i);
+      if (b < 0) {
+        return intern(decode(buffer, start, end));
+      }
+      hash = 31 * hash + b;
+    }
+
+    int mask = strings.length - 1;
+    int slot = spread(hash) & mask;
+    String existing;
+    while ((existing = strings[slot]) != null) {
+      if (hashes[slot] == hash && asciiEquals(existing, buffer, start, end)) {
+        return hit(existing);
+      }
+      slot = (slot + 1) & mask;
+    }
+    return add(slot, hash, decode(buffer, start, end));
+  }
+
+  // Called for every converted value that is a shared canonical instance instead of a new object.
+  public void valueShared() {
+    deduplicated++;
+    savedBytes += VALUE_SIZE;
+  }
+
+  // Strings and values that were not created again because an equal one was shared.
+  public long getDeduplicated() {
+    return deduplicated;
+  }
+
+  // Estimated heap bytes saved, counting a String as a Latin-1 String object with its byte array.
+  public long getSavedBytes() {
+    return savedBytes;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private String hit(String existing) {
+    deduplicated++;
+    savedBytes += 24 + align(16 + existing.length());
+    return existing;
+  }
+
+  private String add(int slot, int hash, String value) {
+    strings[slot] = value;
+    hashes[slot] = hash;
+    if (++size * 2 > strings.length) {
+      grow();
+    }
+    return value;
+  }
+
+  private void grow() {
+    String[] oldStrings = strings;
+    int[] oldHashes = hashes;
+    strings = new String[oldStrings.length * 2];
+    hashes = new int[oldStrings.length * 2];
+    int mask = strings.length - 1;
+    for (int i = 0; i < oldStrings.length; i++) {
+      if (oldStrings[i] != null) {
+        int slot = spread(oldHashes[i]) & mask;
+        while (strings[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        strings[slot] = oldStrings[i];
+        hashes[slot] = oldHashes[i];
+      }
+    }
+  }
+
+  private static boolean asciiEquals(String value, ByteBuffer buffer, int start, int end) {
+    if (value.length() != end - start) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) != buffer.get(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String decode(ByteBuffer buffer, int start, int end) {
+    int length = end - start;
+    if (buffer.hasArray()) {
+      return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+    }
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    for (int i = 0; i < length; i++) {
+      scratch[i] = buffer.get(start + i);
+    }
+    return new String(scratch, 0, length, StandardCharsets.UTF_8);
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+}
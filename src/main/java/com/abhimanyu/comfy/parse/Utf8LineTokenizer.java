@@ -0,0 +1,219 @@
+package com.abhimanyu.comfy.parse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+
+/**
+ * Tokenizes lines of UTF-8 encoded bytes with the same rules as {@link ScanningLineParser}. All syntax characters are
+ * ASCII, which never occurs inside a multi-byte UTF-8 sequence, so lines are scanned byte by byte and Strings are
+ * only decoded when a token is asked for.
+ *
+ * Token boundaries of the last tokenized line are kept in instance fields, so an instance must not be shared between
+ * threads.
+ */
+public class Utf8LineTokenizer {
+  private ByteBuffer buffer;
+  private byte[] scratch = new byte[128];
+  private StringPool stringPool;
+
+  private int sectionStart;
+  private int sectionEnd;
+  private int keyStart;
+  private int keyEnd;
+  private int valueStart;
+  private int valueEnd;
+  private int overrideStart;
+  private int overrideEnd;
+
+  public void reset(ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  // Tokens are taken from stringPool from now on, or decoded every time when it is null.
+  public void setStringPool(StringPool stringPool) {
+    this.stringPool = stringPool;
+  }
+
+  public LineKind tokenize(int lineStart, int lineEnd) {
+    int start = lineStart;
+    while (start < lineEnd && isBlank(buffer.get(start))) {
+      start++;
+    }
+    if (start == lineEnd) {
+      return LineKind.EMPTY;
+    }
+    int end = lineEnd;
+    while (isBlank(buffer.get(end - 1))) {
+      end--;
+    }
+
+    int cut = end;
+    int firstAngle = -1;
+    int lastNonSpace = -1;
+    int propertyEquals = -1;
+    int previousPropertyEquals = -1;
+    int overrideEquals = -1;
+    int overrideClose = -1;
+    int previousOverrideEquals = -1;
+    int previousOverrideClose = -1;
+
+    for (int i = start; i < end; i++) {
+      byte b = buffer.get(i);
+      if (b == ';') {
+        cut = i;
+        break;
+      }
+      if (b == '=') {
+        if (firstAngle < 0) {
+          previousPropertyEquals = propertyEquals;
+          propertyEquals = i;
+        } else if (buffer.get(firstAngle) == '<' && lastNonSpace >= firstAngle + 2 && buffer.get(lastNonSpace) == '>') {
+          previousOverrideEquals = overrideEquals;
+          previousOverrideClose = overrideClose;
+          overrideEquals = i;
+          overrideClose = lastNonSpace;
+        }
+      } else if (firstAngle < 0 && (b == '<' || b == '>')) {
+        firstAngle = i;
+      }
+      if (!isWhitespace(b)) {
+        lastNonSpace = i;
+      }
+    }
+
+    if (cut == start) {
+      return LineKind.COMMENT;
+    }
+
+    if (propertyEquals == cut - 1) {
+      propertyEquals = previousPropertyEquals;
+    }
+    if (propertyEquals > start) {
+      keyStart = start;
+      keyEnd = trimEnd(start, propertyEquals);
+      valueStart = trimStart(propertyEquals + 1, cut);
+      valueEnd = trimEnd(valueStart, cut);
+      return LineKind.PROPERTY;
+    }
+
+    if (overrideEquals == cut - 1) {
+      overrideEquals = previousOverrideEquals;
+      overrideClose = previousOverrideClose;
+    }
+    if (overrideEquals > start && firstAngle > start) {
+      keyStart = start;
+      keyEnd = trimEnd(start, firstAngle);
+      overrideStart = trimStart(firstAngle + 1, overrideClose);
+      overrideEnd = trimEnd(overrideStart, overrideClose);
+      valueStart = trimStart(overrideEquals + 1, cut);
+      valueEnd = trimEnd(valueStart, cut);
+      return LineKind.OVERRIDE;
+    }
+
+    if (isSection(start, cut)) {
+      sectionStart = start + 1;
+      sectionEnd = cut - 1;
+      return LineKind.SECTION;
+    }
+
+    throw new ComfyException(String.format("Encountered an invalid line: %s", decode(start, cut)));
+  }
+
+  // A cheap check for [section] lines when only the section boundaries of a file are needed. An invalid line is not a
+  // section line here, it is reported by whoever parses it.
+  public boolean isSectionLine(int lineStart, int lineEnd) {
+    int i = lineStart;
+    while (i < lineEnd && isBlank(buffer.get(i))) {
+      i++;
+    }
+    if (i == lineEnd || buffer.get(i) != '[') {
+      return false;
+    }
+    try {
+      return tokenize(lineStart, lineEnd) == LineKind.SECTION;
+    } catch (ComfyException e) {
+      return false;
+    }
+  }
+
+  public String getSectionName() {
+    return token(sectionStart, sectionEnd);
+  }
+
+  public String getKey() {
+    return token(keyStart, keyEnd);
+  }
+
+  public String getValue() {
+    return token(valueStart, valueEnd);
+  }
+
+  public String getOverride() {
+    return token(overrideStart, overrideEnd);
+  }
+
+  public boolean isOverrideSelected(OverrideSelector selector) {
+    return selector.isSelected(buffer, overrideStart, overrideEnd);
+  }
+
+  // see OverrideSelector.precedence, -1 if the override of the line is not selected.
+  public int overridePrecedence(OverrideSelector selector) {
+    return selector.precedence(buffer, overrideStart, overrideEnd);
+  }
+
+  public String decode(int start, int end) {
+    int length = end - start;
+    if (buffer.hasArray()) {
+      return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+    }
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    for (int i = 0; i < length; i++) {
+      scratch[i] = buffer.get(start + i);
+    }
+    return new String(scratch, 0, length, StandardCharsets.UTF_8);
+  }
+
+  private String token(int start, int end) {
+    return stringPool == null ? decode(start, end) : stringPool.intern(buffer, start, end);
+  }
+
+  private boolean isSection(int start, int end) {
+    if (end - start < 3 || buffer.get(start) != '[' || buffer.get(end - 1) != ']') {
+      return false;
+    }
+    for (int i = start + 1; i < end - 1; i++) {
+      byte b = buffer.get(i);
+      if (!((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9'))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int trimStart(int start, int end) {
+    while (start < end && isBlank(buffer.get(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  private int trimEnd(int start, int end) {
+    while (end > start && isBlank(buffer.get(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  // the characters removed by String.trim(). Bytes of multi-byte sequences are negative and never blank.
+  private static boolean isBlank(byte b) {
+    return b >= 0 && b <= ' ';
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+  }
+}
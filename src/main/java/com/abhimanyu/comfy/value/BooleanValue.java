@@ -1,12 +1,23 @@
 package com.abhimanyu.comfy.value;
 
 public class BooleanValue implements ConfigValue<Boolean> {
-  private final Boolean value;
+  public static final BooleanValue TRUE = new BooleanValue(true);
+  public static final BooleanValue FALSE = new BooleanValue(false);
 
-  public BooleanValue(Boolean value) {
+  private final boolean value;
+
+  public BooleanValue(boolean value) {
     this.value = value;
   }
 
+  public static BooleanValue of(boolean value) {
+    return value ? TRUE : FALSE;
+  }
+
+  public boolean getBoolean() {
+    return value;
+  }
+
   @Override
   public Boolean getValue() {
     return value;
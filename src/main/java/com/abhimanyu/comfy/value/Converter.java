@@ -0,0 +1,15 @@
+package com.abhimanyu.comfy.value;
+
+/**
+ * Converts a loaded value to another type, eg. a Duration. {@link com.abhimanyu.comfy.config.ComfySection#getAs}
+ * keeps the result per key, so a converter must return the same result for the same value every time. Results are
+ * shared by every reader of the section, so they should be immutable.
+ *
+ * Results are kept per converter instance, or per equal converter: keep converters in constants, like the ones of
+ * {@link Converters}, rather than creating one per read.
+ */
+@FunctionalInterface
+public interface Converter<T> {
+
+  T convert(ConfigValue<?> value);
+}
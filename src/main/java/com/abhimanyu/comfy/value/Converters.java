@@ -0,0 +1,152 @@
+package com.abhimanyu.comfy.value;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+
+// Converters for the value types that configs commonly hold as text or numbers.
+public final class Converters {
+
+  // An int or long is a number of milliseconds. Text is a number with a unit of ms, s, m, h or d, eg. 30s, or an
+  // ISO-8601 duration, eg. PT30S.
+  public static final Converter<Duration> DURATION = Converters::toDuration;
+
+  public static final Converter<Path> PATH = value -> Paths.get(text(value, "Path"));
+
+  // An int or long is a number of bytes. Text is a number with a unit of B, KB, MB, GB or TB, in powers of 1024.
+  public static final Converter<Long> BYTE_SIZE = Converters::toByteSize;
+
+  // An array as an unmodifiable List, which, unlike the array itself, callers cannot change.
+  public static final Converter<List<String>> LIST = value -> {
+    if (!(value instanceof ArrayValue)) {
+      throw failed(value, "List");
+    }
+    return Collections.unmodifiableList(Arrays.asList(((ArrayValue) value).getValue().clone()));
+  };
+
+  private static final String[] SIZE_UNITS = { "B", "KB", "MB", "GB", "TB" };
+
+  private Converters() {
+  }
+
+  // Text is the name of a constant of type, in any case. Converters of the same type are equal, so their results are
+  // kept even when they are not kept in a constant.
+  public static <E extends Enum<E>> Converter<E> enumOf(Class<E> type) {
+    return new EnumConverter<>(type);
+  }
+
+  private static Duration toDuration(ConfigValue<?> value) {
+    if (value instanceof IntValue || value instanceof LongValue) {
+      return Duration.ofMillis(((Number) value.getValue()).longValue());
+    }
+    String text = text(value, "Duration").trim();
+    if (text.startsWith("P") || text.startsWith("p")) {
+      try {
+        return Duration.parse(text);
+      } catch (DateTimeParseException e) {
+        throw new ComfyException(String.format("Failed to convert %s to a Duration.", text), e);
+      }
+    }
+
+    int unitStart = unitStart(text);
+    String unit = text.substring(unitStart).trim().toLowerCase(Locale.ROOT);
+    long amount = amount(text, unitStart, "Duration");
+    switch (unit) {
+    case "ms":
+      return Duration.ofMillis(amount);
+    case "s":
+      return Duration.ofSeconds(amount);
+    case "m":
+      return Duration.ofMinutes(amount);
+    case "h":
+      return Duration.ofHours(amount);
+    case "d":
+      return Duration.ofDays(amount);
+    default:
+      throw new ComfyException(String.format("Failed to convert %s to a Duration.", text));
+    }
+  }
+
+  private static Long toByteSize(ConfigValue<?> value) {
+    if (value instanceof IntValue || value instanceof LongValue) {
+      return ((Number) value.getValue()).longValue();
+    }
+    String text = text(value, "byte size").trim();
+    int unitStart = unitStart(text);
+    String unit = text.substring(unitStart).trim().toUpperCase(Locale.ROOT);
+    long amount = amount(text, unitStart, "byte size");
+    for (int i = 0; i < SIZE_UNITS.length; i++) {
+      if (SIZE_UNITS[i].equals(unit)) {
+        if (amount > Long.MAX_VALUE >> (10 * i)) {
+          throw new ComfyException(String.format("Failed to convert %s to a byte size, it is too large.", text));
+        }
+        return amount << (10 * i);
+      }
+    }
+    throw new ComfyException(String.format("Failed to convert %s to a byte size.", text));
+  }
+
+  private static String text(ConfigValue<?> value, String type) {
+    if (!(value instanceof StringValue)) {
+      throw failed(value, type);
+    }
+    return ((StringValue) value).getValue();
+  }
+
+  private static int unitStart(String text) {
+    int i = 0;
+    while (i < text.length() && Character.isDigit(text.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static long amount(String text, int unitStart, String type) {
+    try {
+      return Long.parseLong(text.substring(0, unitStart));
+    } catch (NumberFormatException e) {
+      throw new ComfyException(String.format("Failed to convert %s to a %s.", text, type), e);
+    }
+  }
+
+  private static ComfyException failed(ConfigValue<?> value, String type) {
+    return new ComfyException(String.format("Failed to convert a %s to a %s.", ValueType.of(value), type));
+  }
+
+  private static final class EnumConverter<E extends Enum<E>> implements Converter<E> {
+    private final Class<E> type;
+
+    EnumConverter(Class<E> type) {
+      this.type = type;
+    }
+
+    @Override
+    public E convert(ConfigValue<?> value) {
+      String text = text(value, type.getSimpleName()).trim();
+      for (E constant : type.getEnumConstants()) {
+        if (constant.name().equalsIgnoreCase(text)) {
+          return constant;
+        }
+      }
+      throw new ComfyException(String.format("Failed to convert %s to a %s.", text, type.getSimpleName()));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof EnumConverter && ((EnumConverter<?>) other).type == type;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(type);
+    }
+  }
+}
@@ -1,12 +1,35 @@
 package com.abhimanyu.comfy.value;
 
 public class IntValue implements ConfigValue<Integer> {
-  private final Integer value;
+  private static final int CACHE_LOW = -128;
+  private static final int CACHE_HIGH = 1024;
+  private static final IntValue[] CACHE = new IntValue[CACHE_HIGH - CACHE_LOW + 1];
 
-  public IntValue(Integer value) {
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new IntValue(CACHE_LOW + i);
+    }
+  }
+
+  private final int value;
+
+  public IntValue(int value) {
     this.value = value;
   }
 
+  // A shared instance for values in [-128, 1024], which covers most counts, flags and small limits in configs.
+  public static IntValue of(int value) {
+    return isCached(value) ? CACHE[value - CACHE_LOW] : new IntValue(value);
+  }
+
+  public static boolean isCached(int value) {
+    return value >= CACHE_LOW && value <= CACHE_HIGH;
+  }
+
+  public int getInt() {
+    return value;
+  }
+
   @Override
   public Integer getValue() {
     return value;
@@ -0,0 +1,46 @@
+package com.abhimanyu.comfy.value;
+
+import java.util.function.Function;
+
+/**
+ * Holds the raw text of a value and converts it the first time it is read. The conversion runs at most once, under
+ * double-checked locking, and every later read is a single volatile load. A conversion that fails is not cached, so
+ * each read reports the same error.
+ */
+public class LazyValue implements ConfigValue<Object> {
+  private final String raw;
+  private final Function<String, ConfigValue<?>> converter;
+  private volatile ConfigValue<?> resolved;
+
+  public LazyValue(String raw, Function<String, ConfigValue<?>> converter) {
+    this.raw = raw;
+    this.converter = converter;
+  }
+
+  public ConfigValue<?> resolve() {
+    ConfigValue<?> value = resolved;
+    if (value == null) {
+      synchronized (this) {
+        value = resolved;
+        if (value == null) {
+          value = converter.apply(raw);
+          resolved = value;
+        }
+      }
+    }
+    return value;
+  }
+
+  public boolean isResolved() {
+    return resolved != null;
+  }
+
+  public String getRaw() {
+    return raw;
+  }
+
+  @Override
+  public Object getValue() {
+    return resolve().getValue();
+  }
+}
@@ -0,0 +1,18 @@
+package com.abhimanyu.comfy.value;
+
+public class LongValue implements ConfigValue<Long> {
+  private final long value;
+
+  public LongValue(long value) {
+    this.value = value;
+  }
+
+  public long getLong() {
+    return value;
+  }
+
+  @Override
+  public Long getValue() {
+    return value;
+  }
+}
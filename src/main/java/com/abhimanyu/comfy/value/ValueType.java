@@ -4,7 +4,27 @@ public enum ValueType {
   STRING,
   TEXT,
   INT,
+  LONG,
   BOOLEAN,
   ARRAY,
-  NOT_SUPPORTED
+  NOT_SUPPORTED;
+
+  // The type of a loaded value. A LazyValue that was not converted yet is still raw TEXT.
+  public static ValueType of(ConfigValue<?> configValue) {
+    if (configValue instanceof StringValue) {
+      return STRING;
+    } else if (configValue instanceof IntValue) {
+      return INT;
+    } else if (configValue instanceof LongValue) {
+      return LONG;
+    } else if (configValue instanceof BooleanValue) {
+      return BOOLEAN;
+    } else if (configValue instanceof ArrayValue) {
+      return ARRAY;
+    } else if (configValue instanceof LazyValue) {
+      LazyValue lazyValue = (LazyValue) configValue;
+      return lazyValue.isResolved() ? of(lazyValue.resolve()) : TEXT;
+    }
+    return NOT_SUPPORTED;
+  }
 }
@@ -0,0 +1,44 @@
+package com.abhimanyu.comfy;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+/*** Measures heap bytes allocated by the current thread, for allocation regression tests. */
+
+public final class Allocations {
+  private static final ThreadMXBean THREAD_MX_BEAN = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static volatile Object sink;
+
+  private Allocations() {
+  }
+
+  public static double bytesPerOperation(int operations, Operation operation) {
+    // run once untimed so that class loading and the first JIT compilations are not attributed to the operation.
+    for (int i = 0; i < operations; i++) {
+      sink = operation.run(i);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < operations; i++) {
+      sink = operation.run(i);
+    }
+    long after = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+    sink = null;
+    return (after - before) / (double) operations;
+  }
+
+  public static long bytesAllocated(Runnable task) {
+    long threadId = Thread.currentThread().getId();
+    long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+    task.run();
+    return THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - before;
+  }
+
+  @FunctionalInterface
+  public interface Operation {
+    Object run(int iteration);
+  }
+}
@@ -7,15 +7,30 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import com.abhimanyu.comfy.bind.Section;
 import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.OverrideTable;
 import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.ComfyHandler;
+import com.abhimanyu.comfy.io.LoadResult;
+import com.abhimanyu.comfy.metrics.LoadStats;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.ValueType;
 
 /*** Integration Test for Comfy */
 
@@ -53,7 +68,224 @@ public class ComfyTest {
     assertThat(config.get("ftp").getStringValue("lastname")).isNull();
     assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
     assertThat(config.get("ftp").getBooleanValue("enabled")).isEqualTo(false);
-    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/etc/var/uploads");
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+  }
+
+  @Test
+  public void loadFromPath() {
+    ComfyConfig config = Comfy.loadConfig(configFile.toPath(), new String[] { "production", "ubuntu" });
+
+    assertThat(config.get("common").getIntValue("paid_users_size_limit")).isEqualTo(2147483647);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("http").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+  }
+
+  @Test
+  public void loadInParallel() {
+    ComfyConfig config = Comfy.loadConfigParallel(configFile.toPath(), new String[] { "production", "ubuntu" });
+
+    assertThat(config.get("common").getIntValue("paid_users_size_limit")).isEqualTo(2147483647);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+  }
+
+  @Test
+  public void loadLazily() {
+    ComfyConfig config = Comfy.loadConfigLazily(configFile.getAbsolutePath(), new String[] { "production", "ubuntu" });
+
+    assertThat(config.get("common").getIntValue("paid_users_size_limit")).isEqualTo(2147483647);
+    assertThat(config.get("ftp").getStringValue("name")).isEqualTo("hello there, ftp uploading");
+    assertThat(config.get("ftp").getStringValue("lastname")).isNull();
+    assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+    assertThat(config.get("ftp").getBooleanValue("enabled")).isEqualTo(false);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+  }
+
+  @Test
+  public void invalidValueFailsOnReadWhenLoadedLazily() throws IOException {
+    Files.write(configFile.toPath(), Arrays.asList("[common]", "name = two words", "size = 10"));
+
+    ComfyConfig config = Comfy.loadConfigLazily(configFile.toPath(), new String[0]);
+    assertThat(config.get("common").getIntValue("size")).isEqualTo(10);
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      config.get("common").getStringValue("name");
+    });
+    assertTrue(exception.getMessage().contains("Value type not supported: two words"));
+    assertThrows(ComfyException.class, () -> Comfy.loadConfig(configFile.toPath(), new String[0]));
+  }
+
+  @Test
+  public void loadFromSnapshot() throws IOException {
+    File snapshot = new File(tempDirectory, "test.comfy");
+    String[] overrides = new String[] { "production", "ubuntu" };
+
+    ComfyConfig config = Comfy.loadConfigFromSnapshot(configFile.toPath(), overrides, snapshot.toPath());
+    assertTrue(snapshot.isFile());
+    assertThat(config.get("common").getIntValue("paid_users_size_limit")).isEqualTo(2147483647);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+
+    Files.write(configFile.toPath(), Arrays.asList("[ftp]", "path = /changed/"));
+    config = Comfy.loadConfigFromSnapshot(configFile.toPath(), overrides, snapshot.toPath());
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/changed/");
+  }
+
+  @Test
+  public void loadsAreReportedToTheMetrics() {
+    List<LoadStats> loads = new ArrayList<>();
+    Comfy.setMetrics(loads::add);
+    try {
+      Comfy.loadConfig(configFile.toPath(), new String[] { "production", "ubuntu" });
+      Comfy.loadConfigLazily(configFile.toPath(), new String[] { "production", "ubuntu" });
+      Comfy.loadConfigParallel(configFile.toPath(), new String[] { "production", "ubuntu" });
+    } finally {
+      Comfy.setMetrics(null);
+    }
+    Comfy.loadConfig(configFile.toPath(), new String[] { "production", "ubuntu" });
+
+    assertThat(loads).hasSize(3);
+    assertThat(loads.get(0).getSource()).isEqualTo(configFile.toPath().toString());
+    assertThat(loads.get(0).getValueCount(ValueType.INT)).isEqualTo(3);
+    // lazily loaded values are counted as the raw text they are kept as.
+    assertThat(loads.get(1).getValueCount(ValueType.TEXT)).isEqualTo(13);
+    assertThat(loads.get(2).getValueCount(ValueType.INT)).isEqualTo(3);
+  }
+
+  @Test
+  public void loadConfigAsync() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ComfyConfig config = Comfy
+          .loadConfigAsync(configFile.toPath(), new String[] { "production", "ubuntu" }, executor)
+          .get(10, TimeUnit.SECONDS);
+
+      assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+      assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void loadAllFiles() throws IOException {
+    File other = new File(tempDirectory, "other.ini");
+    Files.write(other.toPath(), Arrays.asList("[smtp]", "port = 25"));
+    File missing = new File(tempDirectory, "missing.ini");
+
+    Map<Path, LoadResult> results = Comfy
+        .loadAll(Arrays.asList(configFile.toPath(), other.toPath(), missing.toPath()), new String[] { "production" });
+
+    assertThat(results.get(configFile.toPath()).getConfig().get("ftp").getStringValue("path"))
+        .isEqualTo("/srv/var/tmp/");
+    assertThat(results.get(other.toPath()).getConfig().get("smtp").getIntValue("port")).isEqualTo(25);
+    assertThat(results.get(missing.toPath()).isLoaded()).isFalse();
+  }
+
+  @Test
+  public void earlierOverridesWin() {
+    ComfyConfig production = Comfy.loadConfig(configFile.toPath(), new String[] { "production", "ubuntu" });
+    ComfyConfig ubuntu = Comfy.loadConfig(configFile.toPath(), new String[] { "ubuntu", "production" });
+
+    assertThat(production.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(ubuntu.get("ftp").getStringValue("path")).isEqualTo("/etc/var/uploads");
+    // an override wins over a line without override, wherever the lines are.
+    assertThat(ubuntu.get("http").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+  }
+
+  @Test
+  public void overrideTableResolvesLikeALoad() {
+    OverrideTable table = Comfy.loadOverrideTable(configFile.toPath());
+
+    assertThat(table.overrides()).containsExactlyInAnyOrder("itscript", "production", "staging", "ubuntu");
+    for (String[] overrides : new String[][] { {}, { "production", "ubuntu" }, { "ubuntu", "production" },
+        { "staging" }, { "itscript", "staging", "unknown" } }) {
+      ComfyConfig loaded = Comfy.loadConfig(configFile.toPath(), overrides);
+      // a layer over the shared base must not differ from a config resolved on its own.
+      for (ComfyConfig resolved : new ComfyConfig[] { table.resolve(overrides), table.layer(overrides) }) {
+        assertThat(resolved.sectionNames()).isEqualTo(loaded.sectionNames());
+        for (String section : loaded.sectionNames()) {
+          assertThat(resolved.get(section).keys()).isEqualTo(loaded.get(section).keys());
+          for (String key : loaded.get(section).keys()) {
+            assertThat(resolved.get(section).get(key).getValue()).isEqualTo(loaded.get(section).get(key).getValue());
+          }
+        }
+      }
+    }
+  }
+
+  @Section("ftp")
+  interface Ftp {
+    String path();
+
+    boolean enabled();
+  }
+
+  @Test
+  public void bindSection() {
+    ComfyConfig config = Comfy.loadConfig(configFile.toPath(), new String[] { "production", "ubuntu" });
+
+    Ftp ftp = Comfy.bind(config, Ftp.class);
+
+    assertThat(ftp.path()).isEqualTo("/srv/var/tmp/");
+    assertThat(ftp.enabled()).isFalse();
+  }
+
+  @Test
+  public void loadSelectedSections() {
+    ComfyConfig config = Comfy.loadConfig(configFile.getAbsolutePath(), new String[] { "production", "ubuntu" },
+        new HashSet<>(Arrays.asList("ftp", "http")));
+
+    assertThat(config.size()).isEqualTo(2);
+    assertThat(config.get("common")).isNull();
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+  }
+
+  @Test
+  public void streamOneSection() {
+    Map<String, Object> ftp = new HashMap<>();
+
+    boolean completed = Comfy.streamConfig(configFile.toPath(), new String[] { "production", "ubuntu" },
+        new ComfyHandler() {
+          @Override
+          public boolean onSection(String section) {
+            // the section after [ftp] starts, so everything of [ftp] was seen.
+            return ftp.isEmpty();
+          }
+
+          @Override
+          public boolean onProperty(String section, String key, ConfigValue<?> value) {
+            if (section.equals("ftp")) {
+              ftp.put(key, value.getValue());
+            }
+            return true;
+          }
+        });
+
+    assertThat(completed).isFalse();
+    assertThat(ftp).containsEntry("path", "/etc/var/uploads").containsEntry("enabled", false).hasSize(3);
+  }
+
+  @Test
+  public void loadOffHeap() {
+    ComfyConfig config = Comfy.loadConfigOffHeap(configFile.toPath(), new String[] { "production", "ubuntu" });
+
+    assertThat(config.get("common").getIntValue("paid_users_size_limit")).isEqualTo(2147483647);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("ftp").getBooleanValue("enabled")).isEqualTo(false);
+    assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+  }
+
+  @Test
+  public void mainCompilesASnapshot() {
+    File snapshot = new File(tempDirectory, "test.comfy");
+
+    Comfy.main(new String[] { "--compile", configFile.getAbsolutePath(), snapshot.getAbsolutePath(), "staging" });
+
+    ComfyConfig config = Comfy.loadConfigFromSnapshot(configFile.toPath(), new String[] { "staging" },
+        snapshot.toPath());
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/uploads/");
   }
 
   @Test
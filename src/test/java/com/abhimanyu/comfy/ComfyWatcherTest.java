@@ -0,0 +1,142 @@
+package com.abhimanyu.comfy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.ini.IncrementalConfigFileReader;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+
+public class ComfyWatcherTest {
+  private static final long TIMEOUT_MILLIS = 20_000;
+
+  @TempDir
+  File tempDirectory;
+
+  private Path configFile;
+
+  @BeforeEach
+  public void init() throws IOException {
+    configFile = new File(tempDirectory, "test.ini").toPath();
+    Files.write(configFile, Arrays.asList("[ftp]", "path = /tmp/", "path<production> = /srv/var/tmp/"));
+  }
+
+  @Test
+  public void reloadsWhenTheFileChanges() throws Exception {
+    try (ComfyWatcher watcher = new ComfyWatcher(configFile, new String[] { "production" }, 50)) {
+      ComfyConfig initial = watcher.get();
+      assertThat(initial.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+
+      Files.write(configFile, Arrays.asList("[ftp]", "path = /tmp/", "path<production> = /srv/uploads/"));
+
+      awaitTrue(() -> watcher.getReloadCount() == 1);
+      assertThat(watcher.get().get("ftp").getStringValue("path")).isEqualTo("/srv/uploads/");
+      assertThat(watcher.getChangedSections()).containsExactly("ftp");
+      // readers holding the previous snapshot keep a consistent view.
+      assertThat(initial.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    }
+  }
+
+  @Test
+  public void failedReloadKeepsThePreviousConfig() throws Exception {
+    try (ComfyWatcher watcher = new ComfyWatcher(configFile, new String[] { "production" }, 50)) {
+      ComfyConfig initial = watcher.get();
+
+      Files.write(configFile, Arrays.asList("[ftp]", "path = not a valid value"));
+
+      awaitTrue(() -> watcher.getFailedReloadCount() == 1);
+      assertThat(watcher.get()).isSameAs(initial);
+      assertThat(watcher.getLastFailure()).isInstanceOf(ComfyException.class);
+      assertThat(watcher.getReloadCount()).isZero();
+
+      Files.write(configFile, Arrays.asList("[ftp]", "path = /fixed/"));
+
+      awaitTrue(() -> watcher.getReloadCount() == 1);
+      assertThat(watcher.get().get("ftp").getStringValue("path")).isEqualTo("/fixed/");
+    }
+  }
+
+  @Test
+  public void internalErrorOfAMappedReadKeepsWatching() throws Exception {
+    AtomicInteger reads = new AtomicInteger();
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(),
+        new String[] { "production" }) {
+      @Override
+      public ComfyConfig read(Path path) {
+        // the first read is the load of the constructor, the second the reload of a truncated file.
+        if (reads.incrementAndGet() == 2) {
+          throw new InternalError("a fault occurred in an unsafe memory access operation");
+        }
+        return super.read(path);
+      }
+    };
+    try (ComfyWatcher watcher = new ComfyWatcher(configFile, reader, 50)) {
+      ComfyConfig initial = watcher.get();
+
+      Files.write(configFile, Arrays.asList("[ftp]", "path<production> = /srv/uploads/"));
+
+      awaitTrue(() -> watcher.getFailedReloadCount() == 1);
+      assertThat(watcher.get()).isSameAs(initial);
+      assertThat(watcher.getLastFailure()).isInstanceOf(ComfyException.class).hasCauseInstanceOf(InternalError.class);
+
+      Files.write(configFile, Arrays.asList("[ftp]", "path<production> = /fixed/"));
+
+      awaitTrue(() -> watcher.getReloadCount() == 1);
+      assertThat(watcher.get().get("ftp").getStringValue("path")).isEqualTo("/fixed/");
+    }
+  }
+
+  @Test
+  public void changesWithinTheDebounceIntervalAreCoalesced() throws Exception {
+    try (ComfyWatcher watcher = new ComfyWatcher(configFile, new String[0], 1_000)) {
+      for (int i = 0; i < 5; i++) {
+        Files.write(configFile, Arrays.asList("[ftp]", "version = " + i));
+      }
+
+      awaitTrue(() -> watcher.getReloadCount() > 0);
+      Thread.sleep(1_500);
+      assertThat(watcher.getReloadCount()).isEqualTo(1);
+      assertThat(watcher.get().get("ftp").getIntValue("version")).isEqualTo(4);
+    }
+  }
+
+  @Test
+  public void otherFilesInTheDirectoryAreIgnored() throws Exception {
+    try (ComfyWatcher watcher = new ComfyWatcher(configFile, new String[0], 50)) {
+      Files.write(new File(tempDirectory, "other.ini").toPath(), Arrays.asList("[http]"));
+      Thread.sleep(300);
+      assertThat(watcher.getReloadCount()).isZero();
+
+      Files.write(configFile, Arrays.asList("[ftp]", "path = /changed/"));
+      awaitTrue(() -> watcher.getReloadCount() == 1);
+    }
+  }
+
+  @Test
+  public void invalidFileFailsOnStart() throws IOException {
+    Files.write(configFile, Arrays.asList("path = /tmp/"));
+
+    assertThrows(ComfyException.class, () -> new ComfyWatcher(configFile, new String[0]));
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (!condition.getAsBoolean()) {
+      assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+}
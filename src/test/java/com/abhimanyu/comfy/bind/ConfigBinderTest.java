@@ -0,0 +1,185 @@
+package com.abhimanyu.comfy.bind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.value.ArrayValue;
+import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.LazyValue;
+import com.abhimanyu.comfy.value.LongValue;
+import com.abhimanyu.comfy.value.StringValue;
+
+public class ConfigBinderTest {
+
+  private final ConfigBinder binder = new ConfigBinder();
+
+  @Section("ftp")
+  interface Ftp {
+    String path();
+
+    boolean enabled();
+
+    @Key("basic_size_limit")
+    long sizeLimit();
+
+    Integer port();
+
+    String[] params();
+  }
+
+  @Section("ftp")
+  static final class FtpSettings {
+    private final String path;
+    private final boolean enabled;
+    @Key("basic_size_limit")
+    private final int sizeLimit;
+    private final Long timeout;
+
+    private FtpSettings() {
+      path = null;
+      enabled = false;
+      sizeLimit = 0;
+      timeout = null;
+    }
+  }
+
+  @Section("ftp")
+  static final class ConstantField {
+    private final String path = "/tmp/";
+  }
+
+  @Section("ftp")
+  interface WrongType {
+    int path();
+  }
+
+  @Section("ftp")
+  interface MissingPrimitive {
+    boolean compressed();
+  }
+
+  @Section("smtp")
+  interface MissingSection {
+    String host();
+  }
+
+  interface NotAnnotated {
+    String path();
+  }
+
+  @Section("ftp")
+  interface UnsupportedType {
+    double path();
+  }
+
+  @Section("ftp")
+  interface WithParameters {
+    String path(String fallback);
+  }
+
+  private ComfyConfig config() {
+    ComfyConfig config = new ComfyConfig();
+    config.put("ftp", "path", new StringValue("/srv/var/tmp/"));
+    config.put("ftp", "enabled", new LazyValue("yes", new INIPropertyProcessor()::process));
+    config.put("ftp", "basic_size_limit", new IntValue(26214400));
+    config.put("ftp", "params", new ArrayValue(new String[] { "array", "of", "values" }));
+    return config;
+  }
+
+  @Test
+  public void interfaceIsBoundToTheValues() {
+    Ftp ftp = binder.bind(config(), Ftp.class);
+
+    assertThat(ftp.path()).isEqualTo("/srv/var/tmp/");
+    assertThat(ftp.enabled()).isTrue();
+    assertThat(ftp.sizeLimit()).isEqualTo(26214400L);
+    assertThat(ftp.port()).isNull();
+    assertThat(ftp.params()).containsExactly("array", "of", "values");
+    assertThat(ftp.toString()).startsWith("Ftp{").contains("path=/srv/var/tmp/");
+    assertThat(ftp).isEqualTo(ftp).isNotEqualTo(binder.bind(config(), Ftp.class));
+  }
+
+  @Test
+  public void classFieldsAreSet() {
+    ComfyConfig config = config();
+    config.put("ftp", "timeout", new LongValue(30_000_000_000L));
+
+    FtpSettings ftp = binder.bind(config, FtpSettings.class);
+
+    assertThat(ftp.path).isEqualTo("/srv/var/tmp/");
+    assertThat(ftp.enabled).isTrue();
+    assertThat(ftp.sizeLimit).isEqualTo(26214400);
+    assertThat(ftp.timeout).isEqualTo(30_000_000_000L);
+  }
+
+  @Test
+  public void boundValuesDoNotFollowTheConfig() {
+    ComfyConfig config = config();
+    Ftp ftp = binder.bind(config, Ftp.class);
+
+    config.put("ftp", "path", new StringValue("/changed/"));
+    ftp.params()[0] = "changed";
+
+    assertThat(ftp.path()).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("ftp").getArrayValue("params")[0]).isEqualTo("array");
+  }
+
+  @Test
+  public void typeMismatchFailsTheBind() {
+    ComfyException exception = assertThrows(ComfyException.class, () -> binder.bind(config(), WrongType.class));
+
+    assertThat(exception.getMessage()).isEqualTo("Failed to bind WrongType.path(), ftp.path is a STRING, not a int.");
+  }
+
+  @Test
+  public void missingValuesFailTheBind() {
+    assertThat(assertThrows(ComfyException.class, () -> binder.bind(config(), MissingPrimitive.class)).getMessage())
+        .isEqualTo("Failed to bind MissingPrimitive.compressed(), the section ftp has no key compressed.");
+    assertThat(assertThrows(ComfyException.class, () -> binder.bind(config(), MissingSection.class)).getMessage())
+        .contains("the config has no section smtp");
+  }
+
+  @Test
+  public void unsupportedDeclarationsFailTheBind() {
+    assertThat(assertThrows(ComfyException.class, () -> binder.bind(config(), NotAnnotated.class)).getMessage())
+        .contains("it is not annotated with @Section");
+    assertThat(assertThrows(ComfyException.class, () -> binder.bind(config(), UnsupportedType.class)).getMessage())
+        .contains("double is not a supported type");
+    assertThat(assertThrows(ComfyException.class, () -> binder.bind(config(), WithParameters.class)).getMessage())
+        .contains("only abstract methods without parameters can be bound");
+  }
+
+  @Test
+  public void changingAReturnedArrayChangesNothing() {
+    ComfyConfig config = config();
+    Ftp ftp = binder.bind(config, Ftp.class);
+
+    ftp.params()[0] = "changed";
+
+    assertThat(ftp.params()).containsExactly("array", "of", "values");
+    assertThat(config.get("ftp").getArrayValue("params")).containsExactly("array", "of", "values");
+  }
+
+  @Test
+  public void constantFinalFieldsFailTheBind() {
+    assertThat(assertThrows(ComfyException.class, () -> binder.bind(config(), ConstantField.class)).getMessage())
+        .isEqualTo("Failed to bind ConstantField.path, a final field set before binding may be a constant that javac "
+            + "inlines into reads.");
+  }
+
+  @Test
+  public void intValueWidensToLongButNotBack() {
+    ComfyConfig config = config();
+    config.put("ftp", "basic_size_limit", new LongValue(1L << 40));
+
+    assertThat(binder.bind(config, Ftp.class).sizeLimit()).isEqualTo(1L << 40);
+    assertThat(assertThrows(ComfyException.class, () -> binder.bind(config, FtpSettings.class)).getMessage())
+        .isEqualTo("Failed to bind FtpSettings.sizeLimit, ftp.basic_size_limit is a LONG, not a int.");
+  }
+}
@@ -0,0 +1,127 @@
+package com.abhimanyu.comfy.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhimanyu.comfy.Allocations;
+import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.StringValue;
+
+public class ComfyConfigBuilderTest {
+  private static final int KEYS = 100_000;
+
+  @Test
+  public void typical() {
+    ComfyConfig comfyConfig = new ComfyConfigBuilder()
+        .put("common", "basic_size_limit", new IntValue(26214400))
+        .put("ftp", "name", new StringValue("hello there, ftp uploading"))
+        .put("common", "student_size_limit", new IntValue(52428800))
+        .put("ftp", "enabled", new BooleanValue(false))
+        .put("ftp", "enabled", new BooleanValue(true))
+        .build();
+
+    assertThat(comfyConfig.size()).isEqualTo(2);
+    assertThat(comfyConfig.get("common").size()).isEqualTo(2);
+    assertThat(comfyConfig.get("common").getIntValue("student_size_limit")).isEqualTo(52428800);
+    assertThat(comfyConfig.get("ftp").getStringValue("name")).isEqualTo("hello there, ftp uploading");
+    assertThat(comfyConfig.get("ftp").getBooleanValue("enabled")).isTrue();
+  }
+
+  @Test
+  public void overrideWithHigherPrecedenceWins() {
+    ComfyConfig comfyConfig = new ComfyConfigBuilder()
+        .put("ftp", "path", new StringValue("/tmp/"))
+        .put("ftp", "path", new StringValue("/srv/var/tmp/"), 0)
+        .put("ftp", "path", new StringValue("/etc/var/uploads"), 1)
+        .put("ftp", "path", new StringValue("/later/"))
+        .put("ftp", "name", new StringValue("first"), 1)
+        .put("ftp", "name", new StringValue("second"), 1)
+        .build();
+
+    assertThat(comfyConfig.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(comfyConfig.get("ftp").getStringValue("name")).isEqualTo("second");
+  }
+
+  @Test
+  public void mergeKeepsPrecedences() {
+    ComfyConfigBuilder first = new ComfyConfigBuilder()
+        .put("ftp", "path", new StringValue("/srv/var/tmp/"), 0)
+        .put("ftp", "port", new IntValue(21));
+    ComfyConfigBuilder second = new ComfyConfigBuilder()
+        .put("ftp", "path", new StringValue("/tmp/"))
+        .put("ftp", "port", new IntValue(2121))
+        .put("http", "port", new IntValue(80));
+
+    ComfyConfig comfyConfig = first.merge(second).build();
+
+    assertThat(comfyConfig.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(comfyConfig.get("ftp").getIntValue("port")).isEqualTo(2121);
+    assertThat(comfyConfig.get("http").getIntValue("port")).isEqualTo(80);
+  }
+
+  @Test
+  public void mergeKeepsTheLaterValueOfTheSamePrecedence() {
+    ComfyConfigBuilder first = new ComfyConfigBuilder().put("ftp", "path", new StringValue("/srv/var/tmp/"), 0);
+    ComfyConfigBuilder later = new ComfyConfigBuilder().put("ftp", "path", new StringValue("/prod/"), 0);
+
+    assertThat(first.merge(later).build().get("ftp").getStringValue("path")).isEqualTo("/prod/");
+  }
+
+  @Test
+  public void sectionsAreFoundByNameNotIdentity() {
+    ComfyConfig comfyConfig = new ComfyConfigBuilder(1, 1)
+        .put(new String("common"), "a", new IntValue(1))
+        .put(new String("common"), "b", new IntValue(2))
+        .build();
+
+    assertThat(comfyConfig.size()).isEqualTo(1);
+    assertThat(comfyConfig.get("common").size()).isEqualTo(2);
+  }
+
+  @Test
+  public void perLineGarbageIsLimitedToTheStoredEntry() {
+    String[] keys = new String[KEYS];
+    ConfigValue[] values = new ConfigValue[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = "key" + i;
+      values[i] = new IntValue(i);
+    }
+
+    ComfyConfigBuilder builder = new ComfyConfigBuilder(1, KEYS);
+    long bytes = Allocations.bytesAllocated(() -> {
+      for (int i = 0; i < KEYS; i++) {
+        builder.put("common", keys[i], values[i]);
+      }
+    });
+
+    // a HashMap entry is 32 bytes, the rest is the share of the pre-sized table, allocated once.
+    assertThat(bytes / (double) KEYS).isLessThan(48);
+    assertThat(builder.build().get("common").size()).isEqualTo(KEYS);
+  }
+
+  @Test
+  public void puttingIntoAnExistingSectionDoesNotAllocate() {
+    ComfyConfig comfyConfig = new ComfyConfig();
+    ConfigValue value = new IntValue(10);
+
+    // the first pass adds the entries, the measured second pass replaces their values.
+    double bytes = Allocations.bytesPerOperation(1_000, i -> {
+      comfyConfig.put("common", "key", value);
+      return comfyConfig;
+    });
+
+    assertThat(bytes).isLessThan(1);
+    assertThat(comfyConfig.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void getOrDefaultDoesNotAddTheSection() {
+    ComfyConfig comfyConfig = new ComfyConfig();
+
+    assertThat(comfyConfig.getOrDefault("common").size()).isZero();
+    assertThat(comfyConfig.get("common")).isNull();
+  }
+}
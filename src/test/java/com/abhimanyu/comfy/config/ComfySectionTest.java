@@ -1,9 +1,20 @@
 package com.abhimanyu.comfy.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -11,7 +22,15 @@ import org.junit.jupiter.api.TestInstance.Lifecycle;
 
 import com.abhimanyu.comfy.value.ArrayValue;
 import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.Allocations;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.value.ConfigValue;
+import com.abhimanyu.comfy.value.Converter;
+import com.abhimanyu.comfy.value.Converters;
 import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.LazyValue;
+import com.abhimanyu.comfy.value.LongValue;
 import com.abhimanyu.comfy.value.StringValue;
 
 @TestInstance(Lifecycle.PER_CLASS)
@@ -28,6 +47,14 @@ public class ComfySectionTest {
     comfySection.put("key4", new IntValue(10));
   }
 
+  // the shared section with a long outside the int range as key5.
+  private ComfySection withLongValue() {
+    ComfySection section = new ComfySection();
+    section.putAll(comfySection);
+    section.put("key5", new LongValue(4294967296L));
+    return section;
+  }
+
   @Test
   public void stringValue() {
     assertThat(comfySection.getStringValue("key1")).isEqualTo("test_string");
@@ -112,6 +139,183 @@ public class ComfySectionTest {
         .contains(String.format("Trying to convert an object of %s to a ArrayValue.", IntValue.class)));
   }
 
+  @Test
+  public void longValue() {
+    ComfySection comfySection = withLongValue();
+    assertThat(comfySection.getLongValue("key5")).isEqualTo(4294967296L);
+    assertThat(comfySection.getLongValue("key4")).isEqualTo(10L);
+    assertThat(comfySection.getLongValue("non-existent-key")).isNull();
+  }
+
+  @Test
+  public void tryToGetLongAsIntValue() {
+    ComfySection comfySection = withLongValue();
+    ClassCastException exception = assertThrows(ClassCastException.class, () -> {
+      comfySection.getIntValue("key5");
+    });
+
+    assertTrue(exception
+        .getMessage()
+        .contains(String.format("Trying to convert an object of %s to a IntValue.", LongValue.class)));
+  }
+
+  @Test
+  public void primitiveValues() {
+    ComfySection comfySection = withLongValue();
+    assertThat(comfySection.getInt("key4", -1)).isEqualTo(10);
+    assertThat(comfySection.getInt("non-existent-key", -1)).isEqualTo(-1);
+    assertThat(comfySection.getLong("key5", -1)).isEqualTo(4294967296L);
+    assertThat(comfySection.getLong("key4", -1)).isEqualTo(10L);
+    assertThat(comfySection.getLong("non-existent-key", -1)).isEqualTo(-1L);
+    assertThat(comfySection.getBoolean("key2", false)).isTrue();
+    assertThat(comfySection.getBoolean("non-existent-key", true)).isTrue();
+  }
+
+  @Test
+  public void tryToGetPrimitivesOfTheWrongType() {
+    ComfySection comfySection = withLongValue();
+    assertThatThrownBy(() -> comfySection.getInt("key5", 0))
+        .isInstanceOf(ClassCastException.class)
+        .hasMessageContaining(String.format("Trying to convert an object of %s to a IntValue.", LongValue.class));
+    assertThatThrownBy(() -> comfySection.getLong("key2", 0))
+        .isInstanceOf(ClassCastException.class)
+        .hasMessageContaining(String.format("Trying to convert an object of %s to a LongValue.", BooleanValue.class));
+    assertThatThrownBy(() -> comfySection.getBoolean("key1", false))
+        .isInstanceOf(ClassCastException.class)
+        .hasMessageContaining(String.format("Trying to convert an object of %s to a BooleanValue.", StringValue.class));
+  }
+
+  @Test
+  public void primitiveGettersDoNotAllocate() {
+    ComfySection section = new ComfySection();
+    section.put("paid_users_size_limit", new IntValue(2147483647));
+    section.put("max_bytes", new LongValue(4294967296L));
+    section.put("enabled", new BooleanValue(true));
+
+    double bytes = Allocations.bytesPerOperation(100_000, i -> {
+      long sum = section.getInt("paid_users_size_limit", 0) + section.getLong("max_bytes", 0);
+      return section.getBoolean("enabled", false) && sum > i ? null : section;
+    });
+
+    assertThat(bytes).isLessThan(1);
+  }
+
+  @Test
+  public void lazyValueIsConvertedOnFirstRead() {
+    AtomicInteger conversions = new AtomicInteger();
+    LazyValue lazyValue = new LazyValue("42", value -> {
+      conversions.incrementAndGet();
+      return new INIPropertyProcessor().process(value);
+    });
+    ComfySection section = new ComfySection();
+    section.put("key", lazyValue);
+
+    assertThat(lazyValue.isResolved()).isFalse();
+    assertThat(conversions).hasValue(0);
+    assertThat(section.getIntValue("key")).isEqualTo(42);
+    assertThat(section.getIntValue("key")).isEqualTo(42);
+    assertThat(section.get("key")).isInstanceOf(IntValue.class);
+    assertThat(conversions).hasValue(1);
+  }
+
+  @Test
+  public void lazyValueFailsLikeAnEagerValue() {
+    ComfySection section = new ComfySection();
+    INIPropertyProcessor propertyProcessor = new INIPropertyProcessor();
+    section.put("bool", new LazyValue("yes", propertyProcessor::process));
+    section.put("invalid", new LazyValue("two words", propertyProcessor::process));
+
+    assertThatThrownBy(() -> section.getIntValue("bool"))
+        .isInstanceOf(ClassCastException.class)
+        .hasMessageContaining(String.format("Trying to convert an object of %s to a IntValue.", BooleanValue.class));
+    assertThatThrownBy(() -> section.getStringValue("invalid")).hasMessageContaining("Value type not supported");
+    assertThatThrownBy(() -> section.getStringValue("invalid")).hasMessageContaining("Value type not supported");
+  }
+
+  @Test
+  public void lazyValueIsConvertedOnceByConcurrentReaders() throws Exception {
+    int threads = 8;
+    AtomicInteger conversions = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ComfySection section = new ComfySection();
+    section.put("key", new LazyValue("a, b, c", value -> {
+      conversions.incrementAndGet();
+      return new INIPropertyProcessor().process(value);
+    }));
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<ConfigValue>> reads = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        reads.add(executor.submit(() -> {
+          start.await();
+          return section.get("key");
+        }));
+      }
+      start.countDown();
+      for (Future<ConfigValue> read : reads) {
+        assertThat(read.get()).isSameAs(reads.get(0).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(conversions).hasValue(1);
+    assertThat(section.getArrayValue("key")).isEqualTo(new String[] { "a", "b", "c" });
+  }
+
+  @Test
+  public void getAsConvertsOncePerValue() {
+    AtomicInteger conversions = new AtomicInteger();
+    Converter<Integer> length = value -> {
+      conversions.incrementAndGet();
+      return ((String) value.getValue()).length();
+    };
+    ComfySection section = new ComfySection();
+    section.put("name", new StringValue("ftp"));
+
+    assertThat(section.getAs("name", length)).isEqualTo(3);
+    assertThat(section.getAs("name", length)).isEqualTo(3);
+    assertThat(conversions).hasValue(1);
+
+    section.put("name", new StringValue("http"));
+    assertThat(section.getAs("name", length)).isEqualTo(4);
+    assertThat(section.getAs("name", Converters.PATH)).isEqualTo(Paths.get("http"));
+    assertThat(section.getAs("name", length)).isEqualTo(4);
+    assertThat(conversions).hasValue(3);
+    assertThat(section.getAs("missing", length)).isNull();
+  }
+
+  @Test
+  public void failedConversionIsNotKept() {
+    ComfySection section = new ComfySection();
+    section.put("timeout", new StringValue("soon"));
+
+    assertThatThrownBy(() -> section.getAs("timeout", Converters.DURATION)).isInstanceOf(ComfyException.class);
+    section.put("timeout", new StringValue("30s"));
+    assertThat(section.getAs("timeout", Converters.DURATION)).isEqualTo(Duration.ofSeconds(30));
+  }
+
+  @Test
+  public void cachedConversionDoesNotAllocate() {
+    ComfySection section = new ComfySection();
+    section.put("timeout", new LazyValue("500ms", new INIPropertyProcessor()::process));
+    section.getAs("timeout", Converters.DURATION);
+
+    double bytes = Allocations.bytesPerOperation(100_000, i -> section.getAs("timeout", Converters.DURATION));
+
+    assertThat(bytes).isLessThan(1);
+  }
+
+  @Test
+  public void listValueIsAnUnmodifiableCopy() {
+    List<String> list = comfySection.getListValue("key3");
+
+    assertThat(list).containsExactly("a", "b", "c");
+    assertThat(comfySection.getListValue("key3")).isSameAs(list);
+    assertThrows(UnsupportedOperationException.class, () -> list.set(0, "changed"));
+    assertThatThrownBy(() -> comfySection.getListValue("key1")).isInstanceOf(ComfyException.class);
+  }
+
   @Test
   public void size() {
     assertThat(comfySection.size()).isEqualTo(4);
@@ -0,0 +1,172 @@
+package com.abhimanyu.comfy.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.StringValue;
+
+public class ConcurrentComfyConfigTest {
+
+  @Test
+  public void startsWithACopyOfTheConfig() {
+    ComfyConfig config = new ComfyConfig();
+    config.put("ftp", "path", new StringValue("/tmp/"));
+    config.put("ftp", "enabled", new BooleanValue(false));
+
+    ConcurrentComfyConfig concurrent = new ConcurrentComfyConfig(config);
+    config.put("ftp", "path", new StringValue("/changed/"));
+
+    assertThat(concurrent.size()).isEqualTo(1);
+    assertThat(concurrent.get("ftp").getStringValue("path")).isEqualTo("/tmp/");
+    assertThat(concurrent.get("ftp").getBooleanValue("enabled")).isFalse();
+  }
+
+  @Test
+  public void putsArePublished() {
+    ConcurrentComfyConfig config = new ConcurrentComfyConfig();
+    config.put("ftp", "path", new StringValue("/tmp/"));
+    ComfySection section = new ComfySection();
+    section.put("name", new StringValue("http uploading"));
+    config.put("http", section);
+
+    assertThat(config.sectionNames()).containsExactlyInAnyOrder("ftp", "http");
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/tmp/");
+    assertThat(config.get("http").getStringValue("name")).isEqualTo("http uploading");
+    assertThat(config.freeze().getStringValue("http", "name")).isEqualTo("http uploading");
+  }
+
+  @Test
+  public void sectionsAndSnapshotsDoNotChange() {
+    ConcurrentComfyConfig config = new ConcurrentComfyConfig();
+    config.put("ftp", "path", new StringValue("/tmp/"));
+    ComfySection section = config.get("ftp");
+    ComfyConfig snapshot = config.snapshot();
+
+    config.put("ftp", "path", new StringValue("/srv/"));
+
+    assertThat(section.getStringValue("path")).isEqualTo("/tmp/");
+    assertThat(snapshot.get("ftp").getStringValue("path")).isEqualTo("/tmp/");
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/");
+    assertThrows(UnsupportedOperationException.class, () -> section.put("path", new StringValue("/x/")));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.put("smtp", new ComfySection()));
+  }
+
+  @Test
+  public void batchIsPublishedOnce() {
+    ConcurrentComfyConfig config = new ConcurrentComfyConfig();
+    config.put("ftp", "path", new StringValue("/tmp/"));
+    config.put("ftp", "enabled", new BooleanValue(true));
+    ComfyConfig before = config.snapshot();
+
+    config.update(batch -> {
+      batch.put("ftp", "path", new StringValue("/srv/")).remove("ftp", "enabled").put("smtp", "port", new IntValue(25));
+      assertThat(batch.get("ftp").keys()).containsExactly("path");
+      // nothing is visible before the batch is done.
+      assertThat(config.snapshot()).isSameAs(before);
+    });
+
+    assertThat(config.get("ftp").keys()).containsExactly("path");
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/");
+    assertThat(config.get("smtp").getIntValue("port")).isEqualTo(25);
+  }
+
+  @Test
+  public void failedBatchPublishesNothing() {
+    ConcurrentComfyConfig config = new ConcurrentComfyConfig();
+    config.put("ftp", "path", new StringValue("/tmp/"));
+    ComfyConfig before = config.snapshot();
+
+    assertThrows(IllegalStateException.class, () -> config.update(batch -> {
+      batch.put("ftp", "path", new StringValue("/srv/"));
+      throw new IllegalStateException("invalid change");
+    }));
+
+    assertThat(config.snapshot()).isSameAs(before);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/tmp/");
+  }
+
+  @Test
+  public void emptySectionsAreRemoved() {
+    ConcurrentComfyConfig config = new ConcurrentComfyConfig();
+    config.put("ftp", "path", new StringValue("/tmp/"));
+    config.put("http", "path", new StringValue("/tmp/"));
+
+    config.update(batch -> batch.remove("ftp", "path").removeSection("http").remove("smtp", "port"));
+
+    assertThat(config.size()).isZero();
+    assertThat(config.get("ftp")).isNull();
+  }
+
+  @Test
+  public void readersSeeWholeBatchesInOrder() throws Exception {
+    int readers = 4;
+    int writes = 20_000;
+    ConcurrentComfyConfig config = new ConcurrentComfyConfig();
+    config.update(batch -> publish(batch, 0));
+    // the last write that update returned from, written after the publish.
+    AtomicInteger published = new AtomicInteger();
+    AtomicBoolean done = new AtomicBoolean();
+    CountDownLatch start = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(readers);
+    try {
+      List<Future<Integer>> reads = new ArrayList<>();
+      for (int i = 0; i < readers; i++) {
+        reads.add(executor.submit(() -> {
+          start.await();
+          int last = 0;
+          int count = 0;
+          do {
+            int completed = published.get();
+            ComfyConfig snapshot = config.snapshot();
+            int a = snapshot.get("a").getIntValue("n");
+            assertThat(snapshot.get("a").getIntValue("m")).isEqualTo(a);
+            assertThat(snapshot.get("b").getIntValue("n")).isEqualTo(a);
+            // linearizable: a read sees every write completed before it started, and never goes back.
+            assertThat(a).isGreaterThanOrEqualTo(completed).isGreaterThanOrEqualTo(last);
+
+            ComfySection section = config.get("a");
+            int n = section.getIntValue("n");
+            assertThat(section.getIntValue("m")).isEqualTo(n);
+            assertThat(n).isGreaterThanOrEqualTo(a);
+            last = n;
+            count++;
+          } while (!done.get());
+          return count;
+        }));
+      }
+
+      start.countDown();
+      for (int i = 1; i <= writes; i++) {
+        int write = i;
+        config.update(batch -> publish(batch, write));
+        published.set(write);
+      }
+      done.set(true);
+      for (Future<Integer> read : reads) {
+        assertThat(read.get()).isPositive();
+      }
+    } finally {
+      done.set(true);
+      executor.shutdown();
+    }
+    assertThat(config.get("b").getIntValue("n")).isEqualTo(writes);
+  }
+
+  private static void publish(ConcurrentComfyConfig.Batch batch, int write) {
+    batch.put("a", "n", new IntValue(write)).put("b", "n", new IntValue(write)).put("a", "m", new IntValue(write));
+  }
+}
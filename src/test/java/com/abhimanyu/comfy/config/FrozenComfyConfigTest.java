@@ -0,0 +1,170 @@
+package com.abhimanyu.comfy.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.abhimanyu.comfy.Allocations;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.value.ArrayValue;
+import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.LazyValue;
+import com.abhimanyu.comfy.value.LongValue;
+import com.abhimanyu.comfy.value.StringValue;
+
+public class FrozenComfyConfigTest {
+
+  private ComfyConfig comfyConfig;
+
+  @BeforeEach
+  public void init() {
+    comfyConfig = new ComfyConfig();
+    comfyConfig.put("common", "paid_users_size_limit", new IntValue(2147483647));
+    comfyConfig.put("common", "max_bytes", new LongValue(4294967296L));
+    comfyConfig.put("ftp", "name", new StringValue("hello there, ftp uploading"));
+    comfyConfig.put("ftp", "enabled", new BooleanValue(false));
+    comfyConfig.put("http", "params", new ArrayValue(new String[] { "array", "of", "values" }));
+    // the same key in another section is a different entry.
+    comfyConfig.put("http", "name", new StringValue("http uploading"));
+  }
+
+  @Test
+  public void typical() {
+    FrozenComfyConfig frozen = comfyConfig.freeze();
+
+    assertThat(frozen.size()).isEqualTo(3);
+    assertThat(frozen.keyCount()).isEqualTo(6);
+    assertThat(frozen.getIntValue("common", "paid_users_size_limit")).isEqualTo(2147483647);
+    assertThat(frozen.getLong("common", "max_bytes", 0)).isEqualTo(4294967296L);
+    assertThat(frozen.getStringValue("ftp", "name")).isEqualTo("hello there, ftp uploading");
+    assertThat(frozen.getStringValue("http", "name")).isEqualTo("http uploading");
+    assertThat(frozen.getBoolean("ftp", "enabled", true)).isFalse();
+    assertThat(frozen.getArrayValue("http", "params")).isEqualTo(new String[] { "array", "of", "values" });
+  }
+
+  @Test
+  public void missingKeysAndSections() {
+    FrozenComfyConfig frozen = comfyConfig.freeze();
+
+    assertThat(frozen.get("ftp", "lastname")).isNull();
+    assertThat(frozen.get("smtp", "name")).isNull();
+    assertThat(frozen.getStringValue("common", "name")).isNull();
+    assertThat(frozen.getInt("ftp", "port", 21)).isEqualTo(21);
+  }
+
+  @Test
+  public void emptyConfig() {
+    FrozenComfyConfig frozen = new ComfyConfig().freeze();
+
+    assertThat(frozen.size()).isZero();
+    assertThat(frozen.get("common", "key")).isNull();
+  }
+
+  @Test
+  public void sameValuesAsTheSourceConfig() {
+    ComfyConfig large = new ComfyConfig();
+    for (int i = 0; i < 5000; i++) {
+      large.put("section" + (i % 37), "key" + i, new IntValue(i));
+    }
+    FrozenComfyConfig frozen = large.freeze();
+
+    for (int i = 0; i < 5000; i++) {
+      String section = "section" + (i % 37);
+      assertThat(frozen.getIntValue(section, "key" + i)).isEqualTo(large.get(section).getIntValue("key" + i));
+      assertThat(frozen.get("section" + ((i + 1) % 37), "key" + i)).isNull();
+    }
+    assertThat(frozen.keyCount()).isEqualTo(5000);
+  }
+
+  @Test
+  public void snapshotIsNotChangedByTheSourceConfig() {
+    FrozenComfyConfig frozen = comfyConfig.freeze();
+    comfyConfig.put("ftp", "name", new StringValue("changed"));
+    comfyConfig.put("smtp", "port", new IntValue(25));
+
+    assertThat(frozen.getStringValue("ftp", "name")).isEqualTo("hello there, ftp uploading");
+    assertThat(frozen.get("smtp", "port")).isNull();
+  }
+
+  @Test
+  public void configKey() {
+    FrozenComfyConfig frozen = comfyConfig.freeze();
+    ConfigKey limit = frozen.key("common", "paid_users_size_limit");
+    ConfigKey missing = frozen.key("ftp", "lastname");
+
+    assertThat(limit.isPresent()).isTrue();
+    assertThat(limit.getInt(0)).isEqualTo(2147483647);
+    assertThat(limit.getLong(0)).isEqualTo(2147483647L);
+    assertThat(limit.toString()).isEqualTo("common.paid_users_size_limit");
+    assertThat(frozen.key("http", "params").getArrayValue()).isEqualTo(new String[] { "array", "of", "values" });
+    assertThat(missing.isPresent()).isFalse();
+    assertThat(missing.getStringValue()).isNull();
+    assertThat(missing.getBoolean(true)).isTrue();
+  }
+
+  @Test
+  public void configKeyFailsLikeComfySection() {
+    ConfigKey name = comfyConfig.freeze().key("ftp", "name");
+
+    assertThatThrownBy(() -> name.getInt(0))
+        .isInstanceOf(ClassCastException.class)
+        .hasMessageContaining(String.format("Trying to convert an object of %s to a IntValue.", StringValue.class));
+  }
+
+  @Test
+  public void lazyValuesAreResolved() {
+    INIPropertyProcessor propertyProcessor = new INIPropertyProcessor();
+    comfyConfig.put("lazy", "size", new LazyValue("10", propertyProcessor::process));
+    FrozenComfyConfig frozen = comfyConfig.freeze();
+
+    assertThat(frozen.get("lazy", "size")).isInstanceOf(IntValue.class);
+    assertThat(frozen.key("lazy", "size").getInt(0)).isEqualTo(10);
+  }
+
+  @Test
+  public void readingAConfigKeyDoesNotAllocate() {
+    FrozenComfyConfig frozen = comfyConfig.freeze();
+    ConfigKey limit = frozen.key("common", "paid_users_size_limit");
+    ConfigKey enabled = frozen.key("ftp", "enabled");
+
+    double bytes = Allocations
+        .bytesPerOperation(100_000, i -> enabled.getBoolean(true) || limit.getInt(0) > i ? null : frozen);
+
+    assertThat(bytes).isLessThan(1);
+  }
+
+  @Test
+  public void sharedBetweenThreads() throws Exception {
+    FrozenComfyConfig frozen = comfyConfig.freeze();
+    ConfigKey limit = frozen.key("common", "paid_users_size_limit");
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> reads = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        reads.add(executor.submit(() -> {
+          for (int j = 0; j < 10_000; j++) {
+            if (limit.getInt(0) != 2147483647 || !"http uploading".equals(frozen.getStringValue("http", "name"))) {
+              return false;
+            }
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> read : reads) {
+        assertThat(read.get()).isTrue();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.abhimanyu.comfy.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhimanyu.comfy.value.BooleanValue;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.StringValue;
+
+public class OverrideTableTest {
+
+  private final OverrideTable table = new OverrideTableBuilder()
+      .put("common", "size", null, new IntValue(1024))
+      .put("ftp", "path", null, new StringValue("/tmp/"))
+      .put("ftp", "path", "production", new StringValue("/srv/var/tmp/"))
+      .put("ftp", "path", "staging", new StringValue("/srv/uploads/"))
+      .put("ftp", "path", "ubuntu", new StringValue("/etc/var/uploads"))
+      .put("ftp", "path", "staging", new StringValue("/srv/staging/"))
+      .put("ftp", "enabled", null, new BooleanValue(false))
+      .put("beta", "enabled", "staging", new BooleanValue(true))
+      .build();
+
+  @Test
+  public void firstOverrideWins() {
+    assertThat(table.resolve(new String[] { "production", "ubuntu" }).get("ftp").getStringValue("path"))
+        .isEqualTo("/srv/var/tmp/");
+    assertThat(table.resolve(new String[] { "ubuntu", "production" }).get("ftp").getStringValue("path"))
+        .isEqualTo("/etc/var/uploads");
+  }
+
+  @Test
+  public void lastLineOfAnOverrideWins() {
+    assertThat(table.resolve(new String[] { "staging" }).get("ftp").getStringValue("path")).isEqualTo("/srv/staging/");
+  }
+
+  @Test
+  public void valueWithoutOverrideWhenNoneIsSelected() {
+    ComfyConfig config = table.resolve(new String[] { "itscript" });
+
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/tmp/");
+    assertThat(config.get("common").getIntValue("size")).isEqualTo(1024);
+    // the section has no key without override.
+    assertThat(config.get("beta")).isNull();
+    assertThat(config.sectionNames()).containsExactlyInAnyOrder("common", "ftp");
+  }
+
+  @Test
+  public void resolvedConfigsShareTheValues() {
+    ComfyConfig production = table.resolve(new String[] { "production" });
+    ComfyConfig staging = table.resolve(new String[] { "staging" });
+
+    assertThat(production.get("ftp").get("enabled")).isSameAs(staging.get("ftp").get("enabled"));
+    assertThat(staging.get("beta").getBooleanValue("enabled")).isTrue();
+    production.get("ftp").put("path", new StringValue("/changed/"));
+    assertThat(table.resolve(new String[] { "production" }).get("ftp").getStringValue("path"))
+        .isEqualTo("/srv/var/tmp/");
+  }
+
+  @Test
+  public void overridesOfTheFile() {
+    assertThat(table.overrides()).containsExactlyInAnyOrder("production", "staging", "ubuntu");
+    assertThat(table.sectionNames()).containsExactlyInAnyOrder("common", "ftp", "beta");
+  }
+
+  @Test
+  public void layerResolvesLikeResolve() {
+    for (String[] overrides : new String[][] { { "production", "ubuntu" }, { "ubuntu", "production" }, { "staging" },
+        { "itscript" }, {} }) {
+      assertThat(contents(table.layer(overrides))).isEqualTo(contents(table.resolve(overrides)));
+    }
+  }
+
+  @Test
+  public void layersShareTheBase() {
+    ComfyConfig base = table.base();
+    ComfyConfig production = table.layer(new String[] { "production" });
+    ComfyConfig staging = table.layer(new String[] { "staging" });
+
+    assertThat(base.get("ftp").getStringValue("path")).isEqualTo("/tmp/");
+    assertThat(base.sectionNames()).containsExactlyInAnyOrder("common", "ftp");
+    // sections without an overridden key are the sections of the base.
+    assertThat(production.get("common")).isSameAs(base.get("common"));
+    assertThat(staging.get("common")).isSameAs(base.get("common"));
+    assertThat(production.get("ftp").get("enabled")).isSameAs(base.get("ftp").get("enabled"));
+    assertThat(production.get("ftp").keys()).containsExactlyInAnyOrder("path", "enabled");
+    assertThat(staging.sectionNames()).containsExactlyInAnyOrder("common", "ftp", "beta");
+    assertThat(table.layer(new String[] { "itscript" })).isSameAs(base);
+  }
+
+  @Test
+  public void layersCannotBeChanged() {
+    ComfyConfig production = table.layer(new String[] { "production" });
+
+    assertThrows(UnsupportedOperationException.class, () -> production.get("ftp").put("path", new IntValue(1)));
+    assertThrows(UnsupportedOperationException.class, () -> production.put("smtp", new ComfySection()));
+    assertThrows(UnsupportedOperationException.class, () -> table.base().get("common").put("size", new IntValue(1)));
+    assertThat(table.base().get("ftp").getStringValue("path")).isEqualTo("/tmp/");
+  }
+
+  @Test
+  public void layerCanBeFrozen() {
+    FrozenComfyConfig frozen = table.layer(new String[] { "staging", "production" }).freeze();
+
+    assertThat(frozen.getStringValue("ftp", "path")).isEqualTo("/srv/staging/");
+    assertThat(frozen.getBooleanValue("beta", "enabled")).isTrue();
+  }
+
+  private static Map<String, Map<String, Object>> contents(ComfyConfig config) {
+    Map<String, Map<String, Object>> contents = new HashMap<>();
+    for (String name : config.sectionNames()) {
+      ComfySection section = config.get(name);
+      Map<String, Object> values = new HashMap<>();
+      for (String key : section.keys()) {
+        values.put(key, section.get(key).getValue());
+      }
+      assertThat(section.size()).isEqualTo(values.size());
+      contents.put(name, values);
+    }
+    assertThat(config.size()).isEqualTo(contents.size());
+    return contents;
+  }
+}
@@ -0,0 +1,158 @@
+package com.abhimanyu.comfy.io.ini;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.metrics.LoadStats;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+
+public class AsyncConfigFileReaderTest {
+  private static final String[] OVERRIDES = new String[] { "production", "ubuntu" };
+
+  @TempDir
+  File tempDirectory;
+
+  private File configFile;
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void init() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "comfy-test-parser"));
+    List<String> rows = Arrays
+        .asList("; this is the config file format your code should accept.", "[common]", "basic_size_limit= 26214400",
+            "path = /srv/var/tmp/", "path<itscript> = /srv/tmp/", "",
+
+            "[ftp]", "name = \"hello there, ftp uploading\"", "path = /tmp/", "path<production> = /srv/var/tmp/",
+            "path<ubuntu> = /etc/var/uploads", "enabled = no", "",
+
+            "[http]", "name =  \"http uploading\"", "path =   /tmp/", "params = array,  of,values");
+    Files.write(configFile.toPath(), rows);
+  }
+
+  @AfterEach
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void readsTheSameConfigAsMappedReader() throws Exception {
+    ComfyConfig expected = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath());
+
+    ComfyConfig config = new AsyncConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(configFile.toPath(), executor)
+        .get(10, TimeUnit.SECONDS);
+
+    assertSameConfig(config, expected);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+  }
+
+  @Test
+  public void linesSplitBetweenChunksAreJoined() throws Exception {
+    ComfyConfig expected = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath());
+
+    // chunks shorter than the first line, which has to grow the buffer, and ending in the middle of most lines.
+    for (int chunkSize : new int[] { 7, 16, 33 }) {
+      ComfyConfig config = new AsyncConfigFileReader(new INIPropertyProcessor(), OVERRIDES, chunkSize)
+          .read(configFile.toPath(), executor)
+          .get(10, TimeUnit.SECONDS);
+
+      assertSameConfig(config, expected);
+    }
+  }
+
+  @Test
+  public void multiByteCharactersAcrossChunks() throws Exception {
+    Files.write(configFile.toPath(), Arrays.asList("[i18n]", "greeting = \"héllo wörld\"", "city = Zürich"),
+        StandardCharsets.UTF_8);
+
+    ComfyConfig config = new AsyncConfigFileReader(new INIPropertyProcessor(), OVERRIDES, 8)
+        .read(configFile.toPath(), executor)
+        .get(10, TimeUnit.SECONDS);
+
+    assertThat(config.get("i18n").getStringValue("greeting")).isEqualTo("héllo wörld");
+    assertThat(config.get("i18n").getStringValue("city")).isEqualTo("Zürich");
+  }
+
+  @Test
+  public void linesAreParsedOnTheExecutor() throws Exception {
+    List<String> threads = new ArrayList<>();
+    AsyncConfigFileReader reader = new AsyncConfigFileReader(value -> {
+      threads.add(Thread.currentThread().getName());
+      return new INIPropertyProcessor().process(value);
+    }, OVERRIDES, 32);
+    List<LoadStats> loads = new ArrayList<>();
+    reader.setMetrics(loads::add);
+
+    reader.read(configFile.toPath(), executor).get(10, TimeUnit.SECONDS);
+
+    assertThat(threads).hasSize(10).containsOnly("comfy-test-parser");
+    assertThat(loads).hasSize(1);
+    assertThat(loads.get(0).getBytesRead()).isEqualTo(configFile.length());
+    assertThat(loads.get(0).getSkippedOverrideLines()).isEqualTo(1);
+  }
+
+  @Test
+  public void invalidLineFailsTheFuture() throws IOException {
+    Files.write(configFile.toPath(), Arrays.asList("[common]", "enabled"));
+
+    CompletableFuture<ComfyConfig> future = new AsyncConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(configFile.toPath(), executor);
+
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+    assertThat(exception.getCause()).isInstanceOf(ComfyException.class)
+        .hasMessageContaining("Encountered an invalid line: enabled");
+  }
+
+  @Test
+  public void missingFileFailsTheFuture() {
+    CompletableFuture<ComfyConfig> future = new AsyncConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(new File(tempDirectory, "missing.ini").toPath(), executor);
+
+    assertThat(future).isCompletedExceptionally();
+    ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+    assertThat(exception.getCause()).hasMessageContaining("Failed to find file on path");
+  }
+
+  @Test
+  public void rejectedChunkFailsTheFuture() throws Exception {
+    executor.shutdown();
+
+    CompletableFuture<ComfyConfig> future = new AsyncConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(configFile.toPath(), executor);
+
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+    assertThat(exception.getCause()).isInstanceOf(RejectedExecutionException.class);
+  }
+
+  private void assertSameConfig(ComfyConfig actual, ComfyConfig expected) {
+    assertThat(actual.sectionNames()).containsExactlyInAnyOrderElementsOf(expected.sectionNames());
+    for (String section : expected.sectionNames()) {
+      assertThat(actual.get(section).keys()).containsExactlyInAnyOrderElementsOf(expected.get(section).keys());
+      for (String key : expected.get(section).keys()) {
+        assertThat(actual.get(section).get(key).getValue()).isEqualTo(expected.get(section).get(key).getValue());
+      }
+    }
+  }
+}
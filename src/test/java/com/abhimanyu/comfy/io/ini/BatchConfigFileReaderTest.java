@@ -0,0 +1,136 @@
+package com.abhimanyu.comfy.io.ini;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.LoadResult;
+import com.abhimanyu.comfy.metrics.LoadStats;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+
+public class BatchConfigFileReaderTest {
+  private static final String[] OVERRIDES = new String[] { "production" };
+  private static final int TENANTS = 200;
+
+  @TempDir
+  File tempDirectory;
+
+  private List<Path> paths;
+
+  @BeforeEach
+  public void init() throws IOException {
+    paths = new ArrayList<>();
+    for (int i = 0; i < TENANTS; i++) {
+      Path path = new File(tempDirectory, "tenant" + i + ".ini").toPath();
+      Files.write(path, Arrays
+          .asList("[tenant]", "id = " + i, "path = /srv/" + i + "/", "path<production> = /prod/" + i, "enabled = yes"));
+      paths.add(path);
+    }
+  }
+
+  @Test
+  public void loadsEveryFileInOrder() {
+    BatchConfigFileReader reader = new BatchConfigFileReader(new INIPropertyProcessor(), OVERRIDES, Long.MAX_VALUE);
+
+    Map<Path, LoadResult> results = reader.readAll(paths, 4);
+
+    assertThat(results.keySet()).containsExactlyElementsOf(paths);
+    for (int i = 0; i < TENANTS; i++) {
+      LoadResult result = results.get(paths.get(i));
+      assertThat(result.isLoaded()).isTrue();
+      assertThat(result.getConfig().get("tenant").getIntValue("id")).isEqualTo(i);
+      assertThat(result.getConfig().get("tenant").getStringValue("path")).isEqualTo("/prod/" + i);
+    }
+  }
+
+  @Test
+  public void failedFilesDoNotFailTheBatch() throws IOException {
+    Files.write(paths.get(3), Arrays.asList("[tenant]", "not a line"));
+    Path missing = new File(tempDirectory, "missing.ini").toPath();
+    List<Path> batch = new ArrayList<>(paths);
+    batch.add(missing);
+    BatchConfigFileReader reader = new BatchConfigFileReader(new INIPropertyProcessor(), OVERRIDES, Long.MAX_VALUE);
+
+    Map<Path, LoadResult> results = reader.readAll(batch, 4);
+
+    assertThat(results).hasSize(TENANTS + 1);
+    assertThat(results.get(paths.get(3)).isLoaded()).isFalse();
+    assertThat(results.get(paths.get(3)).getConfig()).isNull();
+    assertThat(results.get(paths.get(3)).getError()).hasMessageContaining("Encountered an invalid line: not a line");
+    assertThat(results.get(missing).getError()).hasMessageContaining("Failed to find file on path");
+    ComfyException exception = assertThrows(ComfyException.class, () -> results.get(missing).orElseThrow());
+    assertThat(exception).isSameAs(results.get(missing).getError());
+    assertThat(results.get(paths.get(4)).orElseThrow().get("tenant").getIntValue("id")).isEqualTo(4);
+  }
+
+  @Test
+  public void largeFilesAreMapped() {
+    BatchConfigFileReader reader = new BatchConfigFileReader(new INIPropertyProcessor(), OVERRIDES, 0);
+
+    Map<Path, LoadResult> results = reader.readAll(paths.subList(0, 10), 2);
+
+    assertThat(results.get(paths.get(9)).orElseThrow().get("tenant").getStringValue("path")).isEqualTo("/prod/9");
+  }
+
+  @Test
+  public void readersAreKeptPerWorkerThread() {
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+    PropertyProcessor propertyProcessor = value -> {
+      threads.add(Thread.currentThread().getName());
+      return new INIPropertyProcessor().process(value);
+    };
+    List<LoadStats> loads = Collections.synchronizedList(new ArrayList<>());
+    BatchConfigFileReader reader = new BatchConfigFileReader(propertyProcessor, OVERRIDES, Long.MAX_VALUE);
+    reader.setMetrics(loads::add);
+
+    reader.readAll(paths, 3);
+
+    assertThat(threads).hasSizeLessThanOrEqualTo(3).allMatch(name -> name.startsWith("comfy-batch-"));
+    assertThat(loads).hasSize(TENANTS);
+  }
+
+  @Test
+  public void givenExecutorIsNotShutDown() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      BatchConfigFileReader reader = new BatchConfigFileReader(new INIPropertyProcessor(), OVERRIDES, Long.MAX_VALUE);
+      List<Path> duplicated = new ArrayList<>(paths.subList(0, 5));
+      duplicated.addAll(paths.subList(0, 5));
+
+      Map<Path, LoadResult> results = reader.readAll(duplicated, executor);
+
+      assertThat(results.keySet()).containsExactlyElementsOf(paths.subList(0, 5));
+      assertThat(executor.isShutdown()).isFalse();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void needsAtLeastOneThread() {
+    BatchConfigFileReader reader = new BatchConfigFileReader(new INIPropertyProcessor(), OVERRIDES, Long.MAX_VALUE);
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> reader.readAll(paths, 0));
+
+    assertThat(exception).hasMessage("A batch needs at least 1 thread, found: 0");
+  }
+}
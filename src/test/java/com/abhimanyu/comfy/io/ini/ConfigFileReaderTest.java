@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,6 +14,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -24,11 +26,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.ComfySection;
 import com.abhimanyu.comfy.exception.ComfyException;
 import com.abhimanyu.comfy.io.InputReader;
+import com.abhimanyu.comfy.metrics.LoadStats;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
 import com.abhimanyu.comfy.parse.LineParser;
 import com.abhimanyu.comfy.parse.LineTokens;
 import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.ScanningLineParser;
 import com.abhimanyu.comfy.value.BooleanValue;
 import com.abhimanyu.comfy.value.IntValue;
 import com.abhimanyu.comfy.value.StringValue;
@@ -61,7 +67,8 @@ public class ConfigFileReaderTest {
         .thenReturn(new LineTokens("ftp", null, null, null))
         .thenReturn(new LineTokens(null, "enabled", "no", null));
 
-    when(propertyProcessor.process(any())).thenReturn(new IntValue(26214400)).thenReturn(new BooleanValue(false));
+    when(propertyProcessor.process(any(), any())).thenReturn(new IntValue(26214400))
+        .thenReturn(new BooleanValue(false));
 
     ComfyConfig comfyConfig = configFileReader.read(inputStream);
 
@@ -74,7 +81,7 @@ public class ConfigFileReaderTest {
     assertThat(lineParserCaptor.getAllValues().get(3)).isEqualTo("enabled =  no");
 
     ArgumentCaptor<String> propertyProcessorCaptor = ArgumentCaptor.forClass(String.class);
-    verify(propertyProcessor, times(2)).process(propertyProcessorCaptor.capture());
+    verify(propertyProcessor, times(2)).process(propertyProcessorCaptor.capture(), any());
 
     assertThat(propertyProcessorCaptor.getAllValues().get(0)).isEqualTo("26214400");
     assertThat(propertyProcessorCaptor.getAllValues().get(1)).isEqualTo("no");
@@ -100,7 +107,8 @@ public class ConfigFileReaderTest {
         .thenReturn(new LineTokens("ftp", null, null, null))
         .thenReturn(new LineTokens(null, "enabled", "no", null));
 
-    when(propertyProcessor.process(any())).thenReturn(new IntValue(26214400)).thenReturn(new BooleanValue(false));
+    when(propertyProcessor.process(any(), any())).thenReturn(new IntValue(26214400))
+        .thenReturn(new BooleanValue(false));
 
     ComfyConfig comfyConfig = configFileReader.read(inputStream);
 
@@ -113,7 +121,7 @@ public class ConfigFileReaderTest {
     assertThat(lineParserCaptor.getAllValues().get(3)).isEqualTo("enabled =  no");
 
     ArgumentCaptor<String> propertyProcessorCaptor = ArgumentCaptor.forClass(String.class);
-    verify(propertyProcessor, times(2)).process(propertyProcessorCaptor.capture());
+    verify(propertyProcessor, times(2)).process(propertyProcessorCaptor.capture(), any());
 
     assertThat(propertyProcessorCaptor.getAllValues().get(0)).isEqualTo("26214400");
     assertThat(propertyProcessorCaptor.getAllValues().get(1)).isEqualTo("no");
@@ -147,7 +155,7 @@ public class ConfigFileReaderTest {
         .thenReturn(new LineTokens("common", null, null, null))
         .thenReturn(new LineTokens(null, "basic_size_limit", "26214400", null));
 
-    when(propertyProcessor.process(any())).thenReturn(new IntValue(26214400));
+    when(propertyProcessor.process(any(), any())).thenReturn(new IntValue(26214400));
 
     ComfyConfig comfyConfig = configFileReader.read(inputStream);
 
@@ -160,7 +168,7 @@ public class ConfigFileReaderTest {
     assertThat(lineParserCaptor.getAllValues().get(2)).isEqualTo("basic_size_limit= 26214400");
 
     ArgumentCaptor<String> propertyProcessorCaptor = ArgumentCaptor.forClass(String.class);
-    verify(propertyProcessor, times(1)).process(propertyProcessorCaptor.capture());
+    verify(propertyProcessor, times(1)).process(propertyProcessorCaptor.capture(), any());
 
     assertThat(propertyProcessorCaptor.getAllValues().get(0)).isEqualTo("26214400");
 
@@ -214,7 +222,7 @@ public class ConfigFileReaderTest {
         .thenReturn(new LineTokens(null, "path", "/srv/var/tmp/", "production"))
         .thenReturn(new LineTokens(null, "path", "/etc/var/uploads", "ubuntu"));
 
-    when(propertyProcessor.process(any()))
+    when(propertyProcessor.process(any(), any()))
         .thenReturn(new IntValue(26214400))
         .thenReturn(new StringValue("/etc/var/uploads"));
 
@@ -230,7 +238,7 @@ public class ConfigFileReaderTest {
     assertThat(lineParserCaptor.getAllValues().get(4)).isEqualTo("path<ubuntu> = /etc/var/uploads");
 
     ArgumentCaptor<String> propertyProcessorCaptor = ArgumentCaptor.forClass(String.class);
-    verify(propertyProcessor, times(2)).process(propertyProcessorCaptor.capture());
+    verify(propertyProcessor, times(2)).process(propertyProcessorCaptor.capture(), any());
 
     assertThat(propertyProcessorCaptor.getAllValues().get(0)).isEqualTo("26214400");
     assertThat(propertyProcessorCaptor.getAllValues().get(1)).isEqualTo("/etc/var/uploads");
@@ -262,7 +270,7 @@ public class ConfigFileReaderTest {
         .thenReturn(new LineTokens(null, "path", "first_value", "ubuntu"))
         .thenReturn(new LineTokens(null, "path", "second_value", "ubuntu"));
 
-    when(propertyProcessor.process(any()))
+    when(propertyProcessor.process(any(), any()))
         .thenReturn(new IntValue(26214400))
         .thenReturn(new StringValue("first_value"))
         .thenReturn(new StringValue("second_value"));
@@ -280,7 +288,7 @@ public class ConfigFileReaderTest {
     assertThat(lineParserCaptor.getAllValues().get(5)).isEqualTo("path<ubuntu> = second_value");
 
     ArgumentCaptor<String> propertyProcessorCaptor = ArgumentCaptor.forClass(String.class);
-    verify(propertyProcessor, times(3)).process(propertyProcessorCaptor.capture());
+    verify(propertyProcessor, times(3)).process(propertyProcessorCaptor.capture(), any());
 
     assertThat(propertyProcessorCaptor.getAllValues().get(0)).isEqualTo("26214400");
     assertThat(propertyProcessorCaptor.getAllValues().get(1)).isEqualTo("first_value");
@@ -356,4 +364,94 @@ public class ConfigFileReaderTest {
     assertThat(comfyConfig.get("test")).isNull();
   }
 
+  @Test
+  public void unselectedOverridesAreSkippedBeforeParsing() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    List<String> rows = Arrays
+        .asList("[ftp]", "path = /tmp/", "path<production> = /srv/var/tmp/", "path<staging> = /srv/uploads/",
+            "path<ubuntu> = /etc/var/uploads", "name<staging> = not selected");
+    Files.write(configFile.toPath(), rows);
+
+    LineParser scanningLineParser = spy(new ScanningLineParser());
+    ConfigFileReader reader = new ConfigFileReader(scanningLineParser, new INIPropertyProcessor(),
+        new String[] { "ubuntu" });
+
+    ComfyConfig comfyConfig = reader.read(new FileInputStream(configFile));
+
+    ArgumentCaptor<String> lineParserCaptor = ArgumentCaptor.forClass(String.class);
+    verify(scanningLineParser, times(3)).parse(lineParserCaptor.capture());
+    assertThat(lineParserCaptor.getAllValues())
+        .containsExactly("[ftp]", "path = /tmp/", "path<ubuntu> = /etc/var/uploads");
+
+    assertThat(reader.getSkippedOverrideLines()).isEqualTo(3);
+    assertThat(comfyConfig.get("ftp").size()).isEqualTo(1);
+    assertThat(comfyConfig.get("ftp").getStringValue("path")).isEqualTo("/etc/var/uploads");
+  }
+
+  @Test
+  public void unselectedOverrideWithoutSectionIsNotSkipped() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    List<String> rows = Arrays.asList("path<staging> = /srv/uploads/", "[ftp]");
+    Files.write(configFile.toPath(), rows);
+
+    ConfigFileReader reader = new ConfigFileReader(new ScanningLineParser(), new INIPropertyProcessor(),
+        new String[] { "ubuntu" });
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      reader.read(new FileInputStream(configFile));
+    });
+
+    assertTrue(exception
+        .getMessage()
+        .contains("Line found that is not under any section. Please move this line under a section: "));
+    assertThat(reader.getSkippedOverrideLines()).isZero();
+  }
+
+  @Test
+  public void repeatedValuesAreShared() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    List<String> rows = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      rows.addAll(Arrays.asList("[server" + i + "]", "name = \"shared name\"", "params = a, b, c", "port = 80"));
+    }
+    Files.write(configFile.toPath(), rows);
+    List<LoadStats> loads = new ArrayList<>();
+    ConfigFileReader reader = new ConfigFileReader(new ScanningLineParser(), new INIPropertyProcessor(),
+        new String[] {});
+    reader.setMetrics(loads::add);
+
+    ComfyConfig config = reader.read(new FileInputStream(configFile));
+
+    ComfySection first = config.get("server0");
+    for (int i = 1; i < 50; i++) {
+      ComfySection section = config.get("server" + i);
+      assertThat(section.getStringValue("name")).isSameAs(first.getStringValue("name"));
+      for (int element = 0; element < 3; element++) {
+        assertThat(section.getArrayValue("params")[element]).isSameAs(first.getArrayValue("params")[element]);
+      }
+      assertThat(section.get("port")).isSameAs(first.get("port"));
+    }
+    // only what the config keeps: the 3 keys, the name and the 3 elements of 49 sections, and the int of all 50.
+    assertThat(loads.get(0).getDeduplicated()).isEqualTo(49 * 7 + 50);
+  }
+
+  @Test
+  public void eachReadReturnsANewConfig() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    File otherFile = new File(tempDirectory, "other.ini");
+    Files.write(configFile.toPath(), Arrays.asList("[ftp]", "path = /tmp/"));
+    Files.write(otherFile.toPath(), Arrays.asList("[http]", "name = http"));
+
+    ConfigFileReader reader = new ConfigFileReader(new ScanningLineParser(), new INIPropertyProcessor(),
+        new String[] {}, 1, 4);
+
+    ComfyConfig first = reader.read(new FileInputStream(configFile));
+    ComfyConfig second = reader.read(new FileInputStream(otherFile));
+
+    assertThat(first.size()).isEqualTo(1);
+    assertThat(second.size()).isEqualTo(1);
+    assertThat(second.get("ftp")).isNull();
+    assertThat(second.get("http").getStringValue("name")).isEqualTo("http");
+  }
+
 }
@@ -0,0 +1,192 @@
+package com.abhimanyu.comfy.io.ini;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+
+public class IncrementalConfigFileReaderTest {
+  private static final String[] OVERRIDES = new String[] { "production", "ubuntu" };
+
+  @TempDir
+  File tempDirectory;
+
+  private File configFile;
+  private List<String> rows;
+
+  @BeforeEach
+  public void init() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    rows = new ArrayList<>(Arrays
+        .asList("; this is the config file format your code should accept.", "[common]", "basic_size_limit= 26214400",
+            "path = /srv/var/tmp/", "path<itscript> = /srv/tmp/", "",
+
+            "[ftp]", "name = \"hello there, ftp uploading\"", "path = /tmp/", "path<production> = /srv/var/tmp/",
+            "path<ubuntu> = /etc/var/uploads", "enabled = no", "",
+
+            "[http]", "name =  \"http uploading\"", "path =   /tmp/", "params = array,  of,values"));
+    Files.write(configFile.toPath(), rows);
+  }
+
+  @Test
+  public void firstReadParsesEverything() {
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+
+    ComfyConfig config = reader.read(configFile.toPath());
+
+    assertThat(reader.getChangedSections()).containsExactly("common", "ftp", "http");
+    assertThat(config.get("common").getIntValue("basic_size_limit")).isEqualTo(26214400);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+  }
+
+  @Test
+  public void onlyTheChangedSectionIsParsedAgain() throws IOException {
+    AtomicInteger processed = new AtomicInteger();
+    PropertyProcessor propertyProcessor = value -> {
+      processed.incrementAndGet();
+      return new INIPropertyProcessor().process(value);
+    };
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(propertyProcessor, OVERRIDES);
+    ComfyConfig first = reader.read(configFile.toPath());
+
+    rows.set(rows.indexOf("enabled = no"), "enabled = yes");
+    Files.write(configFile.toPath(), rows);
+    processed.set(0);
+    ComfyConfig second = reader.read(configFile.toPath());
+
+    assertThat(reader.getChangedSections()).containsExactly("ftp");
+    // the five selected lines of [ftp], and nothing of the other sections.
+    assertThat(processed).hasValue(5);
+    assertThat(second.get("common")).isSameAs(first.get("common"));
+    assertThat(second.get("http")).isSameAs(first.get("http"));
+    assertThat(second.get("ftp")).isNotSameAs(first.get("ftp"));
+    assertThat(second.get("ftp").getBooleanValue("enabled")).isTrue();
+    assertThat(first.get("ftp").getBooleanValue("enabled")).isFalse();
+  }
+
+  @Test
+  public void unchangedFileReusesEverySection() {
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    ComfyConfig first = reader.read(configFile.toPath());
+    ComfyConfig second = reader.read(configFile.toPath());
+
+    assertThat(reader.getChangedSections()).isEmpty();
+    assertThat(second.size()).isEqualTo(3);
+    for (String section : Arrays.asList("common", "ftp", "http")) {
+      assertThat(second.get(section)).isSameAs(first.get(section));
+    }
+  }
+
+  @Test
+  public void movedSectionsAreNotChanged() throws IOException {
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    ComfyConfig first = reader.read(configFile.toPath());
+
+    rows.add(0, "; a longer comment that moves every section to another offset");
+    Files.write(configFile.toPath(), rows);
+    ComfyConfig second = reader.read(configFile.toPath());
+
+    assertThat(reader.getChangedSections()).isEmpty();
+    assertThat(second.get("ftp")).isSameAs(first.get("ftp"));
+  }
+
+  @Test
+  public void addedAndRemovedSectionsAreReported() throws IOException {
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    reader.read(configFile.toPath());
+
+    int http = rows.indexOf("[http]");
+    List<String> withoutHttp = new ArrayList<>(rows.subList(0, http));
+    withoutHttp.addAll(Arrays.asList("[smtp]", "port = 25"));
+    Files.write(configFile.toPath(), withoutHttp);
+    ComfyConfig config = reader.read(configFile.toPath());
+
+    assertThat(reader.getChangedSections()).containsExactlyInAnyOrder("smtp", "http");
+    assertThat(config.get("http")).isNull();
+    assertThat(config.get("smtp").getIntValue("port")).isEqualTo(25);
+  }
+
+  @Test
+  public void repeatedSectionKeepsTheLastValue() throws IOException {
+    rows.addAll(Arrays.asList("[ftp]", "enabled = yes"));
+    Files.write(configFile.toPath(), rows);
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    ComfyConfig first = reader.read(configFile.toPath());
+    assertThat(first.get("ftp").getBooleanValue("enabled")).isTrue();
+
+    rows.set(rows.size() - 1, "name = changed");
+    Files.write(configFile.toPath(), rows);
+    ComfyConfig second = reader.read(configFile.toPath());
+
+    assertThat(reader.getChangedSections()).containsExactly("ftp");
+    assertThat(second.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(second.get("ftp").getStringValue("name")).isEqualTo("changed");
+    assertThat(second.get("ftp").getBooleanValue("enabled")).isFalse();
+  }
+
+  @Test
+  public void failedReadKeepsThePreviousState() throws IOException {
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    ComfyConfig first = reader.read(configFile.toPath());
+
+    rows.set(rows.indexOf("enabled = no"), "enabled");
+    Files.write(configFile.toPath(), rows);
+    ComfyException exception = assertThrows(ComfyException.class, () -> reader.read(configFile.toPath()));
+    assertTrue(exception.getMessage().contains("Encountered an invalid line: enabled"));
+
+    rows.set(rows.indexOf("enabled"), "enabled = yes");
+    Files.write(configFile.toPath(), rows);
+    ComfyConfig second = reader.read(configFile.toPath());
+
+    assertThat(reader.getChangedSections()).containsExactly("ftp");
+    assertThat(second.get("common")).isSameAs(first.get("common"));
+    assertThat(second.get("ftp").getBooleanValue("enabled")).isTrue();
+  }
+
+  @Test
+  public void rowWithoutSectionIsStillReported() throws IOException {
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    reader.read(configFile.toPath());
+
+    rows.add(0, "name = no section");
+    Files.write(configFile.toPath(), rows);
+    ComfyException exception = assertThrows(ComfyException.class, () -> reader.read(configFile.toPath()));
+
+    assertTrue(exception
+        .getMessage()
+        .contains("Line found that is not under any section. Please move this line under a section: "));
+  }
+
+  @Test
+  public void smallRegionsGiveTheSameResult() throws IOException {
+    IncrementalConfigFileReader reader = new IncrementalConfigFileReader(new INIPropertyProcessor(), OVERRIDES, 64);
+    ComfyConfig first = reader.read(new FileInputStream(configFile));
+
+    rows.set(rows.indexOf("path =   /tmp/"), "path = /http/");
+    Files.write(configFile.toPath(), rows);
+    ComfyConfig second = reader.read(new FileInputStream(configFile));
+
+    assertThat(reader.getChangedSections()).containsExactly("http");
+    assertThat(second.get("ftp")).isSameAs(first.get("ftp"));
+    assertThat(second.get("http").getStringValue("path")).isEqualTo("/http/");
+    assertThat(second.get("http").getStringValue("name")).isEqualTo("http uploading");
+  }
+}
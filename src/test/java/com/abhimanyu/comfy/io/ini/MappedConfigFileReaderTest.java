@@ -0,0 +1,303 @@
+package com.abhimanyu.comfy.io.ini;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.metrics.LoadStats;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.parse.PropertyProcessor;
+import com.abhimanyu.comfy.parse.ScanningLineParser;
+import com.abhimanyu.comfy.value.ValueType;
+
+public class MappedConfigFileReaderTest {
+  private static final String[] OVERRIDES = new String[] { "production", "ubuntu" };
+
+  @TempDir
+  File tempDirectory;
+
+  private File configFile;
+
+  @BeforeEach
+  public void init() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    List<String> rows = Arrays
+        .asList("; this is the config file format your code should accept.", "[common]", "basic_size_limit= 26214400",
+            "student_size_limit = 52428800", " paid_users_size_limit =  2147483647", "path = /srv/var/tmp/",
+            "path<itscript> = /srv/tmp/", "",
+
+            "[ftp]", "name = \"hello there, ftp uploading\"", "path = /tmp/", "path<production> = /srv/var/tmp/",
+            "path<staging> = /srv/uploads/", "path<ubuntu> = /etc/var/uploads", "enabled = no", "; This is a comment",
+            "",
+
+            "[http]", "name =  \"http uploading\"", "path =   /tmp/", "path<production> = /srv/var/tmp/",
+            "path<staging> = /srv/uploads/; This is another comment", "params = array,  of,values");
+    Files.write(configFile.toPath(), rows);
+  }
+
+  @Test
+  public void typical() {
+    ComfyConfig config = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath());
+
+    assertTypicalConfig(config);
+  }
+
+  @Test
+  public void countsSkippedOverrides() {
+    MappedConfigFileReader reader = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+
+    reader.read(configFile.toPath());
+
+    // itscript and staging in [common] and [ftp], staging in [http].
+    assertThat(reader.getSkippedOverrideLines()).isEqualTo(3);
+  }
+
+  @Test
+  public void readsFromFileInputStream() throws IOException {
+    ComfyConfig config = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(new FileInputStream(configFile));
+
+    assertTypicalConfig(config);
+  }
+
+  @Test
+  public void fileLargerThanOneRegion() {
+    ComfyConfig config = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES, 64)
+        .read(configFile.toPath());
+
+    assertTypicalConfig(config);
+  }
+
+  @Test
+  public void sameResultAsConfigFileReader() throws IOException {
+    ComfyConfig mapped = new MappedConfigFileReader(new INIPropertyProcessor(), new String[] { "staging" })
+        .read(configFile.toPath());
+    ComfyConfig streamed = new ConfigFileReader(new ScanningLineParser(), new INIPropertyProcessor(),
+        new String[] { "staging" }).read(new FileInputStream(configFile));
+
+    assertThat(mapped.size()).isEqualTo(streamed.size());
+    for (String section : new String[] { "common", "ftp", "http" }) {
+      assertThat(mapped.get(section).size()).isEqualTo(streamed.get(section).size());
+      for (String key : new String[] { "path", "name", "basic_size_limit" }) {
+        if (streamed.get(section).get(key) != null) {
+          assertThat(mapped.get(section).get(key).getValue()).isEqualTo(streamed.get(section).get(key).getValue());
+        }
+      }
+    }
+    assertThat(mapped.get("http").getStringValue("path")).isEqualTo("/srv/uploads/");
+  }
+
+  @Test
+  public void recordsTheSameStatisticsAsConfigFileReader() throws IOException {
+    List<LoadStats> loads = new ArrayList<>();
+    MappedConfigFileReader mappedReader = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    mappedReader.setMetrics(loads::add);
+    ConfigFileReader configFileReader = new ConfigFileReader(new ScanningLineParser(), new INIPropertyProcessor(),
+        OVERRIDES);
+    configFileReader.setMetrics(loads::add);
+
+    mappedReader.read(configFile.toPath());
+    configFileReader.read(new FileInputStream(configFile), configFile.toString());
+
+    assertThat(loads).hasSize(2);
+    for (LoadStats stats : loads) {
+      assertThat(stats.getSource()).isEqualTo(configFile.toString());
+      assertThat(stats.getBytesRead()).isEqualTo(configFile.length());
+      assertThat(stats.getSectionLines()).isEqualTo(3);
+      assertThat(stats.getPropertyLines()).isEqualTo(10);
+      assertThat(stats.getSelectedOverrideLines()).isEqualTo(3);
+      assertThat(stats.getSkippedOverrideLines()).isEqualTo(3);
+      assertThat(stats.getCommentLines()).isEqualTo(4);
+      assertThat(stats.getValueCounts()).containsEntry("STRING", 8L).containsEntry("INT", 3L)
+          .containsEntry("BOOLEAN", 1L).containsEntry("ARRAY", 1L).hasSize(4);
+      assertThat(stats.getValueCount(ValueType.INT)).isEqualTo(3);
+      assertThat(stats.getSectionCount()).isEqualTo(3);
+      assertThat(stats.getPeakSectionSize()).isEqualTo(4);
+      assertThat(stats.getTotalNanos()).isPositive()
+          .isGreaterThanOrEqualTo(stats.getTokenizeNanos() + stats.getClassifyNanos() + stats.getBuildNanos());
+    }
+  }
+
+  @Test
+  public void repeatedKeysAndValuesAreShared() throws IOException {
+    List<String> rows = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      rows.addAll(Arrays.asList("[server" + i + "]", "path = /srv/var/tmp/", "enabled = yes", "port = 80"));
+    }
+    Files.write(configFile.toPath(), rows);
+    List<LoadStats> loads = new ArrayList<>();
+    MappedConfigFileReader reader = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    reader.setMetrics(loads::add);
+
+    ComfyConfig config = reader.read(configFile.toPath());
+
+    String path = config.get("server0").getStringValue("path");
+    for (int i = 1; i < 50; i++) {
+      assertThat(config.get("server" + i).getStringValue("path")).isSameAs(path);
+      assertThat(config.get("server" + i).get("port")).isSameAs(config.get("server0").get("port"));
+      assertThat(config.get("server" + i).get("enabled")).isSameAs(config.get("server0").get("enabled"));
+    }
+    // the keys and value tokens of 49 sections were not decoded again, and the int and boolean of all 50 are shared.
+    assertThat(loads.get(0).getDeduplicated()).isEqualTo(49 * 6 + 50 * 2);
+    assertThat(loads.get(0).getDeduplicatedBytes()).isPositive();
+  }
+
+  @Test
+  public void multiByteCharacters() throws IOException {
+    Files
+        .write(configFile.toPath(),
+            Arrays.asList("[i18n]", "greeting = \"héllo wörld\"", "path<ünicode> = /tmp/", "city = Zürich"),
+            StandardCharsets.UTF_8);
+
+    ComfyConfig config = new MappedConfigFileReader(new INIPropertyProcessor(), new String[] { "ünicode" })
+        .read(configFile.toPath());
+
+    assertThat(config.get("i18n").getStringValue("greeting")).isEqualTo("héllo wörld");
+    assertThat(config.get("i18n").getStringValue("city")).isEqualTo("Zürich");
+    assertThat(config.get("i18n").getStringValue("path")).isEqualTo("/tmp/");
+  }
+
+  @Test
+  public void windowsLineEndings() throws IOException {
+    Files.write(configFile.toPath(), "[ftp]\r\nenabled = no\r\npath = /tmp/\r\n".getBytes(StandardCharsets.UTF_8));
+
+    ComfyConfig config = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath());
+
+    assertThat(config.get("ftp").getBooleanValue("enabled")).isFalse();
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/tmp/");
+  }
+
+  @Test
+  public void rowWithoutSection() throws IOException {
+    Files.write(configFile.toPath(), Arrays.asList("basic_size_limit= 26214400", "[ftp]", "enabled =  no"));
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath());
+    });
+
+    assertTrue(exception
+        .getMessage()
+        .contains("Line found that is not under any section. Please move this line under a section: "
+            + "{basic_size_limit= 26214400}"));
+  }
+
+  @Test
+  public void invalidLine() throws IOException {
+    Files.write(configFile.toPath(), Arrays.asList("[ftp]", "name<  = /srv/var/tmp/ ; comment"));
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath());
+    });
+
+    assertThat(exception.getMessage()).isEqualTo("Encountered an invalid line: name<  = /srv/var/tmp/ ");
+  }
+
+  @Test
+  public void lineLongerThanRegion() {
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES, 16).read(configFile.toPath());
+    });
+
+    assertTrue(exception.getMessage().contains("Found a line longer than 16 bytes"));
+  }
+
+  @Test
+  public void emptyFile() throws IOException {
+    Files.write(configFile.toPath(), new byte[0]);
+
+    ComfyConfig config = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath());
+
+    assertThat(config.size()).isZero();
+  }
+
+  @Test
+  public void selectedSectionsAreTheSameAsAFullRead() throws IOException {
+    List<String> rows = new ArrayList<>(Files.readAllLines(configFile.toPath()));
+    rows.addAll(Arrays.asList("[ftp]", "name = repeated", "path<production> = /repeated/"));
+    Files.write(configFile.toPath(), rows);
+    Set<String> sections = new HashSet<>(Arrays.asList("ftp", "smtp"));
+
+    ComfyConfig full = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath());
+    for (long regionSize : new long[] { Integer.MAX_VALUE, 64 }) {
+      ComfyConfig selected = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES, regionSize, sections)
+          .read(configFile.toPath());
+
+      assertThat(selected.sectionNames()).containsExactly("ftp");
+      assertThat(selected.get("ftp").keys()).isEqualTo(full.get("ftp").keys());
+      for (String key : full.get("ftp").keys()) {
+        assertThat(selected.get("ftp").get(key).getValue()).isEqualTo(full.get("ftp").get(key).getValue());
+      }
+      assertThat(selected.get("ftp").getStringValue("path")).isEqualTo("/repeated/");
+    }
+  }
+
+  @Test
+  public void skippedSectionsAreNotParsed() throws IOException {
+    Files.write(configFile.toPath(), Arrays.asList("[common]", "not a line", "size = two words", "[ftp]", "port = 21"));
+    AtomicInteger processed = new AtomicInteger();
+    PropertyProcessor propertyProcessor = value -> {
+      processed.incrementAndGet();
+      return new INIPropertyProcessor().process(value);
+    };
+
+    ComfyConfig config = new MappedConfigFileReader(propertyProcessor, OVERRIDES, Collections.singleton("ftp"))
+        .read(configFile.toPath());
+
+    assertThat(config.get("ftp").getIntValue("port")).isEqualTo(21);
+    assertThat(config.get("common")).isNull();
+    assertThat(processed).hasValue(1);
+  }
+
+  @Test
+  public void rowWithoutSectionFailsWithSelectedSections() throws IOException {
+    Files.write(configFile.toPath(), Arrays.asList("basic_size_limit= 26214400", "[ftp]", "enabled =  no"));
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES, Collections.singleton("ftp"))
+          .read(configFile.toPath());
+    });
+
+    assertTrue(exception.getMessage().contains("Line found that is not under any section."));
+  }
+
+  @Test
+  public void inputStreamThatIsNotAFile() {
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(new ByteArrayInputStream(new byte[0]));
+    });
+
+    assertTrue(exception.getMessage().contains("Memory mapped reading needs a FileInputStream"));
+  }
+
+  private void assertTypicalConfig(ComfyConfig config) {
+    assertThat(config.size()).isEqualTo(3);
+    assertThat(config.get("common").getIntValue("paid_users_size_limit")).isEqualTo(2147483647);
+    assertThat(config.get("common").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("ftp").getStringValue("name")).isEqualTo("hello there, ftp uploading");
+    assertThat(config.get("ftp").getStringValue("lastname")).isNull();
+    assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+    assertThat(config.get("http").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("ftp").getBooleanValue("enabled")).isEqualTo(false);
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+  }
+}
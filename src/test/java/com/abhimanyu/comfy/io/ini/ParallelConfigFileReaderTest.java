@@ -0,0 +1,172 @@
+package com.abhimanyu.comfy.io.ini;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.metrics.LoadStats;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+
+public class ParallelConfigFileReaderTest {
+  private static final String[] OVERRIDES = new String[] { "production" };
+  private static final int SECTIONS = 7;
+  private static final int KEYS = 10;
+
+  @TempDir
+  File tempDirectory;
+
+  private File configFile;
+  private ForkJoinPool pool;
+
+  @BeforeEach
+  public void init() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    pool = new ForkJoinPool(4);
+
+    // Sections repeat all over the file, so the last value of a key is spread over many chunks.
+    List<String> rows = new ArrayList<>();
+    rows.add("; generated config");
+    for (int i = 0; i < 200; i++) {
+      rows.add("[section" + (i % SECTIONS) + "]");
+      rows.add("[a] = " + i);
+      for (int k = 0; k < KEYS; k++) {
+        rows.add("key" + k + " = " + (i * 100 + k));
+        if (i % 3 == 0) {
+          rows.add("key" + k + "<production> = prod" + i);
+        }
+        rows.add("key" + k + "<staging> = staging" + i);
+        if (k % 3 == 0) {
+          rows.add("; comment " + k);
+        }
+      }
+      rows.add("");
+    }
+    Files.write(configFile.toPath(), rows);
+  }
+
+  @AfterEach
+  public void shutdown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void sameResultAsSequentialRead() throws IOException {
+    ParallelConfigFileReader reader = new ParallelConfigFileReader(new INIPropertyProcessor(), OVERRIDES, pool, 512);
+    try (FileChannel channel = FileChannel.open(configFile.toPath(), StandardOpenOption.READ)) {
+      assertThat(reader.chunkBoundaries(channel).size()).isGreaterThan(4);
+    }
+
+    ComfyConfig parallel = reader.read(configFile.toPath());
+    ComfyConfig sequential = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(configFile.toPath());
+
+    assertThat(parallel.size()).isEqualTo(SECTIONS);
+    for (int s = 0; s < SECTIONS; s++) {
+      String section = "section" + s;
+      assertThat(parallel.get(section).size()).isEqualTo(sequential.get(section).size());
+      assertThat(parallel.get(section).getIntValue("[a]")).isEqualTo(sequential.get(section).getIntValue("[a]"));
+      for (int k = 0; k < KEYS; k++) {
+        assertThat(parallel.get(section).get("key" + k).getValue())
+            .isEqualTo(sequential.get(section).get("key" + k).getValue());
+      }
+    }
+    assertThat(parallel.get("section4").getIntValue("[a]")).isEqualTo(193);
+  }
+
+  @Test
+  public void chunkBoundariesAreSectionLines() throws IOException {
+    ParallelConfigFileReader reader = new ParallelConfigFileReader(new INIPropertyProcessor(), OVERRIDES, pool, 512);
+    byte[] bytes = Files.readAllBytes(configFile.toPath());
+
+    try (FileChannel channel = FileChannel.open(configFile.toPath(), StandardOpenOption.READ)) {
+      List<Long> boundaries = reader.chunkBoundaries(channel);
+      assertThat(boundaries.get(0)).isZero();
+      assertThat(boundaries.get(boundaries.size() - 1)).isEqualTo(bytes.length);
+      for (int i = 1; i < boundaries.size() - 1; i++) {
+        int boundary = boundaries.get(i).intValue();
+        assertThat(boundary).isGreaterThan(boundaries.get(i - 1).intValue());
+        assertThat(bytes[boundary - 1]).isEqualTo((byte) '\n');
+        assertThat(new String(bytes, boundary, 8)).isEqualTo("[section");
+      }
+    }
+  }
+
+  @Test
+  public void smallFileIsReadAsOneChunk() throws IOException {
+    ParallelConfigFileReader reader = new ParallelConfigFileReader(new INIPropertyProcessor(), OVERRIDES, pool);
+
+    try (FileChannel channel = FileChannel.open(configFile.toPath(), StandardOpenOption.READ)) {
+      assertThat(reader.chunkBoundaries(channel)).containsExactly(0L, channel.size());
+    }
+    // the last production line wins over the plain lines that follow it.
+    assertThat(reader.read(configFile.toPath()).get("section0").getStringValue("key0")).isEqualTo("prod189");
+  }
+
+  @Test
+  public void invalidLineInALaterChunk() throws IOException {
+    List<String> rows = new ArrayList<>(Files.readAllLines(configFile.toPath()));
+    rows.add(rows.size() - 10, "name<  = /srv/var/tmp/");
+    rows.add(rows.size() - 5, "[broken");
+    Files.write(configFile.toPath(), rows);
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      new ParallelConfigFileReader(new INIPropertyProcessor(), OVERRIDES, pool, 512).read(configFile.toPath());
+    });
+
+    assertThat(exception.getMessage()).isEqualTo("Encountered an invalid line: name<  = /srv/var/tmp/");
+  }
+
+  @Test
+  public void rowWithoutSection() throws IOException {
+    List<String> rows = new ArrayList<>(Files.readAllLines(configFile.toPath()));
+    rows.add(0, "basic_size_limit= 26214400");
+    Files.write(configFile.toPath(), rows);
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      new ParallelConfigFileReader(new INIPropertyProcessor(), OVERRIDES, pool, 512).read(configFile.toPath());
+    });
+
+    assertThat(exception.getMessage()).contains("Line found that is not under any section.");
+  }
+
+  @Test
+  public void recordsTheSameStatisticsAsASequentialRead() {
+    List<LoadStats> loads = new ArrayList<>();
+    ParallelConfigFileReader parallelReader = new ParallelConfigFileReader(new INIPropertyProcessor(), OVERRIDES, pool,
+        1024);
+    parallelReader.setMetrics(loads::add);
+    MappedConfigFileReader mappedReader = new MappedConfigFileReader(new INIPropertyProcessor(), OVERRIDES);
+    mappedReader.setMetrics(loads::add);
+
+    parallelReader.read(configFile.toPath());
+    mappedReader.read(configFile.toPath());
+
+    assertThat(loads).hasSize(2);
+    LoadStats parallel = loads.get(0);
+    LoadStats sequential = loads.get(1);
+    assertThat(parallel.getSource()).isEqualTo(configFile.toPath().toString());
+    assertThat(parallel.getBytesRead()).isEqualTo(configFile.length());
+    assertThat(parallel.getSectionLines()).isEqualTo(sequential.getSectionLines());
+    assertThat(parallel.getPropertyLines()).isEqualTo(sequential.getPropertyLines());
+    assertThat(parallel.getSelectedOverrideLines()).isEqualTo(sequential.getSelectedOverrideLines());
+    assertThat(parallel.getSkippedOverrideLines()).isEqualTo(sequential.getSkippedOverrideLines());
+    assertThat(parallel.getCommentLines()).isEqualTo(sequential.getCommentLines());
+    assertThat(parallel.getValueCounts()).isEqualTo(sequential.getValueCounts());
+    assertThat(parallel.getSectionCount()).isEqualTo(SECTIONS);
+  }
+}
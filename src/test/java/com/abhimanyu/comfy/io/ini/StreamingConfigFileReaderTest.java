@@ -0,0 +1,180 @@
+package com.abhimanyu.comfy.io.ini;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.io.ComfyHandler;
+import com.abhimanyu.comfy.parse.INIPropertyProcessor;
+import com.abhimanyu.comfy.value.ArrayValue;
+import com.abhimanyu.comfy.value.ConfigValue;
+
+public class StreamingConfigFileReaderTest {
+  private static final String[] OVERRIDES = new String[] { "production", "ubuntu" };
+
+  @TempDir
+  File tempDirectory;
+
+  private File configFile;
+
+  @BeforeEach
+  public void init() throws IOException {
+    configFile = new File(tempDirectory, "test.ini");
+    List<String> rows = Arrays
+        .asList("; this is the config file format your code should accept.", "[common]", "basic_size_limit= 26214400",
+            "path<itscript> = /srv/tmp/", "",
+
+            "[ftp]", "path = /tmp/", "path<production> = /srv/var/tmp/", "path<staging> = /srv/uploads/",
+            "enabled = no", "; This is a comment", "",
+
+            "[http]", "name =  \"http uploading\"", "params = array,  of,values");
+    Files.write(configFile.toPath(), rows);
+  }
+
+  @Test
+  public void reportsEveryLineInOrder() {
+    RecordingHandler handler = new RecordingHandler(Integer.MAX_VALUE);
+
+    boolean completed = new StreamingConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(configFile.toPath(), handler);
+
+    assertTrue(completed);
+    assertThat(handler.events)
+        .containsExactly("section common", "property common.basic_size_limit=26214400",
+            "skipped common.path<itscript>", "section ftp", "property ftp.path=/tmp/", "property ftp.path=/srv/var/tmp/",
+            "skipped ftp.path<staging>", "property ftp.enabled=false", "section http",
+            "property http.name=http uploading", "property http.params=[array, of, values]");
+  }
+
+  @Test
+  public void stringsAreNotKeptBetweenLines() throws IOException {
+    Files.write(configFile.toPath(), Arrays.asList("[ftp]", "path = /tmp/", "[http]", "path = /tmp/"));
+    List<String> keys = new ArrayList<>();
+    List<Object> values = new ArrayList<>();
+
+    new StreamingConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath(), new ComfyHandler() {
+      @Override
+      public boolean onProperty(String section, String key, ConfigValue<?> value) {
+        keys.add(key);
+        values.add(value.getValue());
+        return true;
+      }
+    });
+
+    // a pool would return the Strings of the first line for the second.
+    assertThat(keys.get(1)).isEqualTo(keys.get(0)).isNotSameAs(keys.get(0));
+    assertThat(values.get(1)).isEqualTo(values.get(0)).isNotSameAs(values.get(0));
+  }
+
+  @Test
+  public void stopsWhenAHandlerReturnsFalse() {
+    RecordingHandler handler = new RecordingHandler(4);
+
+    boolean completed = new StreamingConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(configFile.toPath(), handler);
+
+    assertFalse(completed);
+    assertThat(handler.events).hasSize(4).endsWith("section ftp");
+  }
+
+  @Test
+  public void stopsBeforeAnInvalidLineThatIsNeverReached() throws IOException {
+    List<String> rows = new ArrayList<>(Files.readAllLines(configFile.toPath()));
+    rows.add("not a valid line");
+    Files.write(configFile.toPath(), rows);
+    List<String> sections = new ArrayList<>();
+
+    boolean completed = new StreamingConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+        .read(configFile.toPath(), new ComfyHandler() {
+          @Override
+          public boolean onSection(String section) {
+            sections.add(section);
+            return !section.equals("http");
+          }
+        });
+
+    assertFalse(completed);
+    assertThat(sections).containsExactly("common", "ftp", "http");
+  }
+
+  @Test
+  public void smallRegionsGiveTheSameEvents() throws IOException {
+    RecordingHandler whole = new RecordingHandler(Integer.MAX_VALUE);
+    RecordingHandler regions = new RecordingHandler(Integer.MAX_VALUE);
+
+    new StreamingConfigFileReader(new INIPropertyProcessor(), OVERRIDES).read(configFile.toPath(), whole);
+    new StreamingConfigFileReader(new INIPropertyProcessor(), OVERRIDES, 64)
+        .read(new FileInputStream(configFile), regions);
+
+    assertThat(regions.events).isEqualTo(whole.events);
+  }
+
+  @Test
+  public void lineWithoutSection() throws IOException {
+    Files.write(configFile.toPath(), Arrays.asList("name = no section", "[ftp]"));
+
+    ComfyException exception = assertThrows(ComfyException.class,
+        () -> new StreamingConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+            .read(configFile.toPath(), new RecordingHandler(Integer.MAX_VALUE)));
+
+    assertTrue(exception
+        .getMessage()
+        .contains("Line found that is not under any section. Please move this line under a section: "));
+  }
+
+  @Test
+  public void notAFileInputStream() {
+    ComfyException exception = assertThrows(ComfyException.class,
+        () -> new StreamingConfigFileReader(new INIPropertyProcessor(), OVERRIDES)
+            .read(new ByteArrayInputStream(new byte[0]), new RecordingHandler(Integer.MAX_VALUE)));
+
+    assertTrue(exception.getMessage().contains("Streaming reading needs a FileInputStream, found: "));
+  }
+
+  // Records the events as Strings and stops after the given number of them.
+  private static final class RecordingHandler implements ComfyHandler {
+    private final List<String> events = new ArrayList<>();
+    private final int limit;
+
+    RecordingHandler(int limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean onSection(String section) {
+      return record("section " + section);
+    }
+
+    @Override
+    public boolean onProperty(String section, String key, ConfigValue<?> value) {
+      Object raw = value.getValue();
+      String text = value instanceof ArrayValue ? Arrays.toString((String[]) raw) : String.valueOf(raw);
+      return record("property " + section + "." + key + "=" + text);
+    }
+
+    @Override
+    public boolean onOverrideSkipped(String section, String key, String override) {
+      return record("skipped " + section + "." + key + "<" + override + ">");
+    }
+
+    private boolean record(String event) {
+      events.add(event);
+      return events.size() < limit;
+    }
+  }
+}
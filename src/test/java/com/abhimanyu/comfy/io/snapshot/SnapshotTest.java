@@ -0,0 +1,195 @@
+package com.abhimanyu.comfy.io.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abhimanyu.comfy.Allocations;
+import com.abhimanyu.comfy.Comfy;
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.config.FrozenComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.value.Converters;
+import com.abhimanyu.comfy.value.StringValue;
+
+public class SnapshotTest {
+  private static final String[] OVERRIDES = new String[] { "production", "ubuntu" };
+
+  @TempDir
+  File tempDirectory;
+
+  private Path source;
+  private Path snapshot;
+
+  @BeforeEach
+  public void init() throws IOException {
+    source = new File(tempDirectory, "test.ini").toPath();
+    snapshot = new File(tempDirectory, "test.comfy").toPath();
+    List<String> rows = Arrays
+        .asList("[common]", "basic_size_limit= 26214400", "big = 9000000000", "path = /srv/var/tmp/",
+            "path<itscript> = /srv/tmp/", "",
+
+            "[ftp]", "name = \"hello there, ftp uploading\"", "path = /tmp/", "path<production> = /srv/var/tmp/",
+            "path<ubuntu> = /etc/var/uploads", "enabled = no", "",
+
+            "[http]", "name =  \"http uploading\"", "params = array,  of,values", "négatif = -1", "cache = true");
+    Files.write(source, rows);
+  }
+
+  @Test
+  public void roundTripKeepsEveryValue() {
+    ComfyConfig config = compileAndLoad();
+
+    assertThat(config.size()).isEqualTo(3);
+    assertThat(config.get("common").getIntValue("basic_size_limit")).isEqualTo(26214400);
+    assertThat(config.get("common").getLongValue("big")).isEqualTo(9000000000L);
+    assertThat(config.get("common").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("ftp").getStringValue("name")).isEqualTo("hello there, ftp uploading");
+    assertThat(config.get("ftp").getStringValue("path")).isEqualTo("/srv/var/tmp/");
+    assertThat(config.get("ftp").getBooleanValue("enabled")).isFalse();
+    assertThat(config.get("http").getArrayValue("params")).isEqualTo(new String[] { "array", "of", "values" });
+    assertThat(config.get("http").getInt("négatif", 0)).isEqualTo(-1);
+    assertThat(config.get("http").getBoolean("cache", false)).isTrue();
+    assertThat(config.get("http").getStringValue("missing")).isNull();
+    assertThat(config.get("smtp")).isNull();
+    assertThat(config.get("http").keys()).containsExactlyInAnyOrder("name", "params", "négatif", "cache");
+  }
+
+  @Test
+  public void snapshotIsReadOnly() {
+    ComfyConfig config = compileAndLoad();
+
+    assertThrows(UnsupportedOperationException.class, () -> config.get("ftp").put("name", new StringValue("x")));
+    assertThrows(UnsupportedOperationException.class, () -> config.put("smtp", "port", new StringValue("25")));
+  }
+
+  @Test
+  public void snapshotCanBeFrozen() {
+    FrozenComfyConfig frozen = compileAndLoad().freeze();
+
+    assertThat(frozen.keyCount()).isEqualTo(10);
+    assertThat(frozen.getStringValue("ftp", "path")).isEqualTo("/srv/var/tmp/");
+  }
+
+  @Test
+  public void corruptSnapshotIsRejected() throws IOException {
+    Comfy.compileSnapshot(source, OVERRIDES, snapshot);
+    byte[] bytes = Files.readAllBytes(snapshot);
+    bytes[bytes.length - 10] ^= 1;
+    Files.write(snapshot, bytes);
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> new SnapshotLoader().load(snapshot));
+    assertTrue(exception.getMessage().contains("Snapshot checksum does not match, the file is corrupt: "));
+  }
+
+  @Test
+  public void otherFileIsRejected() {
+    ComfyException exception = assertThrows(ComfyException.class, () -> new SnapshotLoader().load(source));
+    assertTrue(exception.getMessage().contains("Not a Comfy snapshot: "));
+    assertFalse(new SnapshotLoader().isUpToDate(source, source, OVERRIDES));
+  }
+
+  @Test
+  public void touchedSourceIsStillUpToDate() throws IOException {
+    Comfy.compileSnapshot(source, OVERRIDES, snapshot);
+    Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 10_000));
+
+    SnapshotLoader loader = new SnapshotLoader();
+    assertTrue(loader.isUpToDate(snapshot, source, new String[] { "production", "ubuntu", "production" }));
+    // the order of the overrides is their priority, so it can change the config.
+    assertFalse(loader.isUpToDate(snapshot, source, new String[] { "ubuntu", "production" }));
+  }
+
+  @Test
+  public void changedSourceOrOverridesAreStale() throws IOException {
+    SnapshotLoader loader = new SnapshotLoader();
+    assertFalse(loader.isUpToDate(snapshot, source, OVERRIDES));
+
+    Comfy.compileSnapshot(source, OVERRIDES, snapshot);
+    assertTrue(loader.isUpToDate(snapshot, source, OVERRIDES));
+    assertFalse(loader.isUpToDate(snapshot, source, new String[] { "production" }));
+
+    Files.write(source, Arrays.asList("[ftp]", "path = /tmp/"));
+    assertFalse(loader.isUpToDate(snapshot, source, OVERRIDES));
+  }
+
+  @Test
+  public void configWithoutSource() {
+    ComfyConfig config = new ComfyConfig();
+    config.put("ftp", "name", new StringValue("ftp"));
+    SnapshotWriter writer = new SnapshotWriter();
+    writer.write(config, new String[0], SourceStamp.NONE, snapshot);
+
+    assertThat(new SnapshotLoader().load(snapshot).get("ftp").getStringValue("name")).isEqualTo("ftp");
+    assertFalse(new SnapshotLoader().isUpToDate(snapshot, source, new String[0]));
+  }
+
+  @Test
+  public void offHeapBufferKeepsEveryValue() {
+    ComfyConfig heap = Comfy.loadConfig(source, OVERRIDES);
+    ByteBuffer buffer = new SnapshotWriter().writeOffHeap(heap, OVERRIDES);
+    ComfyConfig offHeap = new SnapshotLoader().load(buffer);
+
+    assertTrue(buffer.isDirect());
+    assertThat(offHeap.sectionNames()).containsExactlyInAnyOrder("common", "ftp", "http");
+    for (String section : heap.sectionNames()) {
+      for (String key : heap.get(section).keys()) {
+        assertThat(offHeap.get(section).get(key)).isEqualToComparingFieldByField(heap.get(section).get(key));
+      }
+    }
+  }
+
+  @Test
+  public void loadingABufferKeepsNothingOfTheConfigOnTheHeap() {
+    ComfyConfig heap = new ComfyConfig();
+    for (int section = 0; section < 1000; section++) {
+      for (int key = 0; key < 20; key++) {
+        heap.put("section_" + section, "key_" + key, new StringValue("value " + section + " " + key));
+      }
+    }
+    ByteBuffer buffer = new SnapshotWriter().writeOffHeap(heap, new String[0]);
+    SnapshotLoader loader = new SnapshotLoader();
+    loader.load(buffer);
+
+    long bytes = Allocations.bytesAllocated(() -> loader.load(buffer));
+
+    // a few view objects, against megabytes for the same 20000 keys in HashMaps.
+    assertThat(bytes).isLessThan(1024);
+    assertThat(loader.load(buffer).get("section_999").getStringValue("key_19")).isEqualTo("value 999 19");
+  }
+
+  @Test
+  public void conversionsOfASnapshotAreKept() {
+    ComfyConfig heap = Comfy.loadConfig(source, OVERRIDES);
+    ComfyConfig offHeap = new SnapshotLoader().load(new SnapshotWriter().writeOffHeap(heap, OVERRIDES));
+
+    for (ComfyConfig config : Arrays.asList(compileAndLoad(), offHeap)) {
+      assertThat(config.get("http")).isSameAs(config.get("http"));
+      List<String> params = config.get("http").getListValue("params");
+      assertThat(params).containsExactly("array", "of", "values");
+      assertThat(config.get("http").getListValue("params")).isSameAs(params);
+      Path path = config.get("ftp").getAs("path", Converters.PATH);
+      assertThat(config.get("ftp").getAs("path", Converters.PATH)).isSameAs(path).isEqualTo(Paths.get("/srv/var/tmp/"));
+    }
+  }
+
+  private ComfyConfig compileAndLoad() {
+    Comfy.compileSnapshot(source, OVERRIDES, snapshot);
+    return new SnapshotLoader().load(snapshot);
+  }
+}
@@ -0,0 +1,97 @@
+package com.abhimanyu.comfy.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhimanyu.comfy.config.ComfyConfig;
+import com.abhimanyu.comfy.exception.ComfyException;
+import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.StringValue;
+
+public class JmxComfyMetricsTest {
+
+  @Test
+  public void keepsTheLastLoads() {
+    try (JmxComfyMetrics metrics = new JmxComfyMetrics("keepsTheLastLoads", 2)) {
+      for (int i = 0; i < 3; i++) {
+        record(metrics, "file" + i);
+      }
+
+      assertThat(metrics.getLoadCount()).isEqualTo(3);
+      assertThat(metrics.getLastLoads()).extracting(LoadStats::getSource).containsExactly("file1", "file2");
+      assertThat(metrics.getLastLoadSummaries().get(1)).startsWith("file2: ");
+
+      metrics.clear();
+      assertThat(metrics.getLoadCount()).isZero();
+      assertThat(metrics.getLastLoads()).isEmpty();
+    }
+  }
+
+  @Test
+  public void loadsAreReadableOverJmx() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try (JmxComfyMetrics metrics = new JmxComfyMetrics("loadsAreReadableOverJmx", 4)) {
+      record(metrics, "test.ini");
+
+      assertThat(metrics.getObjectName().toString())
+          .isEqualTo("com.abhimanyu.comfy:type=ComfyMetrics,name=loadsAreReadableOverJmx");
+      assertThat(server.getAttribute(metrics.getObjectName(), "LoadCount")).isEqualTo(1L);
+      CompositeData[] loads = (CompositeData[]) server.getAttribute(metrics.getObjectName(), "LastLoads");
+      assertThat(loads).hasSize(1);
+      assertThat(loads[0].get("source")).isEqualTo("test.ini");
+      assertThat(loads[0].get("propertyLines")).isEqualTo(2L);
+      assertThat(loads[0].get("peakSectionSize")).isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void closeUnregistersTheBean() {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    JmxComfyMetrics metrics = new JmxComfyMetrics("closeUnregistersTheBean", 4);
+    assertTrue(server.isRegistered(metrics.getObjectName()));
+
+    metrics.close();
+
+    assertFalse(server.isRegistered(metrics.getObjectName()));
+  }
+
+  @Test
+  public void nameCanOnlyBeUsedOnce() {
+    try (JmxComfyMetrics metrics = new JmxComfyMetrics("nameCanOnlyBeUsedOnce", 4)) {
+      ComfyException exception = assertThrows(ComfyException.class,
+          () -> new JmxComfyMetrics("nameCanOnlyBeUsedOnce", 4));
+
+      assertTrue(exception.getMessage().contains("Failed to register the metrics MBean: nameCanOnlyBeUsedOnce"));
+    }
+  }
+
+  @Test
+  public void disabledRecorderRecordsNothing() {
+    LoadRecorder recorder = LoadRecorder.start(null, "test.ini");
+
+    assertFalse(recorder.isEnabled());
+    assertThat(recorder.now()).isZero();
+    recorder.propertyLine(new IntValue(1));
+    recorder.finish(new ComfyConfig());
+  }
+
+  private static void record(ComfyMetrics metrics, String source) {
+    LoadRecorder recorder = LoadRecorder.start(metrics, source);
+    ComfyConfig config = new ComfyConfig();
+    config.put("common", "size", new IntValue(10));
+    config.put("common", "name", new StringValue("name"));
+    recorder.sectionLine();
+    recorder.propertyLine(new IntValue(10));
+    recorder.propertyLine(new StringValue("name"));
+    recorder.finish(config);
+  }
+}
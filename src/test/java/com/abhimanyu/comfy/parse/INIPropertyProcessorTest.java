@@ -4,13 +4,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.regex.Pattern;
+
 import org.junit.jupiter.api.Test;
 
+import com.abhimanyu.comfy.Allocations;
 import com.abhimanyu.comfy.exception.ComfyException;
 import com.abhimanyu.comfy.value.ArrayValue;
 import com.abhimanyu.comfy.value.BooleanValue;
 import com.abhimanyu.comfy.value.ConfigValue;
 import com.abhimanyu.comfy.value.IntValue;
+import com.abhimanyu.comfy.value.LongValue;
 import com.abhimanyu.comfy.value.StringValue;
 
 public class INIPropertyProcessorTest {
@@ -64,6 +68,19 @@ public class INIPropertyProcessorTest {
     assertThat(configValue.getValue()).isEqualTo(-52428800);
   }
 
+  @Test
+  public void longValue() {
+    ConfigValue<?> configValue = propertyProcessor.process("2147483648");
+    ConfigValue<?> negative = propertyProcessor.process("-9223372036854775808");
+    ConfigValue<?> intMax = propertyProcessor.process("2147483647");
+
+    assertThat(configValue).isInstanceOf(LongValue.class);
+    assertThat(configValue.getValue()).isEqualTo(2147483648L);
+    assertThat(negative).isInstanceOf(LongValue.class);
+    assertThat(negative.getValue()).isEqualTo(Long.MIN_VALUE);
+    assertThat(intMax).isInstanceOf(IntValue.class);
+  }
+
   @Test
   public void typicalBooleanValue() {
     ConfigValue<?> yes = propertyProcessor.process("yes");
@@ -151,4 +168,69 @@ public class INIPropertyProcessorTest {
 
     assertTrue(exception.getMessage().contains("Found null or empty value: "));
   }
+
+  @Test
+  public void upperCaseBooleanValue() {
+    assertThat(propertyProcessor.process("YES").getValue()).isEqualTo(true);
+    assertThat(propertyProcessor.process("False").getValue()).isEqualTo(false);
+  }
+
+  @Test
+  public void arrayValueWithBlankElement() {
+    ConfigValue<?> configValue = propertyProcessor.process("a, ,b");
+
+    assertThat(configValue).isInstanceOf(ArrayValue.class);
+    assertThat(configValue.getValue()).isEqualTo(new String[] { "a", "", "b" });
+  }
+
+  @Test
+  public void emptyQuotedString() {
+    ConfigValue<?> configValue = propertyProcessor.process("\"\"");
+
+    assertThat(configValue).isInstanceOf(StringValue.class);
+    assertThat(configValue.getValue()).isEqualTo("");
+  }
+
+  @Test
+  public void minusSignIsText() {
+    ConfigValue<?> configValue = propertyProcessor.process("-");
+
+    assertThat(configValue).isInstanceOf(StringValue.class);
+    assertThat(configValue.getValue()).isEqualTo("-");
+  }
+
+  @Test
+  public void commonValuesAreSharedInstances() {
+    assertThat(propertyProcessor.process("no")).isSameAs(BooleanValue.FALSE);
+    assertThat(propertyProcessor.process("true")).isSameAs(BooleanValue.TRUE);
+    assertThat(propertyProcessor.process("-1")).isSameAs(propertyProcessor.process("-1"));
+    assertThat(propertyProcessor.process("1024")).isSameAs(IntValue.of(1024));
+    assertThat(propertyProcessor.process("1025")).isNotSameAs(propertyProcessor.process("1025"));
+  }
+
+  @Test
+  public void stringsAreDeduplicatedThroughThePool() {
+    StringPool pool = new StringPool();
+    ArrayValue first = (ArrayValue) propertyProcessor.process("tmp, var, tmp", pool);
+    StringValue text = (StringValue) propertyProcessor.process("tmp", pool);
+
+    assertThat(first.getValue()[2]).isSameAs(first.getValue()[0]);
+    assertThat(text.getValue()).isSameAs(first.getValue()[0]);
+  }
+
+  @Test
+  public void allocatesLessThanASingleRegexMatch() {
+    // The classifier itself should not allocate, so the cost of a value is the ConfigValue.
+    Pattern pattern = Pattern.compile("^-?\\d+$");
+    double regexBaseline = Allocations.bytesPerOperation(100_000, i -> pattern.matcher("52428800"));
+
+    double text = Allocations.bytesPerOperation(100_000, i -> propertyProcessor.process("/etc/var/uploads"));
+    double bool = Allocations.bytesPerOperation(100_000, i -> propertyProcessor.process("yes"));
+    double number = Allocations.bytesPerOperation(100_000, i -> propertyProcessor.process("52428800"));
+
+    assertThat(text).isLessThanOrEqualTo(32);
+    assertThat(bool).isLessThanOrEqualTo(32);
+    assertThat(number).isLessThanOrEqualTo(32);
+    assertThat(number).isLessThan(regexBaseline);
+  }
 }
@@ -0,0 +1,265 @@
+package com.abhimanyu.comfy.parse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.abhimanyu.comfy.Allocations;
+import com.abhimanyu.comfy.exception.ComfyException;
+
+public class ScanningLineParserTest {
+
+  private final LineParser scanningLineParser = new ScanningLineParser();
+  private final LineParser filteringLineParser = new FilteringLineParser();
+
+  @Test
+  public void typicalStringLine() {
+    String line = "name = \"hello there, ftp uploading\"";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens.getSectionName()).isNull();
+    assertThat(lineTokens.getKey()).isEqualTo("name");
+    assertThat(lineTokens.getValue()).isEqualTo("\"hello there, ftp uploading\"");
+    assertThat(lineTokens.getOverride()).isNull();
+  }
+
+  @Test
+  public void testThatAllTokensAreTrimmed() {
+    String line = "    name    =    \"hello there, ftp uploading\"    ";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens.getSectionName()).isNull();
+    assertThat(lineTokens.getKey()).isEqualTo("name");
+    assertThat(lineTokens.getValue()).isEqualTo("\"hello there, ftp uploading\"");
+    assertThat(lineTokens.getOverride()).isNull();
+  }
+
+  @Test
+  public void typicalCommentLine() {
+    String line = "; this is the config file format your code should accept.";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens).isNull();
+  }
+
+  @Test
+  public void typicalOverrideLine() {
+    String line = "path<production>       = /srv/var/tmp/";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens.getSectionName()).isNull();
+    assertThat(lineTokens.getKey()).isEqualTo("path");
+    assertThat(lineTokens.getValue()).isEqualTo("/srv/var/tmp/");
+    assertThat(lineTokens.getOverride()).isEqualTo("production");
+  }
+
+  @Test
+  public void overrideLineWithComment() {
+    String line = "path<staging> = /srv/uploads/; This is another comment";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens.getSectionName()).isNull();
+    assertThat(lineTokens.getKey()).isEqualTo("path");
+    assertThat(lineTokens.getValue()).isEqualTo("/srv/uploads/");
+    assertThat(lineTokens.getOverride()).isEqualTo("staging");
+  }
+
+  @Test
+  public void overrideLineWithStringValue() {
+    String line = "key<production> = \"test\"";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens.getSectionName()).isNull();
+    assertThat(lineTokens.getKey()).isEqualTo("key");
+    assertThat(lineTokens.getValue()).isEqualTo("\"test\"");
+    assertThat(lineTokens.getOverride()).isEqualTo("production");
+  }
+
+  @Test
+  public void typicalSectionLine() {
+    String line = "[ftp]";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens.getSectionName()).isEqualTo("ftp");
+    assertThat(lineTokens.getKey()).isNull();
+    assertThat(lineTokens.getValue()).isNull();
+    assertThat(lineTokens.getOverride()).isNull();
+  }
+
+  @Test
+  public void typicalLineWithArrayValues() {
+    String line = "params   =      array,  of,  values";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens.getSectionName()).isNull();
+    assertThat(lineTokens.getKey()).isEqualTo("params");
+    assertThat(lineTokens.getValue()).isEqualTo("array,  of,  values");
+    assertThat(lineTokens.getOverride()).isNull();
+  }
+
+  @Test
+  public void malformedLineWithOverrideAndMissingKey() {
+    String line = "<production>       = /srv/var/tmp/";
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      scanningLineParser.parse(line);
+    });
+
+    assertTrue(exception.getMessage().contains("Encountered an invalid line: "));
+  }
+
+  @Test
+  public void malformedLineWithInvalidKey() {
+    String line = "name<  = /srv/var/tmp/";
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      scanningLineParser.parse(line);
+    });
+
+    assertTrue(exception.getMessage().contains("Encountered an invalid line: "));
+  }
+
+  @Test
+  public void malformedLineWithInvalidSectionToken() {
+    String line = "[section";
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      scanningLineParser.parse(line);
+    });
+
+    assertTrue(exception.getMessage().contains("Encountered an invalid line: "));
+  }
+
+  @Test
+  public void malformedLineWithJustAWord() {
+    String line = "section";
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      scanningLineParser.parse(line);
+    });
+
+    assertTrue(exception.getMessage().contains("Encountered an invalid line: "));
+  }
+
+  @Test
+  public void malformedLineWithMissingValue() {
+    String line = "name = ";
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      scanningLineParser.parse(line);
+    });
+
+    assertTrue(exception.getMessage().contains("Encountered an invalid line: "));
+  }
+
+  @Test
+  public void malformedLineWithMissingKey() {
+    String line = " = value";
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      scanningLineParser.parse(line);
+    });
+
+    assertTrue(exception.getMessage().contains("Encountered an invalid line: "));
+  }
+
+  @Test
+  public void malformedLineWithBothKeyAndValueMissing() {
+    String line = " =     ";
+
+    ComfyException exception = assertThrows(ComfyException.class, () -> {
+      scanningLineParser.parse(line);
+    });
+
+    assertTrue(exception.getMessage().contains("Encountered an invalid line: "));
+  }
+
+  @Test
+  public void emptyLine() {
+    String line = "          ";
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens).isNull();
+  }
+
+  @Test
+  public void nullLine() {
+    String line = null;
+    LineTokens lineTokens = scanningLineParser.parse(line);
+
+    assertThat(lineTokens).isNull();
+  }
+
+  @Test
+  public void unselectedOverride() {
+    OverrideSelector selector = new OverrideSelector(new String[] { "production", "ubuntu" });
+    ScanningLineParser parser = new ScanningLineParser();
+
+    assertThat(parser.isUnselectedOverride("path<staging> = /srv/uploads/", selector)).isTrue();
+    assertThat(parser.isUnselectedOverride("path< ubuntu > = /srv/uploads/; comment", selector)).isFalse();
+    assertThat(parser.isUnselectedOverride("path = /srv/uploads/", selector)).isFalse();
+    assertThat(parser.isUnselectedOverride("[ftp]", selector)).isFalse();
+    assertThat(parser.isUnselectedOverride("; path<staging> = /srv/uploads/", selector)).isFalse();
+  }
+
+  @Test
+  public void parseReusesTheScanOfTheSameLine() {
+    OverrideSelector selector = new OverrideSelector(new String[] { "ubuntu" });
+    ScanningLineParser parser = new ScanningLineParser();
+    String line = "path<ubuntu> = /etc/var/uploads";
+
+    assertThat(parser.isUnselectedOverride(line, selector)).isFalse();
+    LineTokens lineTokens = parser.parse(line);
+
+    assertThat(lineTokens.getKey()).isEqualTo("path");
+    assertThat(lineTokens.getOverride()).isEqualTo("ubuntu");
+    assertThat(lineTokens.getValue()).isEqualTo("/etc/var/uploads");
+    assertThat(parser.parse("name = value").getKey()).isEqualTo("name");
+  }
+
+  @Test
+  public void skippingAnUnselectedOverrideDoesNotAllocate() {
+    OverrideSelector selector = new OverrideSelector(new String[] { "production", "ubuntu" });
+    ScanningLineParser parser = new ScanningLineParser();
+    String line = "path<staging> = /srv/uploads/";
+
+    double bytes = Allocations.bytesPerOperation(100_000, i -> parser.isUnselectedOverride(line, selector));
+
+    // only the boxed Boolean returned to the helper, which is a cached instance.
+    assertThat(bytes).isLessThan(1);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "a=b=c", "a==", "ab=", "=a", "a = x<y>", "a<b>=c>=d", "a<b> = c", "a< >= b", "a<>= b",
+      "a>b<c> = d", "a = ;comment", "[ftp] ", "[ftp] ; comment", "[ftp]=x", "[]", "[f-tp]", ";", ";;;",
+      "\t key\t=\tv\t", "key <prod> = v", "key<prod>\t=\t\"quoted; value\"", "key<prod>=", "key<a>=<b>=c",
+      " key = <v> " })
+  public void producesSameTokensAsFilteringLineParser(String line) {
+    LineTokens expected;
+    try {
+      expected = filteringLineParser.parse(line);
+    } catch (ComfyException e) {
+      ComfyException actual = assertThrows(ComfyException.class, () -> scanningLineParser.parse(line));
+      assertThat(actual.getMessage()).isEqualTo(e.getMessage());
+      return;
+    } catch (ArrayIndexOutOfBoundsException e) {
+      // FilteringLineParser fails on a line made only of ';', which is a plain comment.
+      assertThat(scanningLineParser.parse(line)).isNull();
+      return;
+    }
+
+    LineTokens actual = scanningLineParser.parse(line);
+    if (expected == null) {
+      assertThat(actual).isNull();
+      return;
+    }
+    assertThat(actual.getSectionName()).isEqualTo(expected.getSectionName());
+    assertThat(actual.getKey()).isEqualTo(expected.getKey());
+    assertThat(actual.getValue()).isEqualTo(expected.getValue());
+    assertThat(actual.getOverride()).isEqualTo(expected.getOverride());
+  }
+}
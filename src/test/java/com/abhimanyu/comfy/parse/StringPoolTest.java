@@ -0,0 +1,91 @@
+package com.abhimanyu.comfy.parse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.abhimanyu.comfy.Allocations;
+
+public class StringPoolTest {
+
+  @Test
+  public void equalStringsAreTheSameInstance() {
+    StringPool pool = new StringPool();
+    String first = pool.intern(new String("path"));
+    String second = pool.intern(new String("path"));
+
+    assertThat(second).isSameAs(first);
+    assertThat(pool.size()).isEqualTo(1);
+    assertThat(pool.getDeduplicated()).isEqualTo(1);
+    // a 24 byte String and its 16 + 4 byte array, aligned to 24.
+    assertThat(pool.getSavedBytes()).isEqualTo(48);
+  }
+
+  @Test
+  public void internedStringIsNotCountedAgain() {
+    StringPool pool = new StringPool();
+    String path = pool.intern(new String("path"));
+
+    assertThat(pool.intern(path)).isSameAs(path);
+    assertThat(pool.getDeduplicated()).isZero();
+  }
+
+  @Test
+  public void bytesAreLookedUpWithoutDecoding() {
+    StringPool pool = new StringPool();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+    buffer.put("name = path\npath".getBytes(StandardCharsets.UTF_8));
+    String path = pool.intern(buffer, 7, 11);
+
+    assertThat(path).isEqualTo("path");
+    assertThat(pool.intern(buffer, 12, 16)).isSameAs(path);
+    assertThat(pool.intern("path")).isSameAs(path);
+    assertThat(pool.intern(buffer, 0, 4)).isEqualTo("name");
+
+    double bytes = Allocations.bytesPerOperation(100_000, i -> pool.intern(buffer, 12, 16));
+    assertThat(bytes).isLessThan(1);
+  }
+
+  @Test
+  public void multiByteCharacters() {
+    StringPool pool = new StringPool();
+    ByteBuffer buffer = ByteBuffer.wrap("Zürich Zürich".getBytes(StandardCharsets.UTF_8));
+    String city = pool.intern(buffer, 0, 7);
+
+    assertThat(city).isEqualTo("Zürich");
+    assertThat(pool.intern(buffer, 8, 15)).isSameAs(city);
+    assertThat(pool.intern("Zürich")).isSameAs(city);
+  }
+
+  @Test
+  public void growsPastItsInitialCapacity() {
+    StringPool pool = new StringPool();
+    String[] first = new String[10_000];
+    for (int i = 0; i < first.length; i++) {
+      first[i] = pool.intern("key" + i);
+    }
+
+    assertThat(pool.size()).isEqualTo(10_000);
+    for (int i = 0; i < first.length; i++) {
+      assertThat(pool.intern("key" + i)).isSameAs(first[i]);
+    }
+    assertThat(pool.getDeduplicated()).isEqualTo(10_000);
+  }
+
+  @Test
+  public void sharedValuesAreCounted() {
+    StringPool pool = new StringPool();
+    INIPropertyProcessor propertyProcessor = new INIPropertyProcessor();
+
+    assertThat(propertyProcessor.process("yes", pool)).isSameAs(propertyProcessor.process("true", pool));
+    assertThat(propertyProcessor.process("21", pool)).isSameAs(propertyProcessor.process(" 21 ", pool));
+    // outside of the cached range, a new value each time.
+    assertThat(propertyProcessor.process("26214400", pool)).isNotSameAs(propertyProcessor.process("26214400", pool));
+
+    assertThat(pool.getDeduplicated()).isEqualTo(4);
+    assertThat(pool.getSavedBytes()).isEqualTo(64);
+  }
+}
@@ -0,0 +1,71 @@
+package com.abhimanyu.comfy.value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.abhimanyu.comfy.exception.ComfyException;
+
+public class ConvertersTest {
+
+  @Test
+  public void durations() {
+    assertThat(Converters.DURATION.convert(new StringValue("500ms"))).isEqualTo(Duration.ofMillis(500));
+    assertThat(Converters.DURATION.convert(new StringValue("30s"))).isEqualTo(Duration.ofSeconds(30));
+    assertThat(Converters.DURATION.convert(new StringValue("5 m"))).isEqualTo(Duration.ofMinutes(5));
+    assertThat(Converters.DURATION.convert(new StringValue("2H"))).isEqualTo(Duration.ofHours(2));
+    assertThat(Converters.DURATION.convert(new StringValue("1d"))).isEqualTo(Duration.ofDays(1));
+    assertThat(Converters.DURATION.convert(new StringValue("PT1M30S"))).isEqualTo(Duration.ofSeconds(90));
+    assertThat(Converters.DURATION.convert(new IntValue(250))).isEqualTo(Duration.ofMillis(250));
+  }
+
+  @Test
+  public void byteSizes() {
+    assertThat(Converters.BYTE_SIZE.convert(new IntValue(26214400))).isEqualTo(26214400L);
+    assertThat(Converters.BYTE_SIZE.convert(new StringValue("25MB"))).isEqualTo(26214400L);
+    assertThat(Converters.BYTE_SIZE.convert(new StringValue("512 b"))).isEqualTo(512L);
+    assertThat(Converters.BYTE_SIZE.convert(new StringValue("2GB"))).isEqualTo(2L << 30);
+    assertThat(Converters.BYTE_SIZE.convert(new LongValue(1L << 40))).isEqualTo(1L << 40);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "", "MB", "10 PB", "1.5GB", "99999999TB", "-1KB" })
+  public void invalidByteSizes(String text) {
+    assertThatThrownBy(() -> Converters.BYTE_SIZE.convert(new StringValue(text)))
+        .isInstanceOf(ComfyException.class)
+        .hasMessageStartingWith("Failed to convert");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "", "soon", "10 weeks", "P1X" })
+  public void invalidDurations(String text) {
+    assertThatThrownBy(() -> Converters.DURATION.convert(new StringValue(text)))
+        .isInstanceOf(ComfyException.class)
+        .hasMessageStartingWith("Failed to convert");
+  }
+
+  @Test
+  public void pathsAndEnums() {
+    assertThat(Converters.PATH.convert(new StringValue("/srv/var/tmp/"))).isEqualTo(Paths.get("/srv/var/tmp/"));
+    assertThat(Converters.enumOf(TimeUnit.class).convert(new StringValue("seconds"))).isEqualTo(TimeUnit.SECONDS);
+    assertThat(Converters.enumOf(TimeUnit.class)).isEqualTo(Converters.enumOf(TimeUnit.class));
+    assertThatThrownBy(() -> Converters.enumOf(TimeUnit.class).convert(new StringValue("weeks")))
+        .hasMessage("Failed to convert weeks to a TimeUnit.");
+  }
+
+  @Test
+  public void wrongValueType() {
+    assertThatThrownBy(() -> Converters.PATH.convert(new IntValue(1)))
+        .isInstanceOf(ComfyException.class)
+        .hasMessage("Failed to convert a INT to a Path.");
+    assertThatThrownBy(() -> Converters.LIST.convert(new StringValue("a")))
+        .hasMessage("Failed to convert a STRING to a List.");
+  }
+}